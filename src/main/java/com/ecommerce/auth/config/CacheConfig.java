@@ -0,0 +1,82 @@
+package com.ecommerce.auth.config;
+
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.service.cache.CachePolicy;
+import com.ecommerce.auth.service.cache.ListingPage;
+import com.ecommerce.auth.service.cache.TwoTierCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(
+            @Value("${app.cache.refresh-pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cache-refresh-");
+        return executor;
+    }
+
+    @Bean
+    public TwoTierCache<ProductResponse> productCache(
+            @Value("${app.cache.products.l1.maximum-size:10000}") long l1MaximumSize,
+            @Value("${app.cache.products.l1.ttl:PT1M}") Duration l1Ttl,
+            @Value("${app.cache.products.l2.ttl:PT30M}") Duration ttl,
+            @Value("${app.cache.products.l2.stale-ttl:PT5M}") Duration staleTtl,
+            @Value("${app.cache.products.early-expiration-beta:1.0}") double earlyExpirationBeta,
+            @Value("${app.cache.products.lease.ttl:PT5S}") Duration leaseTtl,
+            @Value("${app.cache.products.lease.wait:PT200MS}") Duration leaseWait,
+            RedisTemplate<String, Object> redisTemplate,
+            StringRedisTemplate stringRedisTemplate,
+            ThreadPoolTaskExecutor cacheRefreshExecutor,
+            MeterRegistry meterRegistry,
+            RedisMessageListenerContainer listenerContainer) {
+
+        CachePolicy policy = new CachePolicy(l1MaximumSize, l1Ttl, ttl, staleTtl,
+                earlyExpirationBeta, leaseTtl, leaseWait);
+        TwoTierCache<ProductResponse> cache = new TwoTierCache<>("product", policy,
+                redisTemplate, stringRedisTemplate, cacheRefreshExecutor, meterRegistry);
+        listenerContainer.addMessageListener(cache, new ChannelTopic(cache.getInvalidationChannel()));
+        return cache;
+    }
+
+    @Bean
+    public TwoTierCache<ListingPage> listingCache(
+            @Value("${app.cache.listings.l1.maximum-size:2000}") long l1MaximumSize,
+            @Value("${app.cache.listings.l1.ttl:PT30S}") Duration l1Ttl,
+            @Value("${app.cache.listings.l2.ttl:PT10M}") Duration ttl,
+            @Value("${app.cache.listings.l2.stale-ttl:PT0S}") Duration staleTtl,
+            RedisTemplate<String, Object> redisTemplate,
+            StringRedisTemplate stringRedisTemplate,
+            ThreadPoolTaskExecutor cacheRefreshExecutor,
+            MeterRegistry meterRegistry) {
+
+        // Keys embed catalog versions, so entries are never invalidated individually
+        CachePolicy policy = new CachePolicy(l1MaximumSize, l1Ttl, ttl, staleTtl,
+                0, Duration.ofSeconds(5), Duration.ofMillis(200));
+        return new TwoTierCache<>("listing", policy,
+                redisTemplate, stringRedisTemplate, cacheRefreshExecutor, meterRegistry);
+    }
+
+}
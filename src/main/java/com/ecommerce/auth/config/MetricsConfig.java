@@ -0,0 +1,78 @@
+package com.ecommerce.auth.config;
+
+import com.ecommerce.auth.service.metrics.RequestMetrics;
+import com.ecommerce.auth.service.metrics.StatementCountingDataSource;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+@Configuration
+public class MetricsConfig {
+
+    // RedisTemplate takes one connection per operation, pipeline or script, so each is one round trip
+    private static final Set<String> REDIS_CONNECTION_METHODS =
+            Set.of("getConnection", "getClusterConnection", "getSentinelConnection");
+
+    // Static so wrapping applies to the data source and connection factory beans themselves
+    @Bean
+    static BeanPostProcessor requestMetricsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                if (bean instanceof RedisConnectionFactory) {
+                    ProxyFactory proxy = new ProxyFactory(bean);
+                    proxy.addAdvice((MethodInterceptor) invocation -> {
+                        if (REDIS_CONNECTION_METHODS.contains(invocation.getMethod().getName())) {
+                            RequestMetrics.countRedisRoundTrip();
+                        }
+                        return invocation.proceed();
+                    });
+                    return proxy.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Busy plus waiting requests over the pool size: 1.0 means every connection is
+     * in use, above it requests queue for a connection. The pool's own
+     * {@code hikaricp.*} meters are bound by Spring Boot.
+     */
+    @Bean
+    public MeterBinder connectionPoolSaturation(DataSource dataSource) {
+        return registry -> {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                    HikariDataSource.class);
+            if (hikari == null) {
+                return;
+            }
+            Gauge.builder("db.pool.saturation", hikari, pool -> {
+                        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+                        if (stats == null) {
+                            return 0;
+                        }
+                        return (double) (stats.getActiveConnections() + stats.getThreadsAwaitingConnection())
+                                / pool.getMaximumPoolSize();
+                    })
+                    .description("Active and waiting connection requests relative to the pool size")
+                    .register(registry);
+        };
+    }
+
+}
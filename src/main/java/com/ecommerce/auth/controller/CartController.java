@@ -1,4 +1,72 @@
 package com.ecommerce.auth.controller;
 
+import com.ecommerce.auth.dto.request.AddCartItemRequest;
+import com.ecommerce.auth.dto.request.BatchCartItemsRequest;
+import com.ecommerce.auth.dto.request.UpdateCartItemRequest;
+import com.ecommerce.auth.dto.response.CartResponse;
+import com.ecommerce.auth.service.CartService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cart")
 public class CartController {
+
+    @Autowired
+    private CartService cartService;
+
+    @GetMapping
+    @Operation(summary = "Get the current user's cart")
+    public ResponseEntity<CartResponse> getCart(Authentication authentication) {
+        return ResponseEntity.ok(cartService.getCart(currentUserId(authentication)));
+    }
+
+    @PostMapping("/items")
+    @Operation(summary = "Add a product to the cart")
+    public ResponseEntity<CartResponse> addItem(
+            Authentication authentication,
+            @Valid @RequestBody AddCartItemRequest request) {
+        return ResponseEntity.ok(cartService.addItem(currentUserId(authentication), request));
+    }
+
+    @PatchMapping("/items")
+    @Operation(summary = "Apply several add/update/remove operations at once",
+            description = "Operations are applied in order and stored as a single cart change; "
+                    + "if any referenced product is unknown nothing is applied")
+    public ResponseEntity<CartResponse> updateItems(
+            Authentication authentication,
+            @Valid @RequestBody BatchCartItemsRequest request) {
+        return ResponseEntity.ok(cartService.applyBatch(currentUserId(authentication), request));
+    }
+
+    @PutMapping("/items/{productId}")
+    @Operation(summary = "Change the quantity of a cart item")
+    public ResponseEntity<CartResponse> updateItem(
+            Authentication authentication,
+            @PathVariable Long productId,
+            @Valid @RequestBody UpdateCartItemRequest request) {
+        return ResponseEntity.ok(cartService.updateItem(currentUserId(authentication), productId, request));
+    }
+
+    @DeleteMapping("/items/{productId}")
+    @Operation(summary = "Remove a product from the cart")
+    public ResponseEntity<CartResponse> removeItem(Authentication authentication, @PathVariable Long productId) {
+        return ResponseEntity.ok(cartService.removeItem(currentUserId(authentication), productId));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Remove every item from the cart")
+    public ResponseEntity<CartResponse> clearCart(Authentication authentication) {
+        return ResponseEntity.ok(cartService.clearCart(currentUserId(authentication)));
+    }
+
+    // The token subject carries the user id
+    private Long currentUserId(Authentication authentication) {
+        return Long.valueOf(authentication.getName());
+    }
+
 }
@@ -1,4 +1,51 @@
 package com.ecommerce.auth.controller;
 
+import com.ecommerce.auth.dto.request.PlaceOrderRequest;
+import com.ecommerce.auth.dto.response.OrderResponse;
+import com.ecommerce.auth.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/orders")
 public class OrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    @PostMapping
+    @Operation(summary = "Check out the current cart",
+            description = "Returns 202 with the order number once the order is queued; poll GET /orders/{orderNumber} "
+                    + "for the outcome. Retrying with the same Idempotency-Key returns the same order, or 409 while the "
+                    + "first request is still queuing it")
+    public ResponseEntity<OrderResponse> placeOrder(
+            Authentication authentication,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody PlaceOrderRequest request) {
+        OrderResponse order = orderService.placeOrder(currentUserId(authentication), idempotencyKey, request);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{orderNumber}")
+                .buildAndExpand(order.getOrderNumber())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(order);
+    }
+
+    @GetMapping("/{orderNumber}")
+    @Operation(summary = "Get an order of the current user")
+    public ResponseEntity<OrderResponse> getOrder(Authentication authentication, @PathVariable String orderNumber) {
+        return ResponseEntity.ok(orderService.getOrder(currentUserId(authentication), orderNumber));
+    }
+
+    // The token subject carries the user id
+    private Long currentUserId(Authentication authentication) {
+        return Long.valueOf(authentication.getName());
+    }
+
 }
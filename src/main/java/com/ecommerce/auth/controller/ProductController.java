@@ -1,17 +1,32 @@
 package com.ecommerce.auth.controller;
 
+import com.ecommerce.auth.dto.request.BrowseProductsRequest;
 import com.ecommerce.auth.dto.request.CreateProductRequest;
 import com.ecommerce.auth.dto.request.UpdateProductRequest;
+import com.ecommerce.auth.dto.response.CatalogImportResponse;
 import com.ecommerce.auth.dto.response.PageResponse;
+import com.ecommerce.auth.dto.response.ProductBrowseResponse;
 import com.ecommerce.auth.dto.response.ProductResponse;
 import com.ecommerce.auth.service.ProductService;
+import com.ecommerce.auth.service.catalog.CatalogBrowseService;
+import com.ecommerce.auth.service.catalog.CatalogExportService;
+import com.ecommerce.auth.service.catalog.CatalogFormat;
+import com.ecommerce.auth.service.catalog.CatalogImportService;
+import com.ecommerce.auth.service.inventory.HotStockService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/products")
@@ -19,22 +34,44 @@ public class ProductController {
 
     @Autowired
     private ProductService productService;
+    @Autowired
+    private CatalogImportService catalogImportService;
+    @Autowired
+    private CatalogExportService catalogExportService;
+    @Autowired
+    private CatalogBrowseService catalogBrowseService;
+    @Autowired(required = false)
+    private HotStockService hotStockService;
 
     @GetMapping
-    @Operation(summary = "Get all products with pagination")
+    @Operation(summary = "Get all products with pagination",
+            description = "Passing a cursor parameter (empty for the first page) switches to keyset pagination: "
+                    + "page is ignored, follow nextCursor instead, and totals are only returned with includeTotal=true. "
+                    + "In page mode a search term is matched by full-text search and results are ranked by relevance")
     public ResponseEntity<PageResponse<ProductResponse>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
-        PageResponse<ProductResponse> products = productService.getAllProducts(
-                page, size, sortBy, sortDir, category, search);
+        PageResponse<ProductResponse> products = cursor != null
+                ? productService.getProductsByCursor(cursor, size, sortBy, sortDir, category, search, includeTotal)
+                : productService.getAllProducts(page, size, sortBy, sortDir, category, search);
         return ResponseEntity.ok(products);
     }
 
+    @PostMapping("/browse")
+    @Operation(summary = "Browse products with combined filters and facet counts",
+            description = "Filters by category subtree, price range and stock in any combination. "
+                    + "Each facet counts the products matching every filter except its own")
+    public ResponseEntity<ProductBrowseResponse> browseProducts(@Valid @RequestBody BrowseProductsRequest request) {
+        return ResponseEntity.ok(catalogBrowseService.browse(request));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
@@ -69,4 +106,58 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/{id}/hot-stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Move product stock into sharded Redis counters for a promotion")
+    public ResponseEntity<Void> promoteHotStock(@PathVariable Long id) {
+        requireHotStock().promote(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/hot-stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Return product stock from Redis counters to the database")
+    public ResponseEntity<Void> demoteHotStock(@PathVariable Long id) {
+        requireHotStock().demote(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import a product feed",
+            description = "Streams a CSV (with header row) or NDJSON feed of sku, name, description, price, "
+                    + "stockQuantity and category (slug or name) and upserts it on SKU. Invalid records are "
+                    + "rejected and reported; the rest are imported in one transaction")
+    public ResponseEntity<CatalogImportResponse> importProducts(HttpServletRequest request) throws IOException {
+        CatalogFormat format = CatalogFormat.of(MediaType.parseMediaType(request.getContentType()));
+        try {
+            return ResponseEntity.ok(catalogImportService.importProducts(request.getInputStream(), format));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SELLER')")
+    @Operation(summary = "Export all active products",
+            description = "Streams the catalog in id order as NDJSON (default) or CSV, in the format the import accepts")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.of(format);
+        if (catalogFormat == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        StreamingResponseBody body = out -> catalogExportService.export(catalogFormat, out);
+        return ResponseEntity.ok()
+                .contentType(catalogFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + catalogFormat.extension() + "\"")
+                .body(body);
+    }
+
+    private HotStockService requireHotStock() {
+        if (hotStockService == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Hot-stock mode is disabled");
+        }
+        return hotStockService;
+    }
+
 }
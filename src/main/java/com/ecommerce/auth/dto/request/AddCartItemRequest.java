@@ -0,0 +1,29 @@
+package com.ecommerce.auth.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to add a product to the cart")
+public class AddCartItemRequest {
+
+    @Schema(description = "Product ID", example = "1", required = true)
+    @NotNull(message = "Product ID is required")
+    @Positive(message = "Product ID must be a positive number")
+    private Long productId;
+
+    @Schema(description = "Quantity to add", example = "2", required = true)
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 999, message = "Quantity cannot exceed 999")
+    private Integer quantity;
+}
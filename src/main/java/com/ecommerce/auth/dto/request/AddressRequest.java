@@ -0,0 +1,42 @@
+package com.ecommerce.auth.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Postal address")
+public class AddressRequest {
+
+    @Schema(description = "Street and number", example = "1 Infinite Loop", required = true)
+    @NotBlank(message = "Street is required")
+    @Size(max = 255, message = "Street cannot exceed 255 characters")
+    private String street;
+
+    @Schema(description = "City", example = "Cupertino", required = true)
+    @NotBlank(message = "City is required")
+    @Size(max = 100, message = "City cannot exceed 100 characters")
+    private String city;
+
+    @Schema(description = "State or region", example = "CA")
+    @Size(max = 100, message = "State cannot exceed 100 characters")
+    private String state;
+
+    @Schema(description = "Country", example = "US", required = true)
+    @NotBlank(message = "Country is required")
+    @Size(max = 100, message = "Country cannot exceed 100 characters")
+    private String country;
+
+    @Schema(description = "Postal code", example = "95014", required = true)
+    @NotBlank(message = "Zip code is required")
+    @Size(max = 20, message = "Zip code cannot exceed 20 characters")
+    private String zipCode;
+}
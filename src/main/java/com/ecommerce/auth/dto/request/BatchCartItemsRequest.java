@@ -0,0 +1,26 @@
+package com.ecommerce.auth.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to apply several cart changes at once, in order")
+public class BatchCartItemsRequest {
+
+    @Schema(description = "Changes to apply, in order", required = true)
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 200, message = "A batch cannot exceed 200 operations")
+    private List<@Valid @NotNull CartItemOperationRequest> operations;
+}
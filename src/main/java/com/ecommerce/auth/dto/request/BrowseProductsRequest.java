@@ -0,0 +1,57 @@
+package com.ecommerce.auth.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filters, sort and page for browsing the catalog; every filter is optional")
+public class BrowseProductsRequest {
+
+    @Schema(description = "Only products in this category or any of its subcategories", example = "3")
+    private Long categoryId;
+
+    @Schema(description = "Lowest price, inclusive", example = "10.00")
+    @DecimalMin(value = "0", message = "Minimum price cannot be negative")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Highest price, inclusive", example = "99.99")
+    @DecimalMin(value = "0", message = "Maximum price cannot be negative")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Only products with stock on hand", example = "true")
+    private Boolean inStock;
+
+    @Schema(description = "Page number (0-based)", example = "0")
+    @Min(value = 0, message = "Page cannot be negative")
+    @Builder.Default
+    private int page = 0;
+
+    @Schema(description = "Page size", example = "20")
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size cannot exceed 100")
+    @Builder.Default
+    private int size = 20;
+
+    @Schema(description = "Sort field", example = "price", allowableValues = {"id", "name", "price", "stockQuantity", "createdAt", "updatedAt"})
+    @Builder.Default
+    private String sortBy = "id";
+
+    @Schema(description = "Sort direction", example = "asc", allowableValues = {"asc", "desc"})
+    @Pattern(regexp = "(?i)asc|desc", message = "Sort direction must be asc or desc")
+    @Builder.Default
+    private String sortDir = "asc";
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.auth.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One change in a batch cart update")
+public class CartItemOperationRequest {
+
+    public enum Operation {
+        ADD, UPDATE, REMOVE
+    }
+
+    @Schema(description = "ADD increases the quantity, UPDATE sets it, REMOVE drops the item", example = "ADD", required = true)
+    @NotNull(message = "Operation is required")
+    private Operation op;
+
+    @Schema(description = "Product ID", example = "1", required = true)
+    @NotNull(message = "Product ID is required")
+    @Positive(message = "Product ID must be a positive number")
+    private Long productId;
+
+    @Schema(description = "Quantity to add or set; ignored for REMOVE", example = "2")
+    @Min(value = 0, message = "Quantity cannot be negative")
+    @Max(value = 999, message = "Quantity cannot exceed 999")
+    private Integer quantity;
+}
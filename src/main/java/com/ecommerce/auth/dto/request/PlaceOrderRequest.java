@@ -0,0 +1,37 @@
+package com.ecommerce.auth.dto.request;
+
+import com.ecommerce.auth.model.PaymentMethod;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to check out the current cart")
+public class PlaceOrderRequest {
+
+    @Schema(description = "Shipping address", required = true)
+    @NotNull(message = "Shipping address is required")
+    @Valid
+    private AddressRequest shippingAddress;
+
+    @Schema(description = "Billing address; defaults to the shipping address")
+    @Valid
+    private AddressRequest billingAddress;
+
+    @Schema(description = "Payment method", example = "CREDIT_CARD", required = true)
+    @NotNull(message = "Payment method is required")
+    private PaymentMethod paymentMethod;
+
+    @Schema(description = "Notes for the order", example = "Leave at the front door")
+    @Size(max = 500, message = "Notes cannot exceed 500 characters")
+    private String notes;
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cart Item Response Schema")
+public class CartItemResponse {
+    @Schema(description = "Product unique identifier", example = "1")
+    private Long productId;
+
+    @Schema(description = "Quantity in the cart", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "Unit price when the item was last added or updated", example = "999.99")
+    private BigDecimal unitPrice;
+
+    @Schema(description = "Quantity times unit price", example = "1999.98")
+    private BigDecimal subtotal;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cart Response Schema")
+public class CartResponse {
+    @Schema(description = "Items in the cart, ordered by product ID")
+    private List<CartItemResponse> items;
+
+    @Schema(description = "Total number of units in the cart", example = "3")
+    private Integer totalItems;
+
+    @Schema(description = "Sum of all item subtotals", example = "2049.97")
+    private BigDecimal totalAmount;
+}
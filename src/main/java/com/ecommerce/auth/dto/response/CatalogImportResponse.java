@@ -0,0 +1,57 @@
+package com.ecommerce.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of a bulk catalog import")
+public class CatalogImportResponse {
+    @Schema(description = "Records read from the feed", example = "2000000")
+    private Long read;
+
+    @Schema(description = "Records that passed validation and were staged", example = "1999950")
+    private Long staged;
+
+    @Schema(description = "Products created", example = "1200")
+    private Long inserted;
+
+    @Schema(description = "Existing products whose data changed", example = "35000")
+    private Long updated;
+
+    @Schema(description = "Existing products that were already up to date", example = "1963700")
+    private Long unchanged;
+
+    @Schema(description = "Staged records superseded by a later record with the same SKU", example = "50")
+    private Long duplicates;
+
+    @Schema(description = "Records rejected by validation", example = "50")
+    private Long rejected;
+
+    @Schema(description = "The first rejected records with their reasons")
+    private List<Reject> rejects;
+
+    @Schema(description = "Wall-clock duration of the import in milliseconds", example = "48000")
+    private Long durationMs;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "A rejected feed record")
+    public static class Reject {
+        @Schema(description = "Line of the feed the record starts on", example = "1042")
+        private Long line;
+
+        @Schema(description = "Why the record was rejected", example = "Unknown category: phones")
+        private String reason;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.auth.dto.response;
+
+import com.ecommerce.auth.model.OrderStatus;
+import com.ecommerce.auth.model.PaymentMethod;
+import com.ecommerce.auth.model.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Order Response Schema")
+public class OrderResponse {
+    @Schema(description = "Order number, also the handle returned when checkout is accepted", example = "ORD-1718000000000-0042")
+    private String orderNumber;
+
+    @Schema(description = "Order status; PENDING while checkout is still running", example = "CONFIRMED")
+    private OrderStatus status;
+
+    @Schema(description = "Payment status", example = "PROCESSING")
+    private PaymentStatus paymentStatus;
+
+    @Schema(description = "Payment method", example = "CREDIT_CARD")
+    private PaymentMethod paymentMethod;
+
+    @Schema(description = "Ordered items")
+    private List<OrderItemResponse> items;
+
+    @Schema(description = "Sum of item subtotals", example = "1999.98")
+    private BigDecimal subtotal;
+
+    @Schema(description = "Tax amount", example = "200.00")
+    private BigDecimal taxAmount;
+
+    @Schema(description = "Shipping amount", example = "0.00")
+    private BigDecimal shippingAmount;
+
+    @Schema(description = "Total charged", example = "2199.98")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "Why checkout was rejected, when it was", example = "Insufficient stock for product with id: 1")
+    private String failureReason;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "Order timestamp", example = "2024-01-15 10:30:00")
+    private LocalDateTime orderDate;
+}
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -15,7 +17,7 @@ import java.util.List;
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Generic paginated response wrapper")
-public class PageResponse<T> {
+public class PageResponse<T> implements Serializable {
 
     @Schema(description = "List of items in current page")
     private List<T> content;
@@ -26,11 +28,11 @@ public class PageResponse<T> {
     @Schema(description = "Page size", example = "10")
     private int pageSize;
 
-    @Schema(description = "Total number of elements", example = "100")
-    private long totalElements;
+    @Schema(description = "Total number of elements, omitted for cursor pages unless requested", example = "100")
+    private Long totalElements;
 
-    @Schema(description = "Total number of pages", example = "10")
-    private int totalPages;
+    @Schema(description = "Total number of pages, omitted for cursor pages unless requested", example = "10")
+    private Integer totalPages;
 
     @Schema(description = "Whether this is the last page", example = "false")
     private boolean last;
@@ -44,4 +46,14 @@ public class PageResponse<T> {
     @Schema(description = "Whether the page is empty", example = "false")
     private boolean empty;
 
+    @Schema(description = "Opaque token for the next page in cursor mode, absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Version of the in-memory catalog snapshot that served the page, absent when "
+            + "the page came from the database", example = "42")
+    private Long snapshotVersion;
+
+    @Schema(description = "When that snapshot was built; the page reflects the catalog as of this instant")
+    private Instant snapshotBuiltAt;
+
 }
@@ -0,0 +1,78 @@
+package com.ecommerce.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A page of browsed products with facet counts for the filter sidebar")
+public class ProductBrowseResponse {
+    @Schema(description = "The requested page of matching products")
+    private PageResponse<ProductResponse> page;
+
+    @Schema(description = "Product counts per price bucket, honouring every filter except the price range")
+    private List<PriceBucket> priceBuckets;
+
+    @Schema(description = "Product counts per subcategory of the selected category (or per root category), "
+            + "honouring every filter except the category")
+    private List<CategoryCount> categories;
+
+    @Schema(description = "Product counts by availability, honouring every filter except in-stock")
+    private Availability availability;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "A price range and the number of products in it")
+    public static class PriceBucket {
+        @Schema(description = "Lowest price in the bucket, inclusive; absent for the lowest bucket", example = "25")
+        private BigDecimal min;
+
+        @Schema(description = "Highest price in the bucket, exclusive; absent for the highest bucket", example = "50")
+        private BigDecimal max;
+
+        @Schema(description = "Matching products in the bucket", example = "42")
+        private Long count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "A category and the number of matching products in its subtree")
+    public static class CategoryCount {
+        @Schema(description = "Category id", example = "3")
+        private Long id;
+
+        @Schema(description = "Category name", example = "Phones")
+        private String name;
+
+        @Schema(description = "Category slug", example = "phones")
+        private String slug;
+
+        @Schema(description = "Matching products in the category and its subcategories", example = "17")
+        private Long count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Matching products with and without stock on hand")
+    public static class Availability {
+        @Schema(description = "Matching products with stock", example = "120")
+        private Long inStock;
+
+        @Schema(description = "Matching products without stock", example = "8")
+        private Long outOfStock;
+    }
+}
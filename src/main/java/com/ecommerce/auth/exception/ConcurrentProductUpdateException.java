@@ -0,0 +1,19 @@
+package com.ecommerce.auth.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentProductUpdateException extends RuntimeException {
+
+    private final Long productId;
+
+    public ConcurrentProductUpdateException(Long productId, Throwable cause) {
+        super("Product with id " + productId + " was changed concurrently; reload it and retry", cause);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
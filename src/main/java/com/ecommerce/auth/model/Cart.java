@@ -10,8 +10,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
 @Table(name="carts")
@@ -24,7 +28,8 @@ import java.util.Objects;
 @EqualsAndHashCode(exclude = {"relationshipFields"}) // Exclude collections
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
     private Long id;
 
     @JsonIgnore
@@ -48,25 +53,32 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<CartItem> cartItems = new ArrayList<>();
 
-    // Business methods
+    // Product id -> item, built on first use so loading a cart does not pay for it
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Long, CartItem> itemIndex;
+
+    // Business methods. Lookups go through the index and totals move by deltas,
+    // so add and update cost the same for 1 line item or 500.
     public void addItem(Product product, Integer quantity) {
         CartItem existingItem = findCartItemByProduct(product);
 
         if (existingItem != null) {
-            existingItem.updateQuantity(existingItem.getQuantity() + quantity);
+            changeQuantity(existingItem, existingItem.getQuantity() + quantity);
         } else {
             CartItem newItem = new CartItem(this, product, quantity, product.getPrice());
             cartItems.add(newItem);
+            itemIndex().put(product.getId(), newItem);
+            applyDelta(quantity, newItem.getSubtotal());
         }
-
-        recalculateTotal();
     }
 
     public void removeItem(Product product) {
-        CartItem itemToRemove = findCartItemByProduct(product);
+        CartItem itemToRemove = itemIndex().remove(product.getId());
         if (itemToRemove != null) {
             cartItems.remove(itemToRemove);
-            recalculateTotal();
+            applyDelta(-itemToRemove.getQuantity(), itemToRemove.getSubtotal().negate());
         }
     }
 
@@ -76,15 +88,53 @@ public class Cart {
             if (newQuantity <= 0) {
                 removeItem(product);
             } else {
-                item.updateQuantity(newQuantity);
-                recalculateTotal();
+                changeQuantity(item, newQuantity);
+            }
+        }
+    }
+
+    /**
+     * Sets a line to an exact quantity and unit price, adding it if missing. Used when
+     * the cart is synced from a snapshot whose prices were captured earlier.
+     */
+    public void setItem(Product product, Integer quantity, BigDecimal unitPrice) {
+        CartItem item = findCartItemByProduct(product);
+        if (item == null) {
+            item = new CartItem(this, product, quantity, unitPrice);
+            cartItems.add(item);
+            itemIndex().put(product.getId(), item);
+            applyDelta(quantity, item.getSubtotal());
+            return;
+        }
+        int previousQuantity = item.getQuantity();
+        BigDecimal previousSubtotal = item.getSubtotal();
+        if (item.getUnitPrice().compareTo(unitPrice) != 0) {
+            item.updateUnitPrice(unitPrice);
+        }
+        if (previousQuantity != quantity) {
+            item.updateQuantity(quantity);
+        }
+        applyDelta(quantity - previousQuantity, item.getSubtotal().subtract(previousSubtotal));
+    }
+
+    // Drops every line whose product is not in productIds
+    public void retainProducts(Set<Long> productIds) {
+        Iterator<CartItem> items = cartItems.iterator();
+        while (items.hasNext()) {
+            CartItem item = items.next();
+            if (!productIds.contains(item.getProduct().getId())) {
+                items.remove();
+                itemIndex().remove(item.getProduct().getId());
+                applyDelta(-item.getQuantity(), item.getSubtotal().negate());
             }
         }
     }
 
     public void clearCart() {
         cartItems.clear();
-        recalculateTotal();
+        itemIndex().clear();
+        this.totalAmount = BigDecimal.ZERO;
+        this.totalItems = 0;
     }
 
     public boolean isEmpty() {
@@ -96,20 +146,29 @@ public class Cart {
     }
 
     private CartItem findCartItemByProduct(Product product) {
-        return cartItems.stream()
-                .filter(item -> item.getProduct().equals(product))
-                .findFirst()
-                .orElse(null);
+        return itemIndex().get(product.getId());
+    }
+
+    private Map<Long, CartItem> itemIndex() {
+        if (itemIndex == null) {
+            itemIndex = new HashMap<>(Math.max(16, cartItems.size() * 2));
+            for (CartItem item : cartItems) {
+                itemIndex.put(item.getProduct().getId(), item);
+            }
+        }
+        return itemIndex;
     }
 
-    private void recalculateTotal() {
-        this.totalAmount = cartItems.stream()
-                .map(CartItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void changeQuantity(CartItem item, int newQuantity) {
+        int previousQuantity = item.getQuantity();
+        BigDecimal previousSubtotal = item.getSubtotal();
+        item.updateQuantity(newQuantity);
+        applyDelta(newQuantity - previousQuantity, item.getSubtotal().subtract(previousSubtotal));
+    }
 
-        this.totalItems = cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+    private void applyDelta(int quantityDelta, BigDecimal amountDelta) {
+        this.totalItems += quantityDelta;
+        this.totalAmount = this.totalAmount.add(amountDelta);
     }
 
     @Override
@@ -23,7 +23,8 @@ import java.util.Objects;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long id;
 
     @JsonIgnore
@@ -51,6 +52,14 @@ public class CartItem {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    public CartItem(Cart cart, Product product, Integer quantity, BigDecimal unitPrice) {
+        this.cart = cart;
+        this.product = product;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.subtotal = unitPrice.multiply(new BigDecimal(quantity));
+    }
+
     // Business methods
     public void updateQuantity(Integer newQuantity) {
         this.quantity = newQuantity;
@@ -67,12 +76,13 @@ public class CartItem {
         if (this == o) return true;
         if (!(o instanceof CartItem)) return false;
         CartItem cartItem = (CartItem) o;
-        return Objects.equals(id, cartItem.id);
+        // Unsaved items are only equal to themselves, so removing one never removes another
+        return id != null && Objects.equals(id, cartItem.id);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return getClass().hashCode();
     }
 
     @Override
@@ -1,14 +1,17 @@
 package com.ecommerce.auth.model;
 
+import com.ecommerce.auth.service.event.CategoryChangedEvent;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.DomainEvents;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Entity
@@ -23,7 +26,8 @@ import java.util.Set;
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -83,19 +87,10 @@ public class Category {
         return parent == null;
     }
 
-    public boolean hasSubcategories() {
-        return subcategories != null && !subcategories.isEmpty();
-    }
-
-    public boolean isLeafCategory() {
-        return !hasSubcategories();
-    }
-
-    public int getLevel() {
-        if (isRootCategory()) {
-            return 0;
-        }
-        return parent.getLevel() + 1;
+    // Any save may move the category in the tree, so every save announces a change
+    @DomainEvents
+    List<CategoryChangedEvent> changes() {
+        return List.of(new CategoryChangedEvent(id));
     }
 
     private String generateSlug(String name) {
@@ -1,18 +1,20 @@
 package com.ecommerce.auth.model;
 
+import com.ecommerce.auth.service.event.OrderStatusChangedEvent;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
 
 @Entity
 @Table(name="orders")
@@ -26,7 +28,8 @@ import java.util.Random;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -85,6 +88,16 @@ public class Order {
     @Column(length = 500)
     private String notes;
 
+    // Stock held for this order by the inventory service until payment settles
+    @Column(length = 36)
+    private String stockReservationId;
+
+    @Column(length = 255)
+    private String failureReason;
+
+    // Set while a checkout pipeline worker owns the order; an expired lease lets another resume it
+    private LocalDateTime pipelineLeaseUntil;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -95,6 +108,14 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
 
+    // Published by the repository on save, inside the saving transaction
+    @Transient
+    @JsonIgnore
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<OrderStatusChangedEvent> statusChanges = new ArrayList<>();
+
     // Business methods
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
@@ -118,27 +139,37 @@ public class Order {
     }
 
     public void markAsShipped(String trackingNumber) {
-        this.status = OrderStatus.SHIPPED;
+        transitionTo(OrderStatus.SHIPPED);
         this.shippedDate = LocalDateTime.now();
         this.trackingNumber = trackingNumber;
     }
 
     public void markAsDelivered() {
-        this.status = OrderStatus.DELIVERED;
+        transitionTo(OrderStatus.DELIVERED);
         this.deliveredDate = LocalDateTime.now();
     }
 
     public void cancel() {
         if (status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED) {
-            this.status = OrderStatus.CANCELLED;
+            transitionTo(OrderStatus.CANCELLED);
         } else {
             throw new IllegalStateException("Cannot cancel order with status: " + status);
         }
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" +
-                String.format("%04d", new Random().nextInt(10000));
+    private void transitionTo(OrderStatus next) {
+        statusChanges.add(new OrderStatusChangedEvent(id, orderNumber, status, next));
+        this.status = next;
+    }
+
+    @DomainEvents
+    List<OrderStatusChangedEvent> statusChanges() {
+        return List.copyOf(statusChanges);
+    }
+
+    @AfterDomainEventPublication
+    void clearStatusChanges() {
+        statusChanges.clear();
     }
 
     @Override
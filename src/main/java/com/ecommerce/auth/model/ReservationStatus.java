@@ -0,0 +1,5 @@
+package com.ecommerce.auth.model;
+
+public enum ReservationStatus {
+    ACTIVE, CONFIRMED, RELEASED, EXPIRED
+}
@@ -1,4 +1,23 @@
 package com.ecommerce.auth.repository;
 
-public class CartRepository {
+import com.ecommerce.auth.model.Cart;
+import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CartRepository extends JpaRepository<Cart, Long> {
+
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems WHERE c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+
+    // Write-behind flushes load a whole batch of carts in one query
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems WHERE c.user.id IN :userIds")
+    List<Cart> findAllWithItemsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
 }
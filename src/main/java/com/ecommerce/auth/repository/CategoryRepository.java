@@ -68,24 +68,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT DISTINCT c FROM Category c JOIN c.products p WHERE c.active = true AND p.active = true ORDER BY c.sortOrder")
     List<Category> findCategoriesWithProducts();
 
-    // Find all categories in a hierarchy (category and its parents)
-    @Query(value = "WITH RECURSIVE category_hierarchy AS (" +
-            "SELECT c.id, c.name, c.slug, c.parent_id, c.active, 0 as level " +
-            "FROM categories c WHERE c.id = :categoryId " +
-            "UNION ALL " +
-            "SELECT c.id, c.name, c.slug, c.parent_id, c.active, ch.level + 1 " +
-            "FROM categories c JOIN category_hierarchy ch ON c.id = ch.parent_id) " +
-            "SELECT * FROM category_hierarchy WHERE active = true", nativeQuery = true)
-    List<Object[]> findCategoryHierarchy(@Param("categoryId") Long categoryId);
-
-    // Find categories by level (depth in hierarchy)
-    @Query("SELECT c FROM Category c WHERE c.active = true AND SIZE(c.subcategories) > 0 ORDER BY c.sortOrder")
-    List<Category> findCategoriesWithSubcategories();
-
-    // Find leaf categories (no subcategories)
-    @Query("SELECT c FROM Category c WHERE c.active = true AND SIZE(c.subcategories) = 0 ORDER BY c.sortOrder")
-    List<Category> findLeafCategories();
-
     // Find categories ordered by sort order
     List<Category> findByActiveTrueOrderBySortOrder();
 
@@ -1,4 +1,39 @@
 package com.ecommerce.auth.repository;
 
-public class OrderRepository {
+import com.ecommerce.auth.model.Order;
+import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.orderNumber = :orderNumber AND o.user.id = :userId")
+    Optional<Order> findWithItemsByOrderNumberAndUserId(@Param("orderNumber") String orderNumber, @Param("userId") Long userId);
+
+    boolean existsByOrderNumber(String orderNumber);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    // Only one pipeline worker at a time may own a pending order
+    @Modifying
+    @Query("UPDATE Order o SET o.pipelineLeaseUntil = :leaseUntil WHERE o.id = :id " +
+            "AND o.status = com.ecommerce.auth.model.OrderStatus.PENDING " +
+            "AND (o.pipelineLeaseUntil IS NULL OR o.pipelineLeaseUntil < :now)")
+    int claimForPipeline(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = com.ecommerce.auth.model.OrderStatus.PENDING " +
+            "AND o.createdAt < :createdBefore AND (o.pipelineLeaseUntil IS NULL OR o.pipelineLeaseUntil < :now) " +
+            "ORDER BY o.createdAt")
+    List<Long> findStalledPendingIds(@Param("createdBefore") LocalDateTime createdBefore,
+                                     @Param("now") LocalDateTime now, Limit limit);
+
 }
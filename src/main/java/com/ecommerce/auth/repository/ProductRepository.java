@@ -1,18 +1,36 @@
 package com.ecommerce.auth.repository;
 
 import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.projection.ProductPrice;
+import com.ecommerce.auth.repository.projection.ProductSummary;
 import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.name AS name, p.description AS description, p.price AS price, " +
+            "p.stockQuantity AS stockQuantity, p.sku AS sku, c.name AS categoryName, p.active AS active, " +
+            "p.createdAt AS createdAt, p.updatedAt AS updatedAt FROM Product p LEFT JOIN p.category c ";
+
+    String NATIVE_SUMMARY_SELECT = "SELECT p.id AS id, p.name AS name, p.description AS description, p.price AS price, " +
+            "p.stock_quantity AS \"stockQuantity\", p.sku AS sku, c.name AS \"categoryName\", p.active AS active, " +
+            "p.created_at AS \"createdAt\", p.updated_at AS \"updatedAt\" " +
+            "FROM products p LEFT JOIN categories c ON c.id = p.category_id ";
 
     // Find active products with pagination
     Page<Product> findByActiveTrue(Pageable pageable);
@@ -61,14 +79,69 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.stockQuantity = 0")
     List<Product> findOutOfStockProducts();
 
-    // Search products by name, description, or SKU
-    @Query("SELECT p FROM Product p WHERE p.active = true AND " +
-            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    // Full-text search by name, description, or SKU, ranked by relevance (GIN index on search_vector)
+    @Query(value = "SELECT p.* FROM products p " +
+            "WHERE p.active = true AND p.search_vector @@ websearch_to_tsquery('english', :searchTerm) " +
+            "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', :searchTerm)) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p " +
+                    "WHERE p.active = true AND p.search_vector @@ websearch_to_tsquery('english', :searchTerm)",
+            nativeQuery = true)
     Page<Product> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     // Check if SKU exists (for validation)
     boolean existsBySkuAndActiveTrue(String sku);
 
+    // Keyset (seek) pagination - no OFFSET scan and no COUNT query; category fetched in the same query
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByActiveTrue(ScrollPosition position, Limit limit, Sort sort);
+
+    // Filtered keyset pages go through ProductSpecifications; totals only run when the caller asks for them
+    long countByActiveTrue();
+
+    // Projections for listing and search: category name joined in, no entities materialized
+    @Query(SUMMARY_SELECT + "WHERE p.active = true")
+    Page<ProductSummary> findActiveSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.active = true AND LOWER(c.name) LIKE LOWER(CONCAT('%', :category, '%'))")
+    Page<ProductSummary> findActiveSummariesByCategoryName(@Param("category") String category, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.active = true AND p.id = :id")
+    Optional<ProductSummary> findActiveSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE p.active = true AND p.id IN :ids")
+    List<ProductSummary> findActiveSummariesByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(value = NATIVE_SUMMARY_SELECT +
+            "WHERE p.active = true AND p.search_vector @@ websearch_to_tsquery('english', :searchTerm) " +
+            "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', :searchTerm)) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p " +
+                    "WHERE p.active = true AND p.search_vector @@ websearch_to_tsquery('english', :searchTerm)",
+            nativeQuery = true)
+    Page<ProductSummary> searchSummaries(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    @Query(value = NATIVE_SUMMARY_SELECT +
+            "WHERE p.active = true AND p.search_vector @@ websearch_to_tsquery('english', :searchTerm) " +
+            "AND LOWER(c.name) LIKE LOWER(CONCAT('%', :category, '%')) " +
+            "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', :searchTerm)) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p JOIN categories c ON c.id = p.category_id " +
+                    "WHERE p.active = true AND p.search_vector @@ websearch_to_tsquery('english', :searchTerm) " +
+                    "AND LOWER(c.name) LIKE LOWER(CONCAT('%', :category, '%'))",
+            nativeQuery = true)
+    Page<ProductSummary> searchSummariesInCategory(@Param("searchTerm") String searchTerm,
+                                                   @Param("category") String category,
+                                                   Pageable pageable);
+
+    // Holds the row's share lock until commit, so a hot-stock promotion or demotion waits for the caller
+    @Query(value = "SELECT hot_stock FROM products WHERE id = :id FOR SHARE", nativeQuery = true)
+    boolean lockHotStockFlag(@Param("id") Long id);
+
+    // Categories of the given products, for bumping listing versions after a stock change
+    @Query("SELECT DISTINCT p.category.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findCategoryIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Checkout prices: share-locked until commit, so a concurrent price change waits for the order
+    @Query(value = "SELECT id AS id, price AS price FROM products WHERE id IN (:ids) AND active = true FOR SHARE",
+            nativeQuery = true)
+    List<ProductPrice> lockActivePrices(@Param("ids") Collection<Long> ids);
+
 }
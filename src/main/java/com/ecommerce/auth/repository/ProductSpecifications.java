@@ -0,0 +1,47 @@
+package com.ecommerce.auth.repository;
+
+import com.ecommerce.auth.model.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filters for keyset listings, which need a {@link Specification} because only derived
+ * and specification queries can scroll by keyset. Derived {@code ...IgnoreCase}
+ * methods compile to {@code upper(...)}; these match on {@code lower(...)} so the V1
+ * trigram index on {@code LOWER(name)} serves the substring search.
+ */
+public final class ProductSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private ProductSpecifications() {
+    }
+
+    /** Active products whose category name and product name contain the given text; null filters are skipped. */
+    public static Specification<Product> activeMatching(String category, String search) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(3);
+            predicates.add(cb.isTrue(root.get("active")));
+            if (category != null) {
+                predicates.add(cb.like(cb.lower(root.join("category").get("name")), containing(category), ESCAPE));
+            }
+            if (search != null) {
+                predicates.add(cb.like(cb.lower(root.get("name")), containing(search), ESCAPE));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String containing(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.auth.repository;
+
+import com.ecommerce.auth.model.ReservationStatus;
+import com.ecommerce.auth.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Lines of one reservation, locked so confirm and release cannot interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findByReservationIdAndStatus(String reservationId, ReservationStatus status);
+
+    // Expired holds, skipping rows another node is already releasing
+    @Query(value = "SELECT * FROM stock_reservations WHERE status = 'ACTIVE' AND expires_at < :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StockReservation> lockExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.auth.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Current price of an active product, read by checkout straight from the database
+ * rather than through the product cache.
+ */
+public interface ProductPrice {
+
+    Long getId();
+
+    BigDecimal getPrice();
+
+}
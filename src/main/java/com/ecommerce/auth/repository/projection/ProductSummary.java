@@ -0,0 +1,32 @@
+package com.ecommerce.auth.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only product row for listings and search, selected together with its
+ * category name in a single query so no {@code Product} entity is materialized.
+ */
+public interface ProductSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    BigDecimal getPrice();
+
+    Integer getStockQuantity();
+
+    String getSku();
+
+    String getCategoryName();
+
+    Boolean getActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+}
@@ -1,4 +1,287 @@
 package com.ecommerce.auth.service;
 
+import com.ecommerce.auth.dto.request.AddCartItemRequest;
+import com.ecommerce.auth.dto.request.BatchCartItemsRequest;
+import com.ecommerce.auth.dto.request.CartItemOperationRequest;
+import com.ecommerce.auth.dto.request.UpdateCartItemRequest;
+import com.ecommerce.auth.dto.response.CartItemResponse;
+import com.ecommerce.auth.dto.response.CartResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.model.Cart;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.model.User;
+import com.ecommerce.auth.repository.CartRepository;
+import com.ecommerce.auth.service.cart.CartMutation;
+import com.ecommerce.auth.service.cart.CartSnapshot;
+import com.ecommerce.auth.service.cart.HotCartStore;
+import com.ecommerce.auth.service.metrics.RequestMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Carts are read and written in {@link HotCartStore}; the {@code carts} and
+ * {@code cart_items} tables are written behind. Dirty carts are flushed in batches
+ * every few seconds, and synchronously at checkout, so a Redis failure loses at most
+ * one flush interval of cart edits.
+ * <p>
+ * Nothing here evicts a cart early: a cart leaves Redis only when its TTL runs out,
+ * long after its last flush. The Redis holding carts must therefore run with
+ * {@code maxmemory-policy noeviction}; under any other policy, cart hashes (which carry
+ * a TTL) are eviction candidates and a dirty one would lose its unflushed edits.
+ */
+@Service
 public class CartService {
+
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
+
+    @Autowired
+    private HotCartStore hotCartStore;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RequestMetrics requestMetrics;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    @Value("${app.cart.flush-batch-size:200}")
+    private int flushBatchSize;
+    @Value("${app.cart.flush-lease:PT30S}")
+    private Duration flushLease;
+
+    public CartResponse getCart(Long userId) {
+        return timed("getCart", () -> convertToResponse(snapshot(userId)));
+    }
+
+    // Price is taken from the product cache, so adding an item does not touch the database
+    public CartResponse addItem(Long userId, AddCartItemRequest request) {
+        return timed("addItem", () -> {
+            ProductResponse product = productService.getProductById(request.getProductId());
+            return convertToResponse(mutate(userId,
+                    List.of(CartMutation.add(product.getId(), request.getQuantity(), product.getPrice()))));
+        });
+    }
+
+    public CartResponse updateItem(Long userId, Long productId, UpdateCartItemRequest request) {
+        if (request.getQuantity() == 0) {
+            return removeItem(userId, productId);
+        }
+        return timed("updateItem", () -> {
+            ProductResponse product = productService.getProductById(productId);
+            return convertToResponse(mutate(userId,
+                    List.of(CartMutation.set(product.getId(), request.getQuantity(), product.getPrice()))));
+        });
+    }
+
+    /**
+     * Applies a batch of operations in order. Referenced products are resolved in one
+     * cache lookup and the whole batch is written to the cart atomically, as one version.
+     */
+    public CartResponse applyBatch(Long userId, BatchCartItemsRequest request) {
+        return timed("applyBatch", () -> mutateBatch(userId, request));
+    }
+
+    private CartResponse mutateBatch(Long userId, BatchCartItemsRequest request) {
+        List<CartItemOperationRequest> operations = request.getOperations();
+        Set<Long> priced = new HashSet<>();
+        for (CartItemOperationRequest operation : operations) {
+            if (operation.getOp() != CartItemOperationRequest.Operation.REMOVE) {
+                if (operation.getQuantity() == null
+                        || (operation.getOp() == CartItemOperationRequest.Operation.ADD && operation.getQuantity() < 1)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Invalid quantity for product " + operation.getProductId());
+                }
+                priced.add(operation.getProductId());
+            }
+        }
+
+        Map<Long, ProductResponse> products = priced.isEmpty() ? Map.of() : productService.getProductsByIds(priced);
+        List<CartMutation> mutations = new ArrayList<>(operations.size());
+        for (CartItemOperationRequest operation : operations) {
+            Long productId = operation.getProductId();
+            if (operation.getOp() == CartItemOperationRequest.Operation.REMOVE) {
+                mutations.add(CartMutation.remove(productId));
+                continue;
+            }
+            ProductResponse product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            mutations.add(operation.getOp() == CartItemOperationRequest.Operation.ADD
+                    ? CartMutation.add(productId, operation.getQuantity(), product.getPrice())
+                    : CartMutation.set(productId, operation.getQuantity(), product.getPrice()));
+        }
+        return convertToResponse(mutate(userId, mutations));
+    }
+
+    public CartResponse removeItem(Long userId, Long productId) {
+        return timed("removeItem", () -> convertToResponse(mutate(userId, List.of(CartMutation.remove(productId)))));
+    }
+
+    public CartResponse clearCart(Long userId) {
+        return timed("clearCart", () -> convertToResponse(mutate(userId, List.of(CartMutation.clear()))));
+    }
+
+    // Current contents, straight from the hot store
+    public CartSnapshot snapshot(Long userId) {
+        CartSnapshot cart = hotCartStore.get(userId);
+        return cart != null ? cart : hotCartStore.warm(userId, loadPersisted(userId));
+    }
+
+    // Drops the lines an order was placed for, leaving anything added since
+    public void removeProducts(Long userId, Collection<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            mutate(userId, productIds.stream().map(CartMutation::remove).toList());
+        }
+    }
+
+    /**
+     * Writes the cart to the database now and returns what was written. Checkout calls
+     * this once the ordered lines are removed, so the tables never lag a placed order.
+     */
+    public CartSnapshot flush(Long userId) {
+        CartSnapshot cart = hotCartStore.get(userId);
+        if (cart == null) {
+            return loadPersisted(userId);
+        }
+        persist(Map.of(userId, cart));
+        hotCartStore.complete(userId, cart.version());
+        return cart;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms:5000}")
+    public void flushDirtyCarts() {
+        List<Long> userIds;
+        do {
+            userIds = hotCartStore.claimDirty(flushBatchSize, flushLease);
+            if (!userIds.isEmpty()) {
+                flush(userIds);
+            }
+        } while (userIds.size() == flushBatchSize);
+    }
+
+    private void flush(Collection<Long> userIds) {
+        Map<Long, CartSnapshot> carts = hotCartStore.getAll(userIds);
+        if (!carts.isEmpty()) {
+            persist(carts);
+        }
+        for (Long userId : userIds) {
+            CartSnapshot cart = carts.get(userId);
+            // A cart that expired from Redis was flushed before it went; just clear the mark
+            hotCartStore.complete(userId, cart == null ? 0 : cart.version());
+        }
+        log.debug("Flushed {} dirty carts", carts.size());
+    }
+
+    private CartSnapshot mutate(Long userId, List<CartMutation> mutations) {
+        CartSnapshot cart = hotCartStore.apply(userId, mutations);
+        if (cart == null) {
+            hotCartStore.warm(userId, loadPersisted(userId));
+            cart = hotCartStore.apply(userId, mutations);
+        }
+        if (cart == null) {
+            throw new IllegalStateException("Cart of user " + userId + " could not be loaded");
+        }
+        return cart;
+    }
+
+    private CartSnapshot loadPersisted(Long userId) {
+        return new TransactionTemplate(transactionManager, READ_ONLY).execute(status ->
+                cartRepository.findWithItemsByUserId(userId)
+                        .map(cart -> new CartSnapshot(0, cart.getCartItems().stream()
+                                .map(item -> new CartSnapshot.Line(
+                                        item.getProduct().getId(), item.getQuantity(), item.getUnitPrice()))
+                                .sorted(Comparator.comparing(CartSnapshot.Line::productId))
+                                .toList()))
+                        .orElseGet(CartSnapshot::empty));
+    }
+
+    // One transaction and one cart query for the whole batch
+    private void persist(Map<Long, CartSnapshot> snapshots) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Map<Long, Cart> carts = cartRepository.findAllWithItemsByUserIdIn(snapshots.keySet()).stream()
+                    .collect(Collectors.toMap(cart -> cart.getUser().getId(), Function.identity()));
+            List<Cart> created = new ArrayList<>();
+            snapshots.forEach((userId, snapshot) -> {
+                Cart cart = carts.get(userId);
+                if (cart == null) {
+                    if (snapshot.isEmpty()) {
+                        return;
+                    }
+                    cart = new Cart();
+                    cart.setUser(entityManager.getReference(User.class, userId));
+                    created.add(cart);
+                }
+                syncItems(cart, snapshot);
+            });
+            cartRepository.saveAll(created);
+        });
+    }
+
+    // Updates rows in place where the product is unchanged instead of replacing every item
+    private void syncItems(Cart cart, CartSnapshot snapshot) {
+        Set<Long> productIds = new HashSet<>();
+        for (CartSnapshot.Line line : snapshot.lines()) {
+            cart.setItem(entityManager.getReference(Product.class, line.productId()), line.quantity(), line.unitPrice());
+            productIds.add(line.productId());
+        }
+        cart.retainProducts(productIds);
+    }
+
+    private <T> T timed(String operation, Supplier<T> work) {
+        try (RequestMetrics.Sample sample = requestMetrics.start("cart.requests").tag("operation", operation)) {
+            return work.get();
+        }
+    }
+
+    private CartResponse convertToResponse(CartSnapshot cart) {
+        return CartResponse.builder()
+                .items(cart.lines().stream()
+                        .map(line -> CartItemResponse.builder()
+                                .productId(line.productId())
+                                .quantity(line.quantity())
+                                .unitPrice(line.unitPrice())
+                                .subtotal(line.subtotal())
+                                .build())
+                        .toList())
+                .totalItems(cart.totalItems())
+                .totalAmount(cart.totalAmount())
+                .build();
+    }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
 }
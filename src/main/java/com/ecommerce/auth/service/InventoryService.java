@@ -0,0 +1,219 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.exception.InsufficientStockException;
+import com.ecommerce.auth.model.ReservationStatus;
+import com.ecommerce.auth.model.StockReservation;
+import com.ecommerce.auth.repository.StockReservationRepository;
+import com.ecommerce.auth.service.event.StockChangedEvent;
+import com.ecommerce.auth.service.inventory.HotStockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Stock reservations for checkout. Stock is taken with conditional decrements
+ * ({@code stock_quantity >= n}) so concurrent buyers never oversell and never wait
+ * on a read lock; a reservation holds the stock until it is confirmed, released,
+ * or its TTL runs out. Products promoted to hot-SKU mode are taken from sharded
+ * Redis counters instead of their row, see {@link HotStockService}.
+ */
+@Service
+@Transactional
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    // Version is bumped so an admin update racing with a reservation fails instead of overwriting it
+    private static final String DECREMENT_SQL = "UPDATE products SET stock_quantity = stock_quantity - ?, " +
+            "version = version + 1 WHERE id = ? AND active = true AND hot_stock = false AND stock_quantity >= ?";
+    private static final String INCREMENT_SQL = "UPDATE products SET stock_quantity = stock_quantity + ?, " +
+            "version = version + 1 WHERE id = ?";
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired(required = false)
+    private HotStockService hotStockService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.inventory.reservation-ttl:PT15M}")
+    private Duration reservationTtl;
+    @Value("${app.inventory.expiry-batch-size:500}")
+    private int expiryBatchSize;
+
+    public String reserve(Map<Long, Integer> quantities) {
+        return reserve(quantities, reservationTtl);
+    }
+
+    /**
+     * Reserves every line or none of them. Returns the reservation id to confirm or
+     * release later; throws {@link InsufficientStockException} for the first product
+     * that cannot be covered, rolling back the lines already taken.
+     */
+    public String reserve(Map<Long, Integer> quantities, Duration ttl) {
+        if (quantities.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to reserve");
+        }
+        // Row locks are always taken in product id order so multi-item carts cannot deadlock
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        for (Map.Entry<Long, Integer> line : lines) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + line.getKey());
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> rowLines = new ArrayList<>(lines.size());
+        List<Map.Entry<Long, Integer>> hotLines = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : lines) {
+            (isHot(line.getKey()) ? hotLines : rowLines).add(line);
+        }
+
+        if (!rowLines.isEmpty()) {
+            int[][] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, rowLines, rowLines.size(), (ps, line) -> {
+                ps.setInt(1, line.getValue());
+                ps.setLong(2, line.getKey());
+                ps.setInt(3, line.getValue());
+            });
+            for (int i = 0; i < rowLines.size(); i++) {
+                if (updated[0][i] == 0) {
+                    throw new InsufficientStockException(rowLines.get(i).getKey());
+                }
+            }
+            publishStockChange(rowLines.stream().map(Map.Entry::getKey).toList());
+        }
+        if (!hotLines.isEmpty()) {
+            takeHotStock(hotLines);
+        }
+
+        String reservationId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<StockReservation> reservations = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines) {
+            reservations.add(StockReservation.builder()
+                    .reservationId(reservationId)
+                    .productId(line.getKey())
+                    .quantity(line.getValue())
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        reservationRepository.saveAll(reservations);
+        return reservationId;
+    }
+
+    // Stock stays taken; the reservation just stops expiring
+    public void confirm(String reservationId) {
+        List<StockReservation> reservations =
+                reservationRepository.findByReservationIdAndStatus(reservationId, ReservationStatus.ACTIVE);
+        if (reservations.isEmpty()) {
+            throw new ResourceNotFoundException("Active reservation not found: " + reservationId);
+        }
+        reservations.forEach(reservation -> reservation.setStatus(ReservationStatus.CONFIRMED));
+    }
+
+    // Releasing twice, or after expiry, is a no-op
+    public void release(String reservationId) {
+        restock(reservationRepository.findByReservationIdAndStatus(reservationId, ReservationStatus.ACTIVE),
+                ReservationStatus.RELEASED);
+    }
+
+    /**
+     * Returns stock held by abandoned checkouts. Rows are claimed with SKIP LOCKED so
+     * several instances can sweep at once without blocking each other.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-interval-ms:30000}")
+    public void releaseExpired() {
+        List<StockReservation> expired = reservationRepository.lockExpired(LocalDateTime.now(), expiryBatchSize);
+        if (!expired.isEmpty()) {
+            restock(expired, ReservationStatus.EXPIRED);
+            log.info("Released {} expired stock reservations", expired.size());
+        }
+    }
+
+    private void restock(List<StockReservation> reservations, ReservationStatus status) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Integer> hotQuantities = new TreeMap<>();
+        for (StockReservation reservation : reservations) {
+            (isHot(reservation.getProductId()) ? hotQuantities : quantities)
+                    .merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+            reservation.setStatus(status);
+        }
+        if (!quantities.isEmpty()) {
+            List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, lines, lines.size(), (ps, line) -> {
+                ps.setInt(1, line.getValue());
+                ps.setLong(2, line.getKey());
+            });
+            publishStockChange(quantities.keySet());
+        }
+        if (!hotQuantities.isEmpty()) {
+            // Redis is not part of the transaction, so stock only goes back once the release commits
+            afterCompletion(committed -> {
+                if (committed) {
+                    hotQuantities.forEach(hotStockService::giveBack);
+                }
+            });
+        }
+    }
+
+    /**
+     * Takes hot-SKU lines from their Redis shards. Whatever was taken is handed back if
+     * a later line fails or the surrounding transaction rolls back for any other reason.
+     */
+    private void takeHotStock(List<Map.Entry<Long, Integer>> hotLines) {
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>(hotLines.size());
+        afterCompletion(committed -> {
+            if (!committed) {
+                taken.forEach(line -> hotStockService.giveBack(line.getKey(), line.getValue()));
+            }
+        });
+        for (Map.Entry<Long, Integer> line : hotLines) {
+            if (!hotStockService.take(line.getKey(), line.getValue())) {
+                throw new InsufficientStockException(line.getKey());
+            }
+            taken.add(line);
+        }
+    }
+
+    // Cached product responses and stock-ordered listings are refreshed once this commits
+    private void publishStockChange(Collection<Long> productIds) {
+        eventPublisher.publishEvent(new StockChangedEvent(new TreeSet<>(productIds)));
+    }
+
+    private boolean isHot(Long productId) {
+        return hotStockService != null && hotStockService.isHot(productId);
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
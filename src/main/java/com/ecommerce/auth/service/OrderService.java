@@ -1,4 +1,199 @@
 package com.ecommerce.auth.service;
 
+import com.ecommerce.auth.dto.request.AddressRequest;
+import com.ecommerce.auth.dto.request.PlaceOrderRequest;
+import com.ecommerce.auth.dto.response.OrderItemResponse;
+import com.ecommerce.auth.dto.response.OrderResponse;
+import com.ecommerce.auth.model.Address;
+import com.ecommerce.auth.model.Order;
+import com.ecommerce.auth.model.OrderItem;
+import com.ecommerce.auth.model.OrderStatus;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.model.User;
+import com.ecommerce.auth.repository.OrderRepository;
+import com.ecommerce.auth.service.cart.CartSnapshot;
+import com.ecommerce.auth.service.metrics.RequestMetrics;
+import com.ecommerce.auth.service.order.IdempotencyStore;
+import com.ecommerce.auth.service.order.OrderNumberGenerator;
+import com.ecommerce.auth.service.order.OrderPipeline;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Checkout. {@link #placeOrder} only snapshots the cart and queues the order as a
+ * PENDING row, then hands it to {@link OrderPipeline}; clients poll the order number
+ * it returns. Retries carrying the same {@code Idempotency-Key} get the same order,
+ * or 409 while the first request has not committed it yet.
+ */
+@Service
 public class OrderService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderPipeline orderPipeline;
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RequestMetrics requestMetrics;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderResponse placeOrder(Long userId, String idempotencyKey, PlaceOrderRequest request) {
+        return timed("placeOrder", () -> accept(userId, idempotencyKey, request));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long userId, String orderNumber) {
+        return timed("getOrder", () -> orderRepository.findWithItemsByOrderNumberAndUserId(orderNumber, userId)
+                .map(this::convertToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber)));
+    }
+
+    private OrderResponse accept(Long userId, String idempotencyKey, PlaceOrderRequest request) {
+        IdempotencyStore.Claim claim = IdempotencyStore.Claim.pending(orderNumberGenerator.next(), fingerprint(request));
+        if (idempotencyKey != null) {
+            IdempotencyStore.Claim existing = idempotencyStore.claim(userId, idempotencyKey, claim);
+            if (existing != null) {
+                return replay(userId, idempotencyKey, claim, existing);
+            }
+        }
+
+        Long orderId;
+        try {
+            CartSnapshot cart = cartService.snapshot(userId);
+            if (cart.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Cart is empty");
+            }
+            orderId = new TransactionTemplate(transactionManager)
+                    .execute(status -> queue(userId, claim.orderNumber(), request, cart));
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                idempotencyStore.release(userId, idempotencyKey, claim);
+            }
+            throw e;
+        }
+        // The row is committed, so retries may now be handed its number. From here on the
+        // key is never released; an order that fails to submit is picked up by the recovery sweep
+        if (idempotencyKey != null) {
+            idempotencyStore.bind(userId, idempotencyKey, claim);
+        }
+        orderPipeline.submit(orderId);
+        return accepted(claim.orderNumber());
+    }
+
+    /**
+     * Answers a retry from the claim the first request left. A pending claim whose order
+     * row exists was committed but not yet bound (or its request died in between), so the
+     * retry binds it; otherwise the first request is still running and the retry gets 409.
+     */
+    private OrderResponse replay(Long userId, String idempotencyKey, IdempotencyStore.Claim claim,
+                                 IdempotencyStore.Claim existing) {
+        if (!existing.fingerprint().equals(claim.fingerprint())) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        if (existing.pending()) {
+            if (!orderRepository.existsByOrderNumber(existing.orderNumber())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress; retry shortly");
+            }
+            idempotencyStore.bind(userId, idempotencyKey, existing);
+        }
+        return accepted(existing.orderNumber());
+    }
+
+    // Captured cart prices are provisional; the pipeline re-prices before confirming
+    private Long queue(Long userId, String orderNumber, PlaceOrderRequest request, CartSnapshot cart) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setUser(entityManager.getReference(User.class, userId));
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress(toAddress(request.getShippingAddress()));
+        order.setBillingAddress(toAddress(request.getBillingAddress() != null
+                ? request.getBillingAddress() : request.getShippingAddress()));
+        order.setPaymentMethod(request.getPaymentMethod());
+        order.setNotes(request.getNotes());
+        order.setOrderDate(LocalDateTime.now());
+        order.setShippingAmount(BigDecimal.ZERO);
+        for (CartSnapshot.Line line : cart.lines()) {
+            order.addOrderItem(OrderItem.builder()
+                    .product(entityManager.getReference(Product.class, line.productId()))
+                    .quantity(line.quantity())
+                    .unitPrice(line.unitPrice())
+                    .subtotal(line.subtotal())
+                    .build());
+        }
+        return orderRepository.save(order).getId();
+    }
+
+    private <T> T timed(String operation, Supplier<T> work) {
+        try (RequestMetrics.Sample sample = requestMetrics.start("orders.requests").tag("operation", operation)) {
+            return work.get();
+        }
+    }
+
+    private static OrderResponse accepted(String orderNumber) {
+        return OrderResponse.builder()
+                .orderNumber(orderNumber)
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+
+    private static String fingerprint(PlaceOrderRequest request) {
+        return DigestUtils.md5DigestAsHex(request.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Address toAddress(AddressRequest request) {
+        return Address.builder()
+                .street(request.getStreet())
+                .city(request.getCity())
+                .state(request.getState())
+                .country(request.getCountry())
+                .zipCode(request.getZipCode())
+                .build();
+    }
+
+    private OrderResponse convertToResponse(Order order) {
+        return OrderResponse.builder()
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .paymentMethod(order.getPaymentMethod())
+                .items(order.getOrderItems().stream()
+                        .map(item -> OrderItemResponse.builder()
+                                .productId(item.getProduct().getId())
+                                .quantity(item.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .subtotal(item.getSubtotal())
+                                .build())
+                        .toList())
+                .subtotal(order.getSubtotal())
+                .taxAmount(order.getTaxAmount())
+                .shippingAmount(order.getShippingAmount())
+                .totalAmount(order.getTotalAmount())
+                .failureReason(order.getFailureReason())
+                .orderDate(order.getOrderDate())
+                .build();
+    }
 }
@@ -4,23 +4,56 @@ import com.ecommerce.auth.dto.request.CreateProductRequest;
 import com.ecommerce.auth.dto.request.UpdateProductRequest;
 import com.ecommerce.auth.dto.response.PageResponse;
 import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.exception.ConcurrentProductUpdateException;
 import com.ecommerce.auth.model.Category;
 import com.ecommerce.auth.model.Product;
 import com.ecommerce.auth.repository.CategoryRepository;
 import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.repository.ProductSpecifications;
+import com.ecommerce.auth.repository.projection.ProductSummary;
+import com.ecommerce.auth.service.cache.ProductListingCache;
+import com.ecommerce.auth.service.cache.TwoTierCache;
+import com.ecommerce.auth.service.catalog.CatalogSnapshotEngine;
+import com.ecommerce.auth.service.category.CategoryStatsService;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import com.ecommerce.auth.service.metrics.RequestMetrics;
+import com.ecommerce.auth.service.pagination.ProductCursor;
+import com.ecommerce.auth.service.pagination.ProductSortKey;
+import com.ecommerce.auth.service.search.InvertedIndex;
+import com.ecommerce.auth.service.search.ProductSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,31 +65,122 @@ public class ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
-    private static final String PRODUCT_CACHE_KEY = "product:";
+    private TwoTierCache<ProductResponse> productCache;
+    @Autowired
+    private ProductListingCache productListingCache;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+    @Autowired(required = false)
+    private ProductSearchIndex productSearchIndex;
+    @Autowired(required = false)
+    private CatalogSnapshotEngine catalogSnapshotEngine;
+    @Autowired
+    private RequestMetrics requestMetrics;
 
-//    @Transactional(readOnly = true)
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    // Listing pages are cached as id lists; only cache misses run in a read-only transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PageResponse<ProductResponse> getAllProducts(
             int page, int size, String sortBy, String sortDir,
             String category, String search) {
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        // Unknown fields are rejected up front rather than failing inside the query
+        ProductSortKey sortKey = sortKey(sortBy);
+
+        try (RequestMetrics.Sample sample = requestMetrics.start("catalog.products.list")) {
+            sample.tag("shape", search != null ? "search" : category != null ? "category" : "plain")
+                    .tag("cache", "none");
+
+            // The snapshot answers filter and sort listings from memory; text search still needs the database
+            if (search == null && catalogSnapshotEngine != null) {
+                PageResponse<ProductResponse> fromSnapshot = catalogSnapshotEngine.page(
+                        page, size, sortBy, sortDir, category, this::getProductsByIds);
+                if (fromSnapshot != null) {
+                    sample.tag("cache", "snapshot");
+                    return fromSnapshot;
+                }
+            }
+            AtomicBoolean queried = new AtomicBoolean();
+            PageResponse<ProductResponse> listing = productListingCache.get(page, size, sortBy, sortDir, category, search,
+                    () -> {
+                        queried.set(true);
+                        return readOnly(() -> queryProducts(page, size, sortKey, sortDir, category, search));
+                    },
+                    ids -> readOnly(() -> loadProducts(ids)));
+            sample.tag("cache", queried.get() ? "miss" : "hit");
+            return listing;
+        }
+    }
+
+    private PageResponse<ProductResponse> queryProducts(
+            int page, int size, ProductSortKey sortKey, String sortDir,
+            String category, String search) {
+
+        Sort sort = sortKey.sort(sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC);
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Product> productPage;
+        Page<ProductSummary> productPage;
 
-        if (category != null && search != null) {
-            productPage = productRepository.findByActiveTrueAndCategoryNameContainingIgnoreCaseAndNameContainingIgnoreCase(
-                    category, search, pageable);
+        if (search != null) {
+            return searchProducts(search, category, page, size);
         } else if (category != null) {
-            productPage = productRepository.findByActiveTrueAndCategoryNameContainingIgnoreCase(category, pageable);
-        } else if (search != null) {
-            productPage = productRepository.findByActiveTrueAndNameContainingIgnoreCase(search, pageable);
+            productPage = productRepository.findActiveSummariesByCategoryName(category, pageable);
         } else {
-            productPage = productRepository.findByActiveTrue(pageable);
+            productPage = productRepository.findActiveSummaries(pageable);
+        }
+
+        return toPageResponse(productPage);
+    }
+
+    /**
+     * Full-text product search backed by the GIN index on {@code products.search_vector},
+     * or by the in-memory index when it is enabled, loaded and supports the query.
+     * Results are ordered by relevance, so the caller's sort does not apply here.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductResponse> searchProducts(String search, String category, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        if (category == null && productSearchIndex != null && productSearchIndex.isReady()
+                && productSearchIndex.supports(search)) {
+            return toPageResponse(searchInMemory(search, pageable));
         }
 
+        Page<ProductSummary> productPage = category != null
+                ? productRepository.searchSummariesInCategory(search, category, pageable)
+                : productRepository.searchSummaries(search, pageable);
+
+        return toPageResponse(productPage);
+    }
+
+    private Page<ProductSummary> searchInMemory(String search, Pageable pageable) {
+        InvertedIndex.SearchHits hits = productSearchIndex.search(search, (int) pageable.getOffset() + pageable.getPageSize());
+        long[] pageIds = Arrays.copyOfRange(hits.productIds(),
+                (int) Math.min(pageable.getOffset(), hits.productIds().length), hits.productIds().length);
+
+        Map<Long, ProductSummary> productsById = productRepository
+                .findActiveSummariesByIdIn(Arrays.stream(pageIds).boxed().toList()).stream()
+                .collect(Collectors.toMap(ProductSummary::getId, Function.identity()));
+        List<ProductSummary> ranked = new ArrayList<>(pageIds.length);
+        for (long id : pageIds) {
+            ProductSummary product = productsById.get(id);
+            if (product != null) {
+                ranked.add(product);
+            }
+        }
+        return new PageImpl<>(ranked, pageable, hits.totalHits());
+    }
+
+    private Map<Long, ProductResponse> loadProducts(List<Long> ids) {
+        return productRepository.findActiveSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSummary::getId, this::convertToResponse));
+    }
+
+    private PageResponse<ProductResponse> toPageResponse(Page<ProductSummary> productPage) {
         List<ProductResponse> products = productPage.getContent().stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
@@ -71,23 +195,107 @@ public class ProductService {
                 .build();
     }
 
+    /**
+     * Keyset variant of {@link #getAllProducts}. An empty or null cursor starts at the
+     * first page; each response carries a {@code nextCursor} that seeks past the last row,
+     * so deep pages cost the same as the first one. Totals are only counted on request.
+     * Unlike page mode, {@code search} is a case-insensitive substring of the name.
+     */
     @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "#id")
-    public ProductResponse getProductById(Long id) {
-        String cacheKey = PRODUCT_CACHE_KEY + id;
-        ProductResponse cachedProduct = (ProductResponse) redisTemplate.opsForValue().get(cacheKey);
+    public PageResponse<ProductResponse> getProductsByCursor(
+            String cursor, int size, String sortBy, String sortDir,
+            String category, String search, boolean includeTotal) {
 
-        if (cachedProduct != null) {
-            return cachedProduct;
+        Sort.Direction direction;
+        ScrollPosition position;
+        if (cursor == null || cursor.isBlank()) {
+            sortBy = sortKey(sortBy).property();
+            direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+            position = ScrollPosition.keyset();
+        } else {
+            ProductCursor decoded;
+            try {
+                decoded = ProductCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+            }
+            // The cursor pins the sort it was issued for
+            sortBy = decoded.getSortBy();
+            direction = decoded.getDirection();
+            position = decoded.toScrollPosition();
         }
 
-        Product product = productRepository.findByIdAndActiveTrue(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Sort sort = ProductSortKey.of(sortBy).sort(direction);
+        Specification<Product> filter = category != null || search != null
+                ? ProductSpecifications.activeMatching(category, search)
+                : null;
+        Window<Product> window = filter == null
+                ? productRepository.findByActiveTrue(position, Limit.of(size), sort)
+                : productRepository.findBy(filter, query -> query.project("category")
+                        .sortBy(sort)
+                        .limit(size)
+                        .scroll(position));
+
+        List<ProductResponse> products = window.getContent().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = ProductCursor.of(sortBy, direction, last).encode();
+        }
+
+        PageResponse.PageResponseBuilder<ProductResponse> response = PageResponse.<ProductResponse>builder()
+                .content(products)
+                .pageSize(size)
+                .first(cursor == null || cursor.isBlank())
+                .last(!window.hasNext())
+                .numberOfElements(products.size())
+                .empty(products.isEmpty())
+                .nextCursor(nextCursor);
+
+        if (includeTotal) {
+            long total = filter == null ? productRepository.countByActiveTrue() : productRepository.count(filter);
+            response.totalElements(total)
+                    .totalPages((int) ((total + size - 1) / size));
+        }
 
-        ProductResponse response = convertToResponse(product);
-        redisTemplate.opsForValue().set(cacheKey, response, Duration.ofMinutes(30));
+        return response.build();
+    }
+
+    // Cache hits must not check out a pooled connection, so only the loader runs in a transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductResponse getProductById(Long id) {
+        try (RequestMetrics.Sample sample = requestMetrics.start("catalog.products.get").tag("cache", "none")) {
+            AtomicBoolean queried = new AtomicBoolean();
+            ProductResponse product = productCache.get(String.valueOf(id), () -> {
+                queried.set(true);
+                return readOnly(() -> productRepository.findActiveSummaryById(id)
+                        .map(this::convertToResponse)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+            });
+            sample.tag("cache", queried.get() ? "miss" : "hit");
+            return product;
+        }
+    }
 
-        return response;
+    /**
+     * Active products by id through the product cache; misses are loaded in one query.
+     * Ids that are unknown or inactive are missing from the result.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Long, ProductResponse> getProductsByIds(Collection<Long> ids) {
+        List<String> keys = ids.stream().distinct().map(String::valueOf).toList();
+        Map<String, ProductResponse> cached = productCache.getAll(keys, missing -> {
+            Map<String, ProductResponse> loaded = new HashMap<>();
+            readOnly(() -> loadProducts(missing.stream().map(Long::valueOf).toList()))
+                    .forEach((id, product) -> loaded.put(String.valueOf(id), product));
+            return loaded;
+        });
+        Map<Long, ProductResponse> products = new HashMap<>(cached.size() * 2);
+        cached.forEach((key, product) -> products.put(Long.valueOf(key), product));
+        return products;
     }
 
     public ProductResponse createProduct(CreateProductRequest request) {
@@ -105,9 +313,26 @@ public class ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        categoryStatsService.recordMove(null, category.getId());
+        publishChange(ProductChangedEvent.ChangeType.CREATED, savedProduct, null);
         return convertToResponse(savedProduct);
     }
 
+    private ProductResponse convertToResponse(ProductSummary product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stockQuantity(product.getStockQuantity())
+                .sku(product.getSku())
+                .categoryName(product.getCategoryName())
+                .active(product.getActive())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
     private ProductResponse convertToResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
@@ -126,6 +351,7 @@ public class ProductService {
     public ProductResponse updateProduct(Long id, UpdateProductRequest request) {
         Product product = productRepository.findByIdAndActiveTrue(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Long previousCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
 
         // Update category if provided
         if (request.getCategoryId() != null) {
@@ -144,18 +370,23 @@ public class ProductService {
         if (request.getPrice() != null) {
             product.setPrice(request.getPrice());
         }
-        if (request.getStockQuantity() != null) {
+        if (request.getStockQuantity() != null && !request.getStockQuantity().equals(product.getStockQuantity())) {
+            // A hot product's stock lives in Redis shards and the row is only their mirror
+            if (productRepository.lockHotStockFlag(id)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Stock of product " + id + " is managed by hot-stock mode; demote it before setting stock");
+            }
             product.setStockQuantity(request.getStockQuantity());
         }
         if (request.getSku() != null) {
             product.setSku(request.getSku());
         }
 
-        Product updatedProduct = productRepository.save(product);
-
-        // Clear cache for this product
-        String cacheKey = PRODUCT_CACHE_KEY + id;
-        redisTemplate.delete(cacheKey);
+        Product updatedProduct = saveAndFlush(product);
+        categoryStatsService.recordMove(previousCategoryId,
+                updatedProduct.getCategory() != null ? updatedProduct.getCategory().getId() : null);
+        // Cache eviction happens after commit, see ProductCacheInvalidator
+        publishChange(ProductChangedEvent.ChangeType.UPDATED, updatedProduct, previousCategoryId);
 
         return convertToResponse(updatedProduct);
     }
@@ -166,11 +397,48 @@ public class ProductService {
 
         // Soft delete - set active to false
         product.setActive(false);
-        productRepository.save(product);
+        saveAndFlush(product);
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        categoryStatsService.recordMove(categoryId, null);
+        publishChange(ProductChangedEvent.ChangeType.DELETED, product, categoryId);
+    }
+
+    // Flushed here so a version conflict with a concurrent stock change becomes a 409, not a failed commit
+    private Product saveAndFlush(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConcurrentProductUpdateException(product.getId(), e);
+        }
+    }
+
+    private void publishChange(ProductChangedEvent.ChangeType type, Product product, Long previousCategoryId) {
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                type,
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getSku(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                previousCategoryId));
+    }
+
+    private static ProductSortKey sortKey(String sortBy) {
+        ProductSortKey sortKey = ProductSortKey.of(sortBy);
+        if (sortKey == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort field: " + sortBy);
+        }
+        return sortKey;
+    }
+
+    private <T> T readOnly(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager, READ_ONLY).execute(status -> work.get());
+    }
 
-        // Clear cache for this product
-        String cacheKey = PRODUCT_CACHE_KEY + id;
-        redisTemplate.delete(cacheKey);
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
     }
 
 }
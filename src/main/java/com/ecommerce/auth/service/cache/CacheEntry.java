@@ -0,0 +1,32 @@
+package com.ecommerce.auth.service.cache;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A cached value with the metadata needed for early expiration and
+ * stale-while-revalidate.
+ *
+ * @param value         the cached value
+ * @param expiresAt     epoch millis after which the value is stale
+ * @param computeMillis how long the loader took, which scales early expiration
+ */
+public record CacheEntry<V>(V value, long expiresAt, long computeMillis) implements Serializable {
+
+    public boolean isStale(long now) {
+        return now >= expiresAt;
+    }
+
+    /**
+     * Probabilistic early expiration (XFetch): the closer the entry is to expiry and the
+     * more expensive it was to compute, the more likely a reader volunteers to refresh it.
+     */
+    public boolean shouldRefreshEarly(long now, double beta) {
+        if (beta <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return now - computeMillis * beta * Math.log(random) >= expiresAt;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.auth.service.cache;
+
+import java.time.Duration;
+
+/**
+ * Sizing and expiry settings for a {@link TwoTierCache}.
+ *
+ * @param l1MaximumSize       maximum entries held on-heap per node
+ * @param l1Ttl               on-heap lifetime, bounds staleness if an invalidation is lost
+ * @param ttl                 time after which an entry is considered stale
+ * @param staleTtl            how long a stale entry may still be served while it is refreshed
+ *                            in the background; zero disables stale-while-revalidate
+ * @param earlyExpirationBeta XFetch beta; larger values refresh earlier, zero disables it
+ * @param leaseTtl            lifetime of the cross-node Redis lease held by the loading node
+ * @param leaseWait           how long a node without the lease waits for the holder's value
+ *                            before loading anyway
+ */
+public record CachePolicy(
+        long l1MaximumSize,
+        Duration l1Ttl,
+        Duration ttl,
+        Duration staleTtl,
+        double earlyExpirationBeta,
+        Duration leaseTtl,
+        Duration leaseWait) {
+
+    public boolean staleWhileRevalidate() {
+        return !staleTtl.isZero() && !staleTtl.isNegative();
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.auth.service.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Catalog version counters in Redis. Every product change bumps the global counter
+ * and the counter of each category it touched; cached listings embed the versions
+ * they depend on in their key, so a bump makes them unreachable instead of having to
+ * find and delete them.
+ */
+@Component
+public class CatalogVersions {
+
+    static final String GLOBAL_KEY = "catalog:version";
+    static final String CATEGORY_KEY_PREFIX = "catalog:version:category:";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    public void bump(Collection<Long> categoryIds) {
+        List<byte[]> keys = new ArrayList<>();
+        keys.add(GLOBAL_KEY.getBytes(StandardCharsets.UTF_8));
+        categoryIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(id -> keys.add((CATEGORY_KEY_PREFIX + id).getBytes(StandardCharsets.UTF_8)));
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] key : keys) {
+                connection.stringCommands().incr(key);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Version stamp for a listing: the global version when {@code categoryIds} is null,
+     * otherwise the id and version of each of those categories, read in one MGET.
+     */
+    public String stamp(List<Long> categoryIds) {
+        if (categoryIds != null && categoryIds.isEmpty()) {
+            return "none";
+        }
+        List<Long> ids = categoryIds == null ? null : categoryIds.stream().sorted().toList();
+        List<String> keys = ids == null
+                ? List.of(GLOBAL_KEY)
+                : ids.stream().map(id -> CATEGORY_KEY_PREFIX + id).toList();
+        List<String> versions = stringRedisTemplate.opsForValue().multiGet(keys);
+
+        StringBuilder stamp = new StringBuilder(ids == null ? "g" : "c");
+        for (int i = 0; i < keys.size(); i++) {
+            String version = versions == null ? null : versions.get(i);
+            stamp.append(':');
+            if (ids != null) {
+                stamp.append(ids.get(i)).append('=');
+            }
+            stamp.append(version == null ? "0" : version);
+        }
+        return stamp.toString();
+    }
+
+}
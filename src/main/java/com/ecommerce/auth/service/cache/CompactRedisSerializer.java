@@ -0,0 +1,530 @@
+package com.ecommerce.auth.service.cache;
+
+import com.ecommerce.auth.dto.response.CategoryResponse;
+import com.ecommerce.auth.dto.response.PageResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, schema-versioned binary encoding for the cached response DTOs.
+ * <p>
+ * Every payload starts with a magic byte and a format version. Each DTO is written
+ * as a type tag, a schema version and a bitmap of non-null fields, followed by the
+ * present fields in schema order without names or per-field tags. Integers are
+ * zig-zag varints, decimals are unscaled varints plus scale, timestamps are epoch
+ * seconds plus nanos. Values of any other type, and payloads written by the JDK
+ * serializer before this one was installed, go through JDK serialization.
+ * <p>
+ * To evolve a DTO, append fields, bump its schema version and keep the reader for
+ * older versions, which simply leaves the new fields null.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte T_NULL = 0;
+    private static final byte T_STRING = 1;
+    private static final byte T_LONG = 2;
+    private static final byte T_INT = 3;
+    private static final byte T_DOUBLE = 4;
+    private static final byte T_TRUE = 5;
+    private static final byte T_FALSE = 6;
+    private static final byte T_DECIMAL = 7;
+    private static final byte T_DATETIME = 8;
+    private static final byte T_LIST = 9;
+    private static final byte T_PRODUCT = 20;
+    private static final byte T_CATEGORY = 21;
+    private static final byte T_PAGE = 22;
+    private static final byte T_ENTRY = 30;
+    private static final byte T_LISTING = 31;
+    private static final byte T_JDK = 127;
+
+    private static final int PRODUCT_SCHEMA = 1;
+    private static final int CATEGORY_SCHEMA = 1;
+    private static final int PAGE_SCHEMA = 2;
+
+    private final JdkSerializationRedisSerializer fallback = new JdkSerializationRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        Output out = new Output(256);
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        writeValue(out, value);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        Input in = new Input(bytes, 1);
+        int format = in.readByte();
+        if (format != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported cache format version: " + format);
+        }
+        try {
+            return readValue(in);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Corrupt cache entry", e);
+        }
+    }
+
+    private void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.writeByte(T_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(T_STRING);
+            out.writeString(s);
+        } else if (value instanceof Long l) {
+            out.writeByte(T_LONG);
+            out.writeVarLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(T_INT);
+            out.writeVarLong(i);
+        } else if (value instanceof Double d) {
+            out.writeByte(T_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(d));
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? T_TRUE : T_FALSE);
+        } else if (value instanceof BigDecimal d) {
+            out.writeByte(T_DECIMAL);
+            out.writeDecimal(d);
+        } else if (value instanceof LocalDateTime t) {
+            out.writeByte(T_DATETIME);
+            out.writeDateTime(t);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(T_LIST);
+            writeList(out, list);
+        } else if (value instanceof ProductResponse<?> product) {
+            out.writeByte(T_PRODUCT);
+            writeProduct(out, product);
+        } else if (value instanceof CategoryResponse category) {
+            out.writeByte(T_CATEGORY);
+            writeCategory(out, category);
+        } else if (value instanceof PageResponse<?> page) {
+            out.writeByte(T_PAGE);
+            writePage(out, page);
+        } else if (value instanceof ListingPage listing) {
+            out.writeByte(T_LISTING);
+            writeListing(out, listing);
+        } else if (value instanceof CacheEntry<?> entry) {
+            out.writeByte(T_ENTRY);
+            out.writeVarLong(entry.expiresAt());
+            out.writeVarLong(entry.computeMillis());
+            writeValue(out, entry.value());
+        } else {
+            out.writeByte(T_JDK);
+            out.writeBytes(fallback.serialize(value));
+        }
+    }
+
+    private Object readValue(Input in) {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case T_NULL -> null;
+            case T_STRING -> in.readString();
+            case T_LONG -> in.readVarLong();
+            case T_INT -> (int) in.readVarLong();
+            case T_DOUBLE -> Double.longBitsToDouble(in.readLong());
+            case T_TRUE -> Boolean.TRUE;
+            case T_FALSE -> Boolean.FALSE;
+            case T_DECIMAL -> in.readDecimal();
+            case T_DATETIME -> in.readDateTime();
+            case T_LIST -> readList(in);
+            case T_PRODUCT -> readProduct(in);
+            case T_CATEGORY -> readCategory(in);
+            case T_PAGE -> readPage(in);
+            case T_LISTING -> readListing(in);
+            case T_ENTRY -> {
+                long expiresAt = in.readVarLong();
+                long computeMillis = in.readVarLong();
+                yield new CacheEntry<>(readValue(in), expiresAt, computeMillis);
+            }
+            case T_JDK -> fallback.deserialize(in.readBytes());
+            default -> throw new SerializationException("Unknown value tag: " + tag);
+        };
+    }
+
+    private void writeList(Output out, List<?> list) {
+        out.writeVarInt(list.size());
+        for (Object element : list) {
+            writeValue(out, element);
+        }
+    }
+
+    private List<Object> readList(Input in) {
+        int size = in.readVarInt();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readValue(in));
+        }
+        return list;
+    }
+
+    private void writeStrings(Output out, List<String> strings) {
+        out.writeVarInt(strings.size());
+        for (String s : strings) {
+            out.writeString(s);
+        }
+    }
+
+    private List<String> readStrings(Input in) {
+        int size = in.readVarInt();
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(in.readString());
+        }
+        return strings;
+    }
+
+    // ProductResponse schema v1, field order is the bitmap order
+    private void writeProduct(Output out, ProductResponse<?> p) {
+        out.writeVarInt(PRODUCT_SCHEMA);
+        out.writeVarLong(presence(p.getContent(), p.getId(), p.getName(), p.getDescription(), p.getPrice(),
+                p.getSku(), p.getStockQuantity(), p.getStatus(), p.getImageUrls(), p.getWeight(),
+                p.getDimensions(), p.getBrand(), p.getModel(), p.getColor(), p.getSize(), p.getCategory(),
+                p.getCategoryName(), p.getActive(), p.getTags(), p.getRating(), p.getReviewCount(),
+                p.getCreatedAt(), p.getUpdatedAt()));
+        if (p.getContent() != null) writeList(out, p.getContent());
+        if (p.getId() != null) out.writeVarLong(p.getId());
+        if (p.getName() != null) out.writeString(p.getName());
+        if (p.getDescription() != null) out.writeString(p.getDescription());
+        if (p.getPrice() != null) out.writeDecimal(p.getPrice());
+        if (p.getSku() != null) out.writeString(p.getSku());
+        if (p.getStockQuantity() != null) out.writeVarLong(p.getStockQuantity());
+        if (p.getStatus() != null) out.writeString(p.getStatus());
+        if (p.getImageUrls() != null) writeStrings(out, p.getImageUrls());
+        if (p.getWeight() != null) out.writeLong(Double.doubleToRawLongBits(p.getWeight()));
+        if (p.getDimensions() != null) out.writeString(p.getDimensions());
+        if (p.getBrand() != null) out.writeString(p.getBrand());
+        if (p.getModel() != null) out.writeString(p.getModel());
+        if (p.getColor() != null) out.writeString(p.getColor());
+        if (p.getSize() != null) out.writeString(p.getSize());
+        if (p.getCategory() != null) writeCategory(out, p.getCategory());
+        if (p.getCategoryName() != null) out.writeString(p.getCategoryName());
+        if (p.getActive() != null) out.writeByte(p.getActive() ? 1 : 0);
+        if (p.getTags() != null) writeStrings(out, p.getTags());
+        if (p.getRating() != null) out.writeLong(Double.doubleToRawLongBits(p.getRating()));
+        if (p.getReviewCount() != null) out.writeVarLong(p.getReviewCount());
+        if (p.getCreatedAt() != null) out.writeDateTime(p.getCreatedAt());
+        if (p.getUpdatedAt() != null) out.writeDateTime(p.getUpdatedAt());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ProductResponse<?> readProduct(Input in) {
+        int schema = in.readVarInt();
+        if (schema != PRODUCT_SCHEMA) {
+            throw new SerializationException("Unsupported ProductResponse schema: " + schema);
+        }
+        long bits = in.readVarLong();
+        ProductResponse p = new ProductResponse();
+        if (has(bits, 0)) p.setContent(readList(in));
+        if (has(bits, 1)) p.setId(in.readVarLong());
+        if (has(bits, 2)) p.setName(in.readString());
+        if (has(bits, 3)) p.setDescription(in.readString());
+        if (has(bits, 4)) p.setPrice(in.readDecimal());
+        if (has(bits, 5)) p.setSku(in.readString());
+        if (has(bits, 6)) p.setStockQuantity((int) in.readVarLong());
+        if (has(bits, 7)) p.setStatus(in.readString());
+        if (has(bits, 8)) p.setImageUrls(readStrings(in));
+        if (has(bits, 9)) p.setWeight(Double.longBitsToDouble(in.readLong()));
+        if (has(bits, 10)) p.setDimensions(in.readString());
+        if (has(bits, 11)) p.setBrand(in.readString());
+        if (has(bits, 12)) p.setModel(in.readString());
+        if (has(bits, 13)) p.setColor(in.readString());
+        if (has(bits, 14)) p.setSize(in.readString());
+        if (has(bits, 15)) p.setCategory(readCategory(in));
+        if (has(bits, 16)) p.setCategoryName(in.readString());
+        if (has(bits, 17)) p.setActive(in.readByte() != 0);
+        if (has(bits, 18)) p.setTags(readStrings(in));
+        if (has(bits, 19)) p.setRating(Double.longBitsToDouble(in.readLong()));
+        if (has(bits, 20)) p.setReviewCount((int) in.readVarLong());
+        if (has(bits, 21)) p.setCreatedAt(in.readDateTime());
+        if (has(bits, 22)) p.setUpdatedAt(in.readDateTime());
+        return p;
+    }
+
+    // CategoryResponse schema v1
+    private void writeCategory(Output out, CategoryResponse c) {
+        out.writeVarInt(CATEGORY_SCHEMA);
+        out.writeVarLong(presence(c.getId(), c.getName(), c.getDescription(), c.getActive(),
+                c.getProductCount(), c.getCreatedAt(), c.getUpdatedAt()));
+        if (c.getId() != null) out.writeVarLong(c.getId());
+        if (c.getName() != null) out.writeString(c.getName());
+        if (c.getDescription() != null) out.writeString(c.getDescription());
+        if (c.getActive() != null) out.writeByte(c.getActive() ? 1 : 0);
+        if (c.getProductCount() != null) out.writeVarLong(c.getProductCount());
+        if (c.getCreatedAt() != null) out.writeDateTime(c.getCreatedAt());
+        if (c.getUpdatedAt() != null) out.writeDateTime(c.getUpdatedAt());
+    }
+
+    private CategoryResponse readCategory(Input in) {
+        int schema = in.readVarInt();
+        if (schema != CATEGORY_SCHEMA) {
+            throw new SerializationException("Unsupported CategoryResponse schema: " + schema);
+        }
+        long bits = in.readVarLong();
+        CategoryResponse c = new CategoryResponse();
+        if (has(bits, 0)) c.setId(in.readVarLong());
+        if (has(bits, 1)) c.setName(in.readString());
+        if (has(bits, 2)) c.setDescription(in.readString());
+        if (has(bits, 3)) c.setActive(in.readByte() != 0);
+        if (has(bits, 4)) c.setProductCount((int) in.readVarLong());
+        if (has(bits, 5)) c.setCreatedAt(in.readDateTime());
+        if (has(bits, 6)) c.setUpdatedAt(in.readDateTime());
+        return c;
+    }
+
+    // PageResponse schema v2: nullable fields in the bitmap, primitives always written.
+    // v2 appended the snapshot fields; v1 payloads are read the same way and leave them null
+    private void writePage(Output out, PageResponse<?> page) {
+        out.writeVarInt(PAGE_SCHEMA);
+        out.writeVarLong(presence(page.getContent(), page.getTotalElements(), page.getTotalPages(),
+                page.getNextCursor(), page.getSnapshotVersion(), page.getSnapshotBuiltAt()));
+        out.writeByte((page.isLast() ? 1 : 0) | (page.isFirst() ? 2 : 0) | (page.isEmpty() ? 4 : 0));
+        out.writeVarLong(page.getPageNumber());
+        out.writeVarLong(page.getPageSize());
+        out.writeVarLong(page.getNumberOfElements());
+        if (page.getContent() != null) writeList(out, page.getContent());
+        if (page.getTotalElements() != null) out.writeVarLong(page.getTotalElements());
+        if (page.getTotalPages() != null) out.writeVarLong(page.getTotalPages());
+        if (page.getNextCursor() != null) out.writeString(page.getNextCursor());
+        if (page.getSnapshotVersion() != null) out.writeVarLong(page.getSnapshotVersion());
+        if (page.getSnapshotBuiltAt() != null) out.writeVarLong(page.getSnapshotBuiltAt().toEpochMilli());
+    }
+
+    private PageResponse<Object> readPage(Input in) {
+        int schema = in.readVarInt();
+        if (schema < 1 || schema > PAGE_SCHEMA) {
+            throw new SerializationException("Unsupported PageResponse schema: " + schema);
+        }
+        long bits = in.readVarLong();
+        int flags = in.readByte();
+        PageResponse<Object> page = new PageResponse<>();
+        page.setLast((flags & 1) != 0);
+        page.setFirst((flags & 2) != 0);
+        page.setEmpty((flags & 4) != 0);
+        page.setPageNumber((int) in.readVarLong());
+        page.setPageSize((int) in.readVarLong());
+        page.setNumberOfElements((int) in.readVarLong());
+        if (has(bits, 0)) page.setContent(readList(in));
+        if (has(bits, 1)) page.setTotalElements(in.readVarLong());
+        if (has(bits, 2)) page.setTotalPages((int) in.readVarLong());
+        if (has(bits, 3)) page.setNextCursor(in.readString());
+        if (has(bits, 4)) page.setSnapshotVersion(in.readVarLong());
+        if (has(bits, 5)) page.setSnapshotBuiltAt(Instant.ofEpochMilli(in.readVarLong()));
+        return page;
+    }
+
+    // ListingPage has no nullable fields and is not versioned separately; ids are delta-encoded
+    private void writeListing(Output out, ListingPage listing) {
+        out.writeByte(listing.last() ? 1 : 0);
+        out.writeVarLong(listing.pageNumber());
+        out.writeVarLong(listing.pageSize());
+        out.writeVarLong(listing.totalElements());
+        out.writeVarLong(listing.totalPages());
+        out.writeVarInt(listing.productIds().size());
+        long previous = 0;
+        for (Long id : listing.productIds()) {
+            out.writeVarLong(id - previous);
+            previous = id;
+        }
+    }
+
+    private ListingPage readListing(Input in) {
+        boolean last = in.readByte() != 0;
+        int pageNumber = (int) in.readVarLong();
+        int pageSize = (int) in.readVarLong();
+        long totalElements = in.readVarLong();
+        int totalPages = (int) in.readVarLong();
+        int size = in.readVarInt();
+        List<Long> ids = new ArrayList<>(size);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += in.readVarLong();
+            ids.add(previous);
+        }
+        return new ListingPage(ids, pageNumber, pageSize, totalElements, totalPages, last);
+    }
+
+    private static long presence(Object... fields) {
+        long bits = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    private static boolean has(long bits, int field) {
+        return (bits & (1L << field)) != 0;
+    }
+
+    private static final class Output {
+        private byte[] buf;
+        private int pos;
+
+        Output(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeLong(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (v >>> shift);
+            }
+        }
+
+        void writeVarInt(int v) {
+            writeUnsignedVarLong(v & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long v) {
+            writeUnsignedVarLong((v << 1) ^ (v >> 63));
+        }
+
+        private void writeUnsignedVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeString(String s) {
+            writeBytes(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeDecimal(BigDecimal d) {
+            writeVarInt(d.scale());
+            BigInteger unscaled = d.unscaledValue();
+            if (unscaled.bitLength() < 64) {
+                writeByte(0);
+                writeVarLong(unscaled.longValue());
+            } else {
+                writeByte(1);
+                writeBytes(unscaled.toByteArray());
+            }
+        }
+
+        void writeDateTime(LocalDateTime t) {
+            writeVarLong(t.toEpochSecond(ZoneOffset.UTC));
+            writeVarInt(t.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buf;
+        private int pos;
+
+        Input(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        byte readByte() {
+            return buf[pos++];
+        }
+
+        long readLong() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+
+        int readVarInt() {
+            return (int) readUnsignedVarLong();
+        }
+
+        long readVarLong() {
+            long v = readUnsignedVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        private long readUnsignedVarLong() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+        }
+
+        byte[] readBytes() {
+            int length = readVarInt();
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        String readString() {
+            int length = readVarInt();
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        BigDecimal readDecimal() {
+            int scale = readVarInt();
+            BigInteger unscaled = readByte() == 0
+                    ? BigInteger.valueOf(readVarLong())
+                    : new BigInteger(readBytes());
+            return new BigDecimal(unscaled, scale);
+        }
+
+        LocalDateTime readDateTime() {
+            long seconds = readVarLong();
+            int nanos = readVarInt();
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+    }
+}
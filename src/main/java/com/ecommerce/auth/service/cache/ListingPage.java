@@ -0,0 +1,17 @@
+package com.ecommerce.auth.service.cache;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A cached product listing page: the ordered product ids plus page metadata.
+ * Product data itself is rehydrated from the per-product cache.
+ */
+public record ListingPage(
+        List<Long> productIds,
+        int pageNumber,
+        int pageSize,
+        long totalElements,
+        int totalPages,
+        boolean last) implements Serializable {
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.auth.service.cache;
+
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import com.ecommerce.auth.service.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts changed products from every node's near cache once the change is committed.
+ * The eviction leaves a tombstone in Redis, so a read that loaded the pre-commit row
+ * and finishes afterwards does not write it back (see {@link TwoTierCache}).
+ */
+@Component
+public class ProductCacheInvalidator {
+
+    @Autowired
+    private TwoTierCache<ProductResponse> productCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.ChangeType.CREATED) {
+            productCache.invalidate(String.valueOf(event.productId()));
+        }
+    }
+
+    // Every checkout moves stock, so the touched products go out in one pipelined batch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        productCache.invalidateAll(event.productIds().stream().map(String::valueOf).toList());
+    }
+
+}
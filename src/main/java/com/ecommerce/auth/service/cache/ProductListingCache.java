@@ -0,0 +1,134 @@
+package com.ecommerce.auth.service.cache;
+
+import com.ecommerce.auth.dto.response.PageResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.service.category.CategoryTreeCache;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import com.ecommerce.auth.service.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Query-result cache for product listing pages.
+ * <p>
+ * Entries hold only product ids and page metadata under a key built from the
+ * normalized query parameters plus the catalog versions the query depends on:
+ * category-filtered queries depend on the matching categories' counters, everything
+ * else on the global counter. Product data is rehydrated from the per-product cache.
+ */
+@Component
+public class ProductListingCache {
+
+    @Autowired
+    private TwoTierCache<ListingPage> listingCache;
+    @Autowired
+    private TwoTierCache<ProductResponse> productCache;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+    @Autowired
+    private ProductRepository productRepository;
+
+    public PageResponse<ProductResponse> get(
+            int page, int size, String sortBy, String sortDir, String category, String search,
+            Supplier<PageResponse<ProductResponse>> loader,
+            Function<List<Long>, Map<Long, ProductResponse>> productLoader) {
+
+        // Both filters match case-insensitively, so lower-casing them cannot change the result
+        String normalizedCategory = category == null ? null : category.toLowerCase(Locale.ROOT);
+        String normalizedSearch = search == null ? null : search.toLowerCase(Locale.ROOT);
+        List<Long> scope = normalizedCategory == null ? null : categoryIds(normalizedCategory);
+        String key = String.join("|",
+                catalogVersions.stamp(scope),
+                String.valueOf(page),
+                String.valueOf(size),
+                sortBy,
+                sortDir.equalsIgnoreCase("desc") ? "desc" : "asc",
+                normalizedCategory == null ? "*" : "=" + normalizedCategory,
+                normalizedSearch == null ? "*" : "=" + normalizedSearch);
+
+        AtomicReference<PageResponse<ProductResponse>> loaded = new AtomicReference<>();
+        ListingPage listing = listingCache.get(key, () -> {
+            // Rows are not copied into the product cache: they may predate an invalidation
+            // that ran while the page loaded, and rehydration fills that cache on demand
+            PageResponse<ProductResponse> result = loader.get();
+            loaded.set(result);
+            return toListing(result);
+        });
+        if (loaded.get() != null) {
+            return loaded.get();
+        }
+        return rehydrate(listing, productLoader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersions.bump(Arrays.asList(event.categoryId(), event.previousCategoryId()));
+    }
+
+    // Pages sorted by stock change order, so the products' categories are bumped as well
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (!event.productIds().isEmpty()) {
+            catalogVersions.bump(productRepository.findCategoryIdsByIdIn(event.productIds()));
+        }
+    }
+
+    private PageResponse<ProductResponse> rehydrate(
+            ListingPage listing, Function<List<Long>, Map<Long, ProductResponse>> productLoader) {
+
+        List<String> keys = listing.productIds().stream().map(String::valueOf).toList();
+        Map<String, ProductResponse> products = productCache.getAll(keys, missing -> {
+            Map<Long, ProductResponse> byId = productLoader.apply(missing.stream().map(Long::valueOf).toList());
+            Map<String, ProductResponse> byKey = new HashMap<>();
+            byId.forEach((id, product) -> byKey.put(String.valueOf(id), product));
+            return byKey;
+        });
+
+        // A product deleted since the listing was cached is skipped rather than failing the page
+        List<ProductResponse> content = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            ProductResponse product = products.get(key);
+            if (product != null) {
+                content.add(product);
+            }
+        }
+
+        return PageResponse.<ProductResponse>builder()
+                .content(content)
+                .pageNumber(listing.pageNumber())
+                .pageSize(listing.pageSize())
+                .totalElements(listing.totalElements())
+                .totalPages(listing.totalPages())
+                .last(listing.last())
+                .build();
+    }
+
+    private ListingPage toListing(PageResponse<ProductResponse> page) {
+        return new ListingPage(
+                page.getContent().stream().map(ProductResponse::getId).toList(),
+                page.getPageNumber(),
+                page.getPageSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isLast());
+    }
+
+    private List<Long> categoryIds(String normalizedCategory) {
+        return categoryTreeCache.current().activeIdsWithNameContaining(normalizedCategory);
+    }
+
+}
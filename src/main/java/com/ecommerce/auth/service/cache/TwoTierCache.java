@@ -0,0 +1,417 @@
+package com.ecommerce.auth.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near cache: a bounded on-heap Caffeine L1 in front of Redis (L2).
+ * <p>
+ * Reads check L1, then L2, then the loader, back-filling each tier on the way out.
+ * {@link #invalidate} replaces the L2 entry with a short-lived tombstone and broadcasts
+ * the key on a Redis pub/sub channel so every node evicts its own L1 copy. L1 entries
+ * also expire on their own, which bounds staleness if an invalidation message is lost.
+ * <p>
+ * Writes never replace a tombstone, so a load or refresh that read the old value
+ * before the invalidation cannot cache it afterwards. The tombstone lives as long as
+ * the loader lease, so reads in that window go to the loader without caching.
+ * <p>
+ * Misses are protected against stampedes: concurrent loads of one key on a node are
+ * coalesced onto a single future, and across nodes the loader holds a short Redis
+ * lease while others wait for its value. Entries may be refreshed before they expire
+ * (XFetch) and, once stale, are still served while a background refresh runs.
+ */
+public class TwoTierCache<V> implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final long LEASE_POLL_MILLIS = 20;
+    private static final String TOMBSTONE = "tombstone";
+    private static final GenericToStringSerializer<Long> SCRIPT_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private final String name;
+    private final String keyPrefix;
+    private final String leasePrefix;
+    private final String invalidationChannel;
+    private final CachePolicy policy;
+    private final Cache<String, CacheEntry<V>> l1;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final RedisScript<Long> putUnlessTombstoned;
+    private final RedisScript<Long> replaceWithTombstone;
+
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Puts;
+    private final Counter l2Evictions;
+    private final Counter tombstonedPuts;
+    private final Counter coalescedLoads;
+    private final Counter leaseWaits;
+    private final Counter earlyRefreshes;
+    private final Counter staleServed;
+
+    public TwoTierCache(String name, CachePolicy policy,
+                        RedisTemplate<String, Object> redisTemplate,
+                        StringRedisTemplate stringRedisTemplate,
+                        Executor refreshExecutor,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.keyPrefix = name + ":";
+        this.leasePrefix = "lease:" + name + ":";
+        this.invalidationChannel = "cache:invalidate:" + name;
+        this.policy = policy;
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.refreshExecutor = refreshExecutor;
+        // ARGV[1] is the value, ARGV[2] the serialized tombstone; TTLs are fixed per cache
+        Duration redisTtl = policy.staleWhileRevalidate() ? policy.ttl().plus(policy.staleTtl()) : policy.ttl();
+        this.putUnlessTombstoned = RedisScript.of(
+                "if redis.call('get', KEYS[1]) == ARGV[2] then return 0 end "
+                        + "redis.call('set', KEYS[1], ARGV[1], 'PX', " + redisTtl.toMillis() + ") return 1",
+                Long.class);
+        this.replaceWithTombstone = RedisScript.of(
+                "local old = redis.call('get', KEYS[1]) "
+                        + "redis.call('set', KEYS[1], ARGV[1], 'PX', " + policy.leaseTtl().toMillis() + ") "
+                        + "if old and old ~= ARGV[1] then return 1 end return 0",
+                Long.class);
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(policy.l1MaximumSize())
+                .expireAfterWrite(policy.l1Ttl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, name, "tier", "l1");
+        this.l2Hits = counter(meterRegistry, "cache.gets", "tier", "l2", "result", "hit");
+        this.l2Misses = counter(meterRegistry, "cache.gets", "tier", "l2", "result", "miss");
+        this.l2Puts = counter(meterRegistry, "cache.puts", "tier", "l2");
+        this.l2Evictions = counter(meterRegistry, "cache.evictions", "tier", "l2");
+        this.tombstonedPuts = counter(meterRegistry, "cache.puts.skipped", "reason", "tombstone");
+        this.coalescedLoads = counter(meterRegistry, "cache.loads.coalesced");
+        this.leaseWaits = counter(meterRegistry, "cache.lease.waits");
+        this.earlyRefreshes = counter(meterRegistry, "cache.refreshes", "reason", "early");
+        this.staleServed = counter(meterRegistry, "cache.refreshes", "reason", "stale");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    public V get(String key, Supplier<V> loader) {
+        CacheEntry<V> entry = l1.getIfPresent(key);
+        if (entry == null) {
+            entry = readL2(key);
+            if (entry != null) {
+                l1.put(key, entry);
+            }
+        }
+        if (entry == null) {
+            return load(key, loader);
+        }
+
+        long now = System.currentTimeMillis();
+        if (!entry.isStale(now)) {
+            if (entry.shouldRefreshEarly(now, policy.earlyExpirationBeta())) {
+                earlyRefreshes.increment();
+                refreshInBackground(key, loader);
+            }
+            return entry.value();
+        }
+
+        if (policy.staleWhileRevalidate() && now < entry.expiresAt() + policy.staleTtl().toMillis()) {
+            staleServed.increment();
+            refreshInBackground(key, loader);
+            return entry.value();
+        }
+        return load(key, loader);
+    }
+
+    /**
+     * Multi-key read: L1 first, then one Redis MGET, then a single batch load for the
+     * rest. Stale entries inside the stale window are returned and refreshed one by one
+     * in the background. Keys the loader does not return are absent from the result.
+     */
+    public Map<String, V> getAll(List<String> keys, Function<List<String>, Map<String, V>> batchLoader) {
+        Map<String, V> result = new HashMap<>(keys.size() * 2);
+        List<String> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        Map<String, CacheEntry<V>> local = l1.getAllPresent(keys);
+        List<String> remote = keys.stream().filter(key -> !local.containsKey(key)).toList();
+        Map<String, CacheEntry<V>> found = new HashMap<>(local);
+        if (!remote.isEmpty()) {
+            List<Object> values = redisTemplate.opsForValue().multiGet(
+                    remote.stream().map(key -> keyPrefix + key).toList());
+            for (int i = 0; i < remote.size(); i++) {
+                CacheEntry<V> entry = asEntry(values == null ? null : values.get(i));
+                if (entry != null) {
+                    l1.put(remote.get(i), entry);
+                    found.put(remote.get(i), entry);
+                }
+            }
+        }
+
+        for (String key : keys) {
+            CacheEntry<V> entry = found.get(key);
+            if (entry == null) {
+                missing.add(key);
+            } else if (!entry.isStale(now)) {
+                result.put(key, entry.value());
+            } else if (policy.staleWhileRevalidate() && now < entry.expiresAt() + policy.staleTtl().toMillis()) {
+                staleServed.increment();
+                result.put(key, entry.value());
+                refreshInBackground(key, () -> batchLoader.apply(List.of(key)).get(key));
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long started = System.currentTimeMillis();
+            Map<String, V> loaded = batchLoader.apply(missing);
+            long computeMillis = (System.currentTimeMillis() - started) / missing.size();
+            loaded.forEach((key, value) -> {
+                if (value != null) {
+                    put(key, value, computeMillis);
+                    result.put(key, value);
+                }
+            });
+        }
+        return result;
+    }
+
+    public void put(String key, V value) {
+        put(key, value, 0);
+    }
+
+    /**
+     * Removes the key from L1, tombstones it in L2 and tells every other node to drop
+     * its L1 copy.
+     */
+    public void invalidate(String key) {
+        l1.invalidate(key);
+        Long evicted = redisTemplate.execute(replaceWithTombstone, redisTemplate.getValueSerializer(),
+                SCRIPT_RESULT, List.of(keyPrefix + key), TOMBSTONE);
+        if (Long.valueOf(1).equals(evicted)) {
+            l2Evictions.increment();
+        }
+        stringRedisTemplate.convertAndSend(invalidationChannel, key);
+    }
+
+    /**
+     * {@link #invalidate} for many keys in one pipelined round trip: a tombstone and a
+     * broadcast per key.
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidateAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        l1.invalidateAll(keys);
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] script = replaceWithTombstone.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        byte[] channel = invalidationChannel.getBytes(StandardCharsets.UTF_8);
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] tombstone = valueSerializer.serialize(TOMBSTONE);
+            for (String key : keys) {
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1,
+                        keySerializer.serialize(keyPrefix + key), tombstone);
+                connection.publish(channel, key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        if (replies != null) {
+            replies.stream().filter(Long.valueOf(1)::equals).forEach(reply -> l2Evictions.increment());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        l1.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loads on the calling thread, or joins the load already running for this key.
+     */
+    private V load(String key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalescedLoads.increment();
+            return join(running);
+        }
+        try {
+            V value = loadWithLease(key, loader, true);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void refreshInBackground(String key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    mine.complete(loadWithLease(key, loader, false));
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of {}{} failed", keyPrefix, key, e);
+                    mine.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh pool saturated: keep serving the current value and retry on a later read
+            inFlight.remove(key, mine);
+            mine.complete(null);
+        }
+    }
+
+    /**
+     * Runs the loader while holding this key's Redis lease. Without the lease, a foreground
+     * caller waits briefly for the holder's value before loading anyway, and a background
+     * refresh simply leaves the work to the holder.
+     */
+    private V loadWithLease(String key, Supplier<V> loader, boolean waitForHolder) {
+        String leaseKey = leasePrefix + key;
+        String token = UUID.randomUUID().toString();
+        boolean leased = Boolean.TRUE.equals(
+                stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, token, policy.leaseTtl()));
+
+        if (!leased) {
+            if (!waitForHolder) {
+                return null;
+            }
+            leaseWaits.increment();
+            V value = awaitHolder(key);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            V value = loader.get();
+            if (value != null) {
+                put(key, value, System.currentTimeMillis() - started);
+            }
+            return value;
+        } finally {
+            if (leased) {
+                stringRedisTemplate.execute(RELEASE_LEASE, List.of(leaseKey), token);
+            }
+        }
+    }
+
+    private V awaitHolder(String key) {
+        long deadline = System.currentTimeMillis() + policy.leaseWait().toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CacheEntry<V> entry = readL2(key);
+            if (entry != null && !entry.isStale(System.currentTimeMillis())) {
+                l1.put(key, entry);
+                return entry.value();
+            }
+        }
+        return null;
+    }
+
+    private void put(String key, V value, long computeMillis) {
+        CacheEntry<V> entry = new CacheEntry<>(value,
+                System.currentTimeMillis() + policy.ttl().toMillis(), computeMillis);
+        Long written = redisTemplate.execute(putUnlessTombstoned, redisTemplate.getValueSerializer(),
+                SCRIPT_RESULT, List.of(keyPrefix + key), entry, TOMBSTONE);
+        if (!Long.valueOf(1).equals(written)) {
+            // Invalidated recently; the value may predate the change, so leave the tombstone
+            tombstonedPuts.increment();
+            return;
+        }
+        l2Puts.increment();
+        l1.put(key, entry);
+    }
+
+    private CacheEntry<V> readL2(String key) {
+        return asEntry(redisTemplate.opsForValue().get(keyPrefix + key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheEntry<V> asEntry(Object cached) {
+        // Bare values written before entries carried metadata count as misses
+        if (cached instanceof CacheEntry<?> entry) {
+            l2Hits.increment();
+            return (CacheEntry<V>) entry;
+        }
+        l2Misses.increment();
+        return null;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(MeterRegistry registry, String meter, String... tags) {
+        return Counter.builder(meter)
+                .tag("cache", name)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.auth.service.cart;
+
+import java.math.BigDecimal;
+
+/**
+ * One change to a cart, applied by {@link HotCartStore} inside a single Lua call.
+ * {@code unitPrice} is the price captured when the line is written.
+ */
+public record CartMutation(Type type, Long productId, int quantity, BigDecimal unitPrice) {
+
+    public enum Type {
+        ADD, SET, REMOVE, CLEAR
+    }
+
+    public static CartMutation add(Long productId, int quantity, BigDecimal unitPrice) {
+        return new CartMutation(Type.ADD, productId, quantity, unitPrice);
+    }
+
+    public static CartMutation set(Long productId, int quantity, BigDecimal unitPrice) {
+        return new CartMutation(Type.SET, productId, quantity, unitPrice);
+    }
+
+    public static CartMutation remove(Long productId) {
+        return new CartMutation(Type.REMOVE, productId, 0, null);
+    }
+
+    public static CartMutation clear() {
+        return new CartMutation(Type.CLEAR, null, 0, null);
+    }
+}
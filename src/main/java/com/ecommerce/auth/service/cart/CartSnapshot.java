@@ -0,0 +1,78 @@
+package com.ecommerce.auth.service.cart;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Contents of one cart as held in the hot store. {@code version} is bumped by every
+ * mutation, so a flush can tell whether the cart changed while it was being written.
+ */
+public record CartSnapshot(long version, List<Line> lines) {
+
+    static final String VERSION_FIELD = "_v";
+    static final String QUANTITY_PREFIX = "q:";
+    static final String PRICE_PREFIX = "u:";
+
+    public record Line(Long productId, int quantity, BigDecimal unitPrice) {
+
+        public BigDecimal subtotal() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    public static CartSnapshot empty() {
+        return new CartSnapshot(0, List.of());
+    }
+
+    public int totalItems() {
+        int total = 0;
+        for (Line line : lines) {
+            total += line.quantity();
+        }
+        return total;
+    }
+
+    public BigDecimal totalAmount() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Line line : lines) {
+            total = total.add(line.subtotal());
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    // Lines come back ordered by product id
+    static CartSnapshot fromHash(Map<String, String> hash) {
+        long version = 0;
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, BigDecimal> prices = new TreeMap<>();
+        for (Map.Entry<String, String> field : hash.entrySet()) {
+            String name = field.getKey();
+            if (name.equals(VERSION_FIELD)) {
+                version = Long.parseLong(field.getValue());
+            } else if (name.startsWith(QUANTITY_PREFIX)) {
+                quantities.put(Long.valueOf(name.substring(2)), Integer.valueOf(field.getValue()));
+            } else if (name.startsWith(PRICE_PREFIX)) {
+                prices.put(Long.valueOf(name.substring(2)), new BigDecimal(field.getValue()));
+            }
+        }
+        List<Line> lines = quantities.entrySet().stream()
+                .filter(entry -> prices.containsKey(entry.getKey()))
+                .map(entry -> new Line(entry.getKey(), entry.getValue(), prices.get(entry.getKey())))
+                .toList();
+        return new CartSnapshot(version, lines);
+    }
+
+    static CartSnapshot fromReply(List<String> reply) {
+        Map<String, String> hash = new TreeMap<>();
+        for (int i = 0; i + 1 < reply.size(); i += 2) {
+            hash.put(reply.get(i), reply.get(i + 1));
+        }
+        return fromHash(hash);
+    }
+}
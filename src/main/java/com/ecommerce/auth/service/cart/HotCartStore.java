@@ -0,0 +1,202 @@
+package com.ecommerce.auth.service.cart;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carts as Redis hashes, one per user: {@code q:<productId>} holds the quantity,
+ * {@code u:<productId>} the unit price and {@code _v} a version. Every mutation is one
+ * Lua call that applies the changes, marks the cart dirty and returns the whole hash,
+ * so reads and writes each cost a single round trip. Dirty carts wait in a sorted set
+ * until {@code CartService} writes them behind to the database.
+ * <p>
+ * The scripts touch a cart and its dirty set together, so both carry the same hash tag
+ * ({@code cart:{<bucket>}:<userId>} and {@code cart:{<bucket>}:dirty}) and land in one
+ * Redis Cluster slot. Carts are spread over {@link #BUCKETS} buckets by user id; changing
+ * the bucket count moves every cart to a new key, so it is fixed.
+ */
+@Component
+public class HotCartStore {
+
+    static final String KEY_PREFIX = "cart:";
+    static final int BUCKETS = 16;
+
+    // Returns nil when the cart is not in Redis yet, so the caller can load it first
+    private static final RedisScript<List> MUTATE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return false end
+            local i = 4
+            while i <= #ARGV do
+                local op, pid, qty, price = ARGV[i], ARGV[i + 1], ARGV[i + 2], ARGV[i + 3]
+                if op == 'ADD' then
+                    redis.call('HINCRBY', KEYS[1], 'q:' .. pid, qty)
+                    redis.call('HSET', KEYS[1], 'u:' .. pid, price)
+                elseif op == 'SET' then
+                    if tonumber(qty) <= 0 then
+                        redis.call('HDEL', KEYS[1], 'q:' .. pid, 'u:' .. pid)
+                    else
+                        redis.call('HSET', KEYS[1], 'q:' .. pid, qty, 'u:' .. pid, price)
+                    end
+                elseif op == 'REMOVE' then
+                    redis.call('HDEL', KEYS[1], 'q:' .. pid, 'u:' .. pid)
+                elseif op == 'CLEAR' then
+                    local version = redis.call('HGET', KEYS[1], '_v')
+                    redis.call('DEL', KEYS[1])
+                    redis.call('HSET', KEYS[1], '_v', version)
+                end
+                i = i + 4
+            end
+            redis.call('HINCRBY', KEYS[1], '_v', 1)
+            redis.call('ZADD', KEYS[2], 'NX', ARGV[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    // Populates a cart loaded from the database unless another request got there first
+    private static final RedisScript<List> WARM = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+                redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    // Claims due carts by pushing their score past the lease, so one node flushes each at a time
+    private static final RedisScript<List> CLAIM = new DefaultRedisScript<>("""
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, id in ipairs(ids) do
+                redis.call('ZADD', KEYS[1], ARGV[3], id)
+            end
+            return ids
+            """, List.class);
+
+    // Clears the dirty mark only if nothing changed since the snapshot that was written
+    private static final RedisScript<Long> COMPLETE = new DefaultRedisScript<>("""
+            local version = redis.call('HGET', KEYS[1], '_v')
+            if version and version ~= ARGV[2] then
+                redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+                return 0
+            end
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.cart.ttl:P7D}")
+    private Duration ttl;
+
+    // Rotates the bucket claims start from, so a busy bucket cannot starve the others
+    private final AtomicInteger nextBucket = new AtomicInteger();
+
+    // Null when the cart has not been loaded into Redis
+    public CartSnapshot get(Long userId) {
+        Map<String, String> hash = stringRedisTemplate.<String, String>opsForHash().entries(key(userId));
+        return hash.isEmpty() ? null : CartSnapshot.fromHash(hash);
+    }
+
+    // Carts that are no longer in Redis are left out
+    @SuppressWarnings("unchecked")
+    public Map<Long, CartSnapshot> getAll(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        List<Object> hashes = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long userId : ids) {
+                connection.hashCommands().hGetAll(key(userId).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        Map<Long, CartSnapshot> snapshots = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            if (hash != null && !hash.isEmpty()) {
+                snapshots.put(ids.get(i), CartSnapshot.fromHash(hash));
+            }
+        }
+        return snapshots;
+    }
+
+    @SuppressWarnings("unchecked")
+    public CartSnapshot warm(Long userId, CartSnapshot persisted) {
+        List<String> args = new ArrayList<>();
+        args.add(Long.toString(ttl.toMillis()));
+        args.add(CartSnapshot.VERSION_FIELD);
+        args.add(Long.toString(persisted.version()));
+        for (CartSnapshot.Line line : persisted.lines()) {
+            args.add(CartSnapshot.QUANTITY_PREFIX + line.productId());
+            args.add(Integer.toString(line.quantity()));
+            args.add(CartSnapshot.PRICE_PREFIX + line.productId());
+            args.add(line.unitPrice().toPlainString());
+        }
+        List<String> reply = stringRedisTemplate.execute(WARM, List.of(key(userId)), args.toArray());
+        return CartSnapshot.fromReply(reply);
+    }
+
+    /**
+     * Applies the mutations atomically and returns the resulting cart, or null when the
+     * cart is not in Redis and has to be warmed from the database first.
+     */
+    @SuppressWarnings("unchecked")
+    public CartSnapshot apply(Long userId, List<CartMutation> mutations) {
+        List<String> args = new ArrayList<>(3 + mutations.size() * 4);
+        args.add(Long.toString(System.currentTimeMillis()));
+        args.add(userId.toString());
+        args.add(Long.toString(ttl.toMillis()));
+        for (CartMutation mutation : mutations) {
+            args.add(mutation.type().name());
+            args.add(mutation.productId() == null ? "" : mutation.productId().toString());
+            args.add(Integer.toString(mutation.quantity()));
+            args.add(mutation.unitPrice() == null ? "" : mutation.unitPrice().toPlainString());
+        }
+        List<String> reply = stringRedisTemplate.execute(MUTATE, List.of(key(userId), dirtyKey(bucket(userId))), args.toArray());
+        return reply == null ? null : CartSnapshot.fromReply(reply);
+    }
+
+    // One script call per bucket until the limit is reached
+    @SuppressWarnings("unchecked")
+    public List<Long> claimDirty(int limit, Duration lease) {
+        long now = System.currentTimeMillis();
+        int first = Math.floorMod(nextBucket.getAndIncrement(), BUCKETS);
+        List<Long> claimed = new ArrayList<>();
+        for (int i = 0; i < BUCKETS && claimed.size() < limit; i++) {
+            List<String> ids = stringRedisTemplate.execute(CLAIM, List.of(dirtyKey((first + i) % BUCKETS)),
+                    Long.toString(now), Integer.toString(limit - claimed.size()),
+                    Long.toString(now + lease.toMillis()));
+            if (ids != null) {
+                ids.forEach(id -> claimed.add(Long.valueOf(id)));
+            }
+        }
+        return claimed;
+    }
+
+    public boolean complete(Long userId, long flushedVersion) {
+        Long cleared = stringRedisTemplate.execute(COMPLETE, List.of(key(userId), dirtyKey(bucket(userId))),
+                userId.toString(), Long.toString(flushedVersion), Long.toString(System.currentTimeMillis()));
+        return cleared != null && cleared == 1;
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + "{" + bucket(userId) + "}:" + userId;
+    }
+
+    private static String dirtyKey(int bucket) {
+        return KEY_PREFIX + "{" + bucket + "}:dirty";
+    }
+
+    private static int bucket(Long userId) {
+        return (int) Math.floorMod(userId, (long) BUCKETS);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.dto.response.ProductBrowseResponse;
+import com.ecommerce.auth.service.category.CategoryTree;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the rows of the grouped facet query into facet counts. Each row is one
+ * (price bucket, category, in stock, in price range) combination with its product
+ * count, so every facet is summed from the same pass. Facets are disjunctive: each
+ * one honours all filters except its own, and the category facet counts the
+ * subtrees of the children of the selected category, or of the roots.
+ */
+final class BrowseFacets {
+
+    private final BigDecimal[] edges;
+    private final CategoryTree tree;
+    private final Long selectedCategoryId;
+    private final int facetDepth;
+    private final boolean inStockOnly;
+
+    private final long[] bucketCounts;
+    private final Map<Long, Long> categoryCounts = new HashMap<>();
+    private long inStock;
+    private long outOfStock;
+    private long matching;
+
+    BrowseFacets(BigDecimal[] edges, CategoryTree tree, Long selectedCategoryId, boolean inStockOnly) {
+        this.edges = edges;
+        this.tree = tree;
+        this.selectedCategoryId = selectedCategoryId;
+        this.facetDepth = selectedCategoryId == null ? 0 : tree.depth(selectedCategoryId) + 1;
+        this.inStockOnly = inStockOnly;
+        // width_bucket: 0 below the first edge, i in [edge i, edge i+1), edges.length at or above the last
+        this.bucketCounts = new long[edges.length + 1];
+    }
+
+    void add(int bucket, Long categoryId, boolean hasStock, boolean inPriceRange, long count) {
+        boolean stockMatches = !inStockOnly || hasStock;
+        if (stockMatches) {
+            bucketCounts[bucket] += count;
+        }
+        if (inPriceRange) {
+            if (hasStock) {
+                inStock += count;
+            } else {
+                outOfStock += count;
+            }
+        }
+        if (stockMatches && inPriceRange) {
+            matching += count;
+            Long facetCategory = categoryId == null ? null : tree.ancestorAtDepth(categoryId, facetDepth);
+            if (facetCategory != null) {
+                categoryCounts.merge(facetCategory, count, Long::sum);
+            }
+        }
+    }
+
+    /** Products matching every filter. */
+    long matching() {
+        return matching;
+    }
+
+    List<ProductBrowseResponse.PriceBucket> priceBuckets() {
+        List<ProductBrowseResponse.PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+        for (int b = 0; b < bucketCounts.length; b++) {
+            // Nothing can fall below a first edge of zero, so that bucket is only shown when populated
+            if (b == 0 && bucketCounts[0] == 0) {
+                continue;
+            }
+            buckets.add(new ProductBrowseResponse.PriceBucket(
+                    b == 0 ? null : edges[b - 1],
+                    b == edges.length ? null : edges[b],
+                    bucketCounts[b]));
+        }
+        return buckets;
+    }
+
+    List<ProductBrowseResponse.CategoryCount> categories() {
+        List<Long> candidates = selectedCategoryId == null ? tree.rootIds() : tree.childIds(selectedCategoryId);
+        List<ProductBrowseResponse.CategoryCount> categories = new ArrayList<>();
+        for (Long id : candidates) {
+            Long count = categoryCounts.get(id);
+            if (count != null && tree.isActive(id)) {
+                categories.add(new ProductBrowseResponse.CategoryCount(id, tree.name(id), tree.slug(id), count));
+            }
+        }
+        return categories;
+    }
+
+    ProductBrowseResponse.Availability availability() {
+        return new ProductBrowseResponse.Availability(inStock, outOfStock);
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.dto.request.BrowseProductsRequest;
+import com.ecommerce.auth.dto.response.PageResponse;
+import com.ecommerce.auth.dto.response.ProductBrowseResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.service.ProductService;
+import com.ecommerce.auth.service.category.CategoryTree;
+import com.ecommerce.auth.service.category.CategoryTreeCache;
+import com.ecommerce.auth.service.pagination.ProductSortKey;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Faceted catalog browsing. A request costs two statements in one snapshot: a
+ * grouped query that yields every facet count and the total in a single pass over
+ * the products in the selected category subtree, and a query for the page's ids.
+ * Product data is then served through the product cache.
+ */
+@Service
+public class CatalogBrowseService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+    @Autowired
+    private ProductService productService;
+
+    @Value("${app.catalog.browse.price-buckets:0,25,50,100,250,500,1000}")
+    private BigDecimal[] priceBucketEdges;
+
+    private String bucketExpression;
+
+    // Facet counts and the page must agree, so both statements share one snapshot
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    @PostConstruct
+    void validateBuckets() {
+        StringJoiner edges = new StringJoiner(", ", "width_bucket(p.price, ARRAY[", "]::numeric[])");
+        for (int i = 0; i < priceBucketEdges.length; i++) {
+            if (i > 0 && priceBucketEdges[i].compareTo(priceBucketEdges[i - 1]) <= 0) {
+                throw new IllegalStateException("app.catalog.browse.price-buckets must be strictly ascending");
+            }
+            edges.add(priceBucketEdges[i].toPlainString());
+        }
+        this.bucketExpression = edges.toString();
+    }
+
+    public ProductBrowseResponse browse(BrowseProductsRequest request) {
+        ProductSortKey sortKey = ProductSortKey.of(request.getSortBy());
+        if (sortKey == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort field: " + request.getSortBy());
+        }
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Minimum price exceeds maximum price");
+        }
+        CategoryTree tree = categoryTreeCache.current();
+        Long categoryId = request.getCategoryId();
+        if (categoryId != null && !tree.isActive(categoryId)) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+        boolean inStockOnly = Boolean.TRUE.equals(request.getInStock());
+        BrowseFacets facets = new BrowseFacets(priceBucketEdges, tree, categoryId, inStockOnly);
+
+        List<Long> pageIds = new TransactionTemplate(transactionManager, READ_ONLY).execute(status -> {
+            countFacets(request, tree, facets);
+            return findPage(request, tree, sortKey, inStockOnly);
+        });
+
+        Map<Long, ProductResponse> products = productService.getProductsByIds(pageIds);
+        List<ProductResponse> content = pageIds.stream().map(products::get).filter(Objects::nonNull).toList();
+        long total = facets.matching();
+        int totalPages = (int) ((total + request.getSize() - 1) / request.getSize());
+        PageResponse<ProductResponse> page = PageResponse.<ProductResponse>builder()
+                .content(content)
+                .pageNumber(request.getPage())
+                .pageSize(request.getSize())
+                .totalElements(total)
+                .totalPages(totalPages)
+                .last(request.getPage() >= totalPages - 1)
+                .first(request.getPage() == 0)
+                .numberOfElements(content.size())
+                .empty(content.isEmpty())
+                .build();
+
+        return ProductBrowseResponse.builder()
+                .page(page)
+                .priceBuckets(facets.priceBuckets())
+                .categories(facets.categories())
+                .availability(facets.availability())
+                .build();
+    }
+
+    private void countFacets(BrowseProductsRequest request, CategoryTree tree, BrowseFacets facets) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder inPriceRange = new StringBuilder("true");
+        appendPriceRange(inPriceRange, args, request);
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucketExpression).append(", p.category_id, ")
+                .append("p.stock_quantity > 0, (").append(inPriceRange).append("), count(*) FROM products p");
+        appendCategoryScope(sql, args, request, tree);
+        sql.append(" GROUP BY 1, 2, 3, 4");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            facets.add(rs.getInt(1), rs.getObject(2, Long.class), rs.getBoolean(3), rs.getBoolean(4), rs.getLong(5));
+        }, args.toArray());
+    }
+
+    private List<Long> findPage(BrowseProductsRequest request, CategoryTree tree, ProductSortKey sortKey, boolean inStockOnly) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT p.id FROM products p");
+        appendCategoryScope(sql, args, request, tree);
+        appendPriceRange(sql, args, request);
+        if (inStockOnly) {
+            sql.append(" AND p.stock_quantity > 0");
+        }
+        sql.append(" ORDER BY ").append(sortKey.orderBy("p", request.getSortDir().equalsIgnoreCase("desc")));
+        sql.append(" LIMIT ? OFFSET ?");
+        args.add(request.getSize());
+        args.add((long) request.getPage() * request.getSize());
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> rs.getLong(1), args.toArray());
+    }
+
+    private static void appendCategoryScope(StringBuilder sql, List<Object> args, BrowseProductsRequest request,
+                                            CategoryTree tree) {
+        sql.append(" WHERE p.active = true");
+        if (request.getCategoryId() != null) {
+            Long[] subtree = Arrays.stream(tree.subtreeIds(request.getCategoryId())).boxed().toArray(Long[]::new);
+            sql.append(" AND p.category_id = ANY (?)");
+            args.add(new AbstractSqlTypeValue() {
+                @Override
+                protected Object createTypeValue(Connection connection, int sqlType, String typeName)
+                        throws SQLException {
+                    return connection.createArrayOf("bigint", subtree);
+                }
+            });
+        }
+    }
+
+    private static void appendPriceRange(StringBuilder sql, List<Object> args, BrowseProductsRequest request) {
+        if (request.getMinPrice() != null) {
+            sql.append(" AND p.price >= ?");
+            args.add(request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            sql.append(" AND p.price <= ?");
+            args.add(request.getMaxPrice());
+        }
+    }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return definition;
+    }
+
+}
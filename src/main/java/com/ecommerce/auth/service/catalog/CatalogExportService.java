@@ -0,0 +1,82 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+
+/**
+ * Streams the active catalog in id order. Rows come from a server-side cursor, which
+ * the PostgreSQL driver only uses with a fetch size inside a transaction, and are
+ * written to the output as they arrive; neither side is buffered beyond one fetch.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExportService.class);
+
+    private static final String EXPORT_SQL = """
+            SELECT p.id, p.sku, p.name, p.description, p.price, p.stock_quantity, c.slug
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            WHERE p.active = true
+            ORDER BY p.id""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.catalog.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    // Returns the number of products written
+    public long export(CatalogFormat format, OutputStream out) {
+        long started = System.nanoTime();
+        long exported = new TransactionTemplate(transactionManager, READ_ONLY).execute(status -> {
+            try (CatalogRowWriter writer = CatalogRowWriter.open(format, out, objectMapper.getFactory())) {
+                long[] rows = {0};
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, rs -> {
+                    try {
+                        writer.write(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getBigDecimal(5), rs.getInt(6), rs.getString(7));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                return rows[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the catalog export", e);
+            }
+        });
+        log.info("Exported {} products as {} in {} ms", exported, format, (System.nanoTime() - started) / 1_000_000);
+        return exported;
+    }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+}
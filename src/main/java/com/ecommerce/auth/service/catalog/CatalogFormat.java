@@ -0,0 +1,49 @@
+package com.ecommerce.auth.service.catalog;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Catalog feed formats, shared by import and export. CSV files start with a header row
+ * naming the columns; NDJSON has one product object per line. Both use the fields
+ * {@code sku, name, description, price, stockQuantity, category}, where category is a
+ * category slug or name, so an export can be imported again.
+ */
+public enum CatalogFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    CatalogFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // File extension and request parameter value
+    public String extension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static CatalogFormat of(String name) {
+        for (CatalogFormat format : values()) {
+            if (format.extension().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    public static CatalogFormat of(MediaType contentType) {
+        for (CatalogFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,388 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.dto.response.CatalogImportResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.model.Category;
+import com.ecommerce.auth.repository.CategoryRepository;
+import com.ecommerce.auth.service.cache.CatalogVersions;
+import com.ecommerce.auth.service.cache.TwoTierCache;
+import com.ecommerce.auth.service.category.CategoryStatsService;
+import com.ecommerce.auth.service.event.CatalogImportedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk catalog import for supplier feeds. The feed is parsed one record at a time and
+ * streamed with {@code COPY} into a temporary staging table, then merged into
+ * {@code products} on SKU, updating existing rows and inserting new ones, all in a
+ * single transaction. Memory use is bounded by the copy buffer and the category map,
+ * not by the feed.
+ * <p>
+ * Updates only touch rows whose data changed, and never overwrite the stock of a
+ * product in hot-stock mode. The merge appends a {@code product.created} or
+ * {@code product.updated} outbox event per changed row in the same transaction.
+ * Changed products are evicted from the product cache after commit and listing caches
+ * are invalidated through the catalog versions; category product counts are
+ * reconciled and a {@link CatalogImportedEvent} is published once the merge has
+ * committed.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 100_000;
+    private static final int MAX_REPORTED_REJECTS = 100;
+    private static final int INVALIDATION_FETCH_SIZE = 1000;
+
+    private static final Pattern SKU = Pattern.compile("^[A-Z0-9_-]{3,50}$");
+    private static final BigDecimal MIN_PRICE = new BigDecimal("0.01");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("999999.99");
+    private static final int MAX_STOCK = 999_999;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMPORARY TABLE product_import_staging (
+                line           BIGINT        NOT NULL,
+                sku            VARCHAR(50)   NOT NULL,
+                name           VARCHAR(255)  NOT NULL,
+                description    VARCHAR(1000),
+                price          NUMERIC(38,2) NOT NULL,
+                stock_quantity INTEGER       NOT NULL,
+                category_id    BIGINT        NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_SQL = "COPY product_import_staging "
+            + "(line, sku, name, description, price, stock_quantity, category_id) FROM STDIN";
+
+    /*
+     * The last record wins for a repeated SKU. Existing rows are locked in product id
+     * order, the order reservations lock them in, so the merge cannot deadlock with
+     * checkout; they are updated in place, and only SKUs without an active row draw an
+     * id from products_seq. DO NOTHING covers a SKU created concurrently since.
+     * Outbox payloads match OutboxWriter's JSON for ProductChangedEvent. Every parameter
+     * is the merge timestamp, taken just before the merge rather than at transaction
+     * start so that readers syncing on updated_at see the rows soon after commit.
+     */
+    private static final String MERGE_SQL = """
+            WITH latest AS MATERIALIZED (
+                SELECT DISTINCT ON (sku) * FROM product_import_staging ORDER BY sku, line DESC
+            ), existing AS MATERIALIZED (
+                SELECT p.id, p.sku, p.category_id FROM products p JOIN latest s ON s.sku = p.sku
+                WHERE p.active = true
+                ORDER BY p.id
+                FOR UPDATE OF p
+            ), updated AS (
+                UPDATE products p SET
+                    name = s.name,
+                    description = s.description,
+                    price = s.price,
+                    stock_quantity = CASE WHEN p.hot_stock THEN p.stock_quantity ELSE s.stock_quantity END,
+                    category_id = s.category_id,
+                    version = p.version + 1,
+                    updated_at = CAST(? AS timestamp)
+                FROM existing e JOIN latest s ON s.sku = e.sku
+                WHERE p.id = e.id
+                  AND ((p.name, p.description, p.price, p.category_id) IS DISTINCT FROM
+                       (s.name, s.description, s.price, s.category_id)
+                       OR (NOT p.hot_stock AND p.stock_quantity <> s.stock_quantity))
+                RETURNING p.id, p.name, p.description, p.sku, p.category_id, e.category_id AS previous_category_id
+            ), inserted AS (
+                INSERT INTO products
+                    (id, name, description, price, stock_quantity, sku, category_id, active, created_at, updated_at)
+                SELECT nextval('products_seq'), s.name, s.description, s.price, s.stock_quantity, s.sku,
+                       s.category_id, true, CAST(? AS timestamp), CAST(? AS timestamp)
+                FROM latest s
+                WHERE NOT EXISTS (SELECT 1 FROM existing e WHERE e.sku = s.sku)
+                ON CONFLICT (sku) WHERE active = true DO NOTHING
+                RETURNING id, name, description, sku, category_id, NULL::bigint AS previous_category_id
+            ), events AS (
+                INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at)
+                SELECT 'product', c.id::text, 'product.' || lower(c.type),
+                       json_build_object('type', c.type, 'productId', c.id, 'name', c.name,
+                               'description', c.description, 'sku', c.sku, 'categoryId', c.category_id,
+                               'previousCategoryId', c.previous_category_id)::text,
+                       CAST(? AS timestamp)
+                FROM (SELECT 'CREATED' AS type, * FROM inserted
+                      UNION ALL
+                      SELECT 'UPDATED' AS type, * FROM updated) c
+            )
+            SELECT (SELECT count(*) FROM inserted) AS inserted,
+                   (SELECT count(*) FROM updated) AS updated,
+                   (SELECT count(*) FROM latest) AS distinct_skus""";
+
+    // Rows the merge updated carry its timestamp but were created before it
+    private static final String UPDATED_IDS_SQL =
+            "SELECT id FROM products WHERE updated_at = ? AND created_at < ?";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private TwoTierCache<ProductResponse> productCache;
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    private static final class Progress {
+        long read;
+        long staged;
+        long rejected;
+        final List<CatalogImportResponse.Reject> rejects = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(new CatalogImportResponse.Reject(line, reason));
+            }
+        }
+    }
+
+    private record MergeResult(long inserted, long updated, long distinct, LocalDateTime mergedAt) {
+    }
+
+    /**
+     * Imports a feed. Invalid records are rejected and reported without failing the
+     * import; a feed that cannot be parsed at all fails with IllegalArgumentException
+     * and nothing is written.
+     */
+    public CatalogImportResponse importProducts(InputStream input, CatalogFormat format) {
+        long started = System.nanoTime();
+        Map<String, Long> categories = categoryIndex();
+        Progress progress = new Progress();
+
+        MergeResult merged = new TransactionTemplate(transactionManager).execute(status -> {
+            stage(input, format, categories, progress);
+            return merge();
+        });
+        long evicted = evictUpdated(merged.mergedAt());
+        catalogVersions.bump(categories.values());
+        if (merged.inserted() + merged.updated() > 0) {
+            // A feed can move many products at once; one recount is cheaper than per-row adjustments
+            categoryStatsService.reconcile();
+            eventPublisher.publishEvent(new CatalogImportedEvent(merged.inserted(), merged.updated()));
+        }
+
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Catalog import finished in {} ms: {} read, {} inserted, {} updated, {} rejected, {} evicted",
+                durationMs, progress.read, merged.inserted(), merged.updated(), progress.rejected, evicted);
+        return CatalogImportResponse.builder()
+                .read(progress.read)
+                .staged(progress.staged)
+                .inserted(merged.inserted())
+                .updated(merged.updated())
+                .unchanged(merged.distinct() - merged.inserted() - merged.updated())
+                .duplicates(progress.staged - merged.distinct())
+                .rejected(progress.rejected)
+                .rejects(progress.rejects)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    // Lower-cased slug and name -> category id
+    private Map<String, Long> categoryIndex() {
+        Map<String, Long> index = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            index.put(category.getName().toLowerCase(Locale.ROOT), category.getId());
+            index.put(category.getSlug().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return index;
+    }
+
+    private void stage(InputStream input, CatalogFormat format, Map<String, Long> categories, Progress progress) {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copy = null;
+        try (CatalogRowReader reader = CatalogRowReader.open(format, input, objectMapper)) {
+            copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + CatalogRowReader.MAX_RECORD_CHARS * 4);
+            CatalogRow row;
+            while ((row = reader.next()) != null) {
+                progress.read++;
+                String rejection = appendRow(buffer, row, categories);
+                if (rejection != null) {
+                    progress.reject(row.line(), rejection);
+                } else {
+                    progress.staged++;
+                }
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    write(copy, buffer);
+                }
+                if (progress.read % PROGRESS_INTERVAL == 0) {
+                    log.info("Catalog import: {} records read, {} staged, {} rejected",
+                            progress.read, progress.staged, progress.rejected);
+                }
+            }
+            write(copy, buffer);
+            copy.endCopy();
+        } catch (IOException e) {
+            cancel(copy);
+            throw new UncheckedIOException("Could not read the catalog feed", e);
+        } catch (SQLException e) {
+            cancel(copy);
+            throw new IllegalStateException("Could not stage the catalog feed", e);
+        } catch (RuntimeException e) {
+            cancel(copy);
+            throw e;
+        }
+    }
+
+    private MergeResult merge() {
+        LocalDateTime mergedAt = jdbcTemplate.queryForObject("SELECT CAST(clock_timestamp() AS timestamp)",
+                LocalDateTime.class);
+        Timestamp timestamp = Timestamp.valueOf(mergedAt);
+        return jdbcTemplate.queryForObject(MERGE_SQL, (rs, rowNum) ->
+                        new MergeResult(rs.getLong("inserted"), rs.getLong("updated"), rs.getLong("distinct_skus"), mergedAt),
+                timestamp, timestamp, timestamp, timestamp);
+    }
+
+    // Streams the ids with a server-side cursor, evicting as it goes
+    private long evictUpdated(LocalDateTime mergedAt) {
+        return new TransactionTemplate(transactionManager, READ_ONLY).execute(status -> {
+            long[] evicted = {0};
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(UPDATED_IDS_SQL);
+                statement.setFetchSize(INVALIDATION_FETCH_SIZE);
+                statement.setTimestamp(1, Timestamp.valueOf(mergedAt));
+                statement.setTimestamp(2, Timestamp.valueOf(mergedAt));
+                return statement;
+            }, rs -> {
+                productCache.invalidate(String.valueOf(rs.getLong(1)));
+                evicted[0]++;
+            });
+            return evicted[0];
+        });
+    }
+
+    /**
+     * Validates the record like {@code CreateProductRequest} and appends it in COPY text
+     * format. Returns the rejection reason, or null if the record was staged.
+     */
+    private static String appendRow(StringBuilder buffer, CatalogRow row, Map<String, Long> categories) {
+        if (row.malformed() != null) {
+            return row.malformed();
+        }
+        String sku = row.sku() != null ? row.sku().trim() : null;
+        if (sku == null || !SKU.matcher(sku).matches()) {
+            return "SKU must be 3-50 uppercase letters, digits, hyphens or underscores";
+        }
+        String name = row.name() != null ? row.name().trim() : null;
+        if (name == null || name.length() < 2 || name.length() > 255) {
+            return "Name must be between 2 and 255 characters";
+        }
+        if (row.description() != null && row.description().length() > 1000) {
+            return "Description cannot exceed 1000 characters";
+        }
+        BigDecimal price;
+        int stock;
+        try {
+            price = new BigDecimal(row.price() != null ? row.price().trim() : "");
+            stock = Integer.parseInt(row.stockQuantity() != null ? row.stockQuantity().trim() : "");
+        } catch (NumberFormatException e) {
+            return "Price and stock quantity must be numbers";
+        }
+        if (price.compareTo(MIN_PRICE) < 0 || price.compareTo(MAX_PRICE) > 0 || price.scale() > 2) {
+            return "Price must be between 0.01 and 999999.99 with at most 2 decimals";
+        }
+        if (stock < 0 || stock > MAX_STOCK) {
+            return "Stock quantity must be between 0 and " + MAX_STOCK;
+        }
+        Long categoryId = row.category() != null ? categories.get(row.category().trim().toLowerCase(Locale.ROOT)) : null;
+        if (categoryId == null) {
+            return "Unknown category: " + row.category();
+        }
+
+        buffer.append(row.line()).append('\t');
+        buffer.append(sku).append('\t');
+        appendText(buffer, name).append('\t');
+        appendText(buffer, row.description()).append('\t');
+        buffer.append(price.toPlainString()).append('\t');
+        buffer.append(stock).append('\t');
+        buffer.append(categoryId).append('\n');
+        return null;
+    }
+
+    // COPY text format: backslash escapes for the delimiter, line breaks and backslash
+    private static StringBuilder appendText(StringBuilder buffer, String value) {
+        if (value == null) {
+            return buffer.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return buffer;
+    }
+
+    private static void write(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (!buffer.isEmpty()) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    private static void cancel(CopyIn copy) {
+        if (copy != null && copy.isActive()) {
+            try {
+                copy.cancelCopy();
+            } catch (SQLException e) {
+                log.debug("Could not cancel COPY", e);
+            }
+        }
+    }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+}
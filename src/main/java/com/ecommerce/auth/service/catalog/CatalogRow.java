@@ -0,0 +1,20 @@
+package com.ecommerce.auth.service.catalog;
+
+/**
+ * One product record of a feed, as raw text. {@code malformed} is set instead of the
+ * fields when the record itself could not be parsed.
+ */
+record CatalogRow(
+        long line,
+        String sku,
+        String name,
+        String description,
+        String price,
+        String stockQuantity,
+        String category,
+        String malformed) {
+
+    static CatalogRow malformed(long line, String reason) {
+        return new CatalogRow(line, null, null, null, null, null, null, reason);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pulls one record at a time from a feed, so memory use does not depend on its size.
+ */
+interface CatalogRowReader extends Closeable {
+
+    // Longest field or line accepted; longer records are rejected, not buffered
+    int MAX_RECORD_CHARS = 16 * 1024;
+
+    // Next record, or null at the end of the feed
+    CatalogRow next() throws IOException;
+
+    static CatalogRowReader open(CatalogFormat format, InputStream input, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        return switch (format) {
+            case CSV -> new CsvCatalogRowReader(reader);
+            case NDJSON -> new NdjsonCatalogRowReader(reader, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes products one at a time in a {@link CatalogFormat}, straight from column values
+ * so no per-row objects are built. {@link #close} flushes but leaves the stream open.
+ */
+public interface CatalogRowWriter extends Closeable {
+
+    void write(long id, String sku, String name, String description, BigDecimal price,
+               int stockQuantity, String category) throws IOException;
+
+    static CatalogRowWriter open(CatalogFormat format, OutputStream out, JsonFactory jsonFactory) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out);
+            case NDJSON -> new Ndjson(out, jsonFactory);
+        };
+    }
+
+    final class Ndjson implements CatalogRowWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, JsonFactory jsonFactory) throws IOException {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(long id, String sku, String name, String description, BigDecimal price,
+                          int stockQuantity, String category) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", id);
+            generator.writeStringField("sku", sku);
+            generator.writeStringField("name", name);
+            if (description != null) {
+                generator.writeStringField("description", description);
+            }
+            generator.writeNumberField("price", price);
+            generator.writeNumberField("stockQuantity", stockQuantity);
+            if (category != null) {
+                generator.writeStringField("category", category);
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeRaw('\n');
+            generator.close();
+        }
+    }
+
+    final class Csv implements CatalogRowWriter {
+
+        private final Writer writer;
+        // Each row is assembled here and handed to the writer in one call
+        private final StringBuilder line = new StringBuilder(256);
+        private char[] chars = new char[256];
+
+        Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write("id,sku,name,description,price,stockQuantity,category\n");
+        }
+
+        @Override
+        public void write(long id, String sku, String name, String description, BigDecimal price,
+                          int stockQuantity, String category) throws IOException {
+            line.setLength(0);
+            line.append(id).append(',');
+            field(sku).append(',');
+            field(name).append(',');
+            field(description).append(',');
+            line.append(price.toPlainString()).append(',');
+            line.append(stockQuantity).append(',');
+            field(category).append('\n');
+
+            if (chars.length < line.length()) {
+                chars = new char[line.length() * 2];
+            }
+            line.getChars(0, line.length(), chars, 0);
+            writer.write(chars, 0, line.length());
+        }
+
+        // Quotes only fields that need it, doubling embedded quotes
+        private StringBuilder field(String value) {
+            if (value == null) {
+                return line;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                return line.append(value);
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            return line.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.ecommerce.auth.service.catalog;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable columnar copy of the active catalog for filter and sort queries.
+ * <p>
+ * Rows are in id order and every column is a primitive array: prices are scaled to
+ * cents, category ids are replaced by ordinals into a small category table. Each
+ * sortable field has a presorted permutation of row numbers (ties in id order), so
+ * a page is a walk over one permutation that skips rows missing from the filter
+ * bitset. Category filters are built from per-category row lists, so they cost
+ * the matching rows rather than a catalog scan. For large catalogs the
+ * permutations are sorted in parallel, one fork/join task per field.
+ * <p>
+ * Name order is left to the database: its collation does not match any Java
+ * ordering of the same strings, so a snapshot page would disagree with the
+ * database page it replaces.
+ */
+public final class CatalogSnapshot {
+
+    // Below this many rows sorting the permutations one after another is cheaper than forking
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    public enum SortField {
+        ID("id"), PRICE("price"), STOCK_QUANTITY("stockQuantity"), CREATED_AT("createdAt");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        /** The field for a product property name, or null if the snapshot cannot sort on it. */
+        public static SortField of(String property) {
+            for (SortField field : values()) {
+                if (field.property.equals(property)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Product ids of one page and the number of rows matching the filter. */
+    public record Slice(long[] productIds, long total) {
+    }
+
+    private final long version;
+    private final Instant builtAt;
+    private final int size;
+    private final long[] ids;
+    private final long[] priceCents;
+    private final int[] stock;
+    private final long[] createdAt;
+    private final String[] lowerCaseCategoryNames;
+    // Rows grouped by category ordinal; ordinal c owns [categoryStarts[c + 1], categoryStarts[c + 2])
+    private final int[] rowsByCategory;
+    private final int[] categoryStarts;
+    private final int[][] permutations;
+
+    /**
+     * Takes ownership of the column arrays, which must hold {@code size} rows in id
+     * order. Category ordinals index {@code categoryNames}, -1 for no category.
+     */
+    public CatalogSnapshot(long version, Instant builtAt, int size, long[] ids, long[] priceCents, int[] stock,
+                           long[] createdAt, int[] categoryOrdinals, String[] categoryNames) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.size = size;
+        this.ids = ids;
+        this.priceCents = priceCents;
+        this.stock = stock;
+        this.createdAt = createdAt;
+        this.lowerCaseCategoryNames = new String[categoryNames.length];
+        for (int i = 0; i < categoryNames.length; i++) {
+            lowerCaseCategoryNames[i] = categoryNames[i].toLowerCase(Locale.ROOT);
+        }
+
+        // Counting sort on ordinal + 1, so products without a category land in slot 0
+        this.categoryStarts = new int[categoryNames.length + 2];
+        for (int row = 0; row < size; row++) {
+            categoryStarts[categoryOrdinals[row] + 2]++;
+        }
+        for (int slot = 1; slot < categoryStarts.length; slot++) {
+            categoryStarts[slot] += categoryStarts[slot - 1];
+        }
+        this.rowsByCategory = new int[size];
+        int[] next = Arrays.copyOf(categoryStarts, categoryStarts.length);
+        for (int row = 0; row < size; row++) {
+            rowsByCategory[next[categoryOrdinals[row] + 1]++] = row;
+        }
+
+        SortField[] fields = SortField.values();
+        this.permutations = new int[fields.length][];
+        IntStream sorts = IntStream.range(0, fields.length);
+        if (size >= PARALLEL_THRESHOLD) {
+            sorts = sorts.parallel();
+        }
+        sorts.forEach(f -> permutations[f] = switch (fields[f]) {
+            case ID -> IntStream.range(0, size).toArray();
+            case PRICE -> sortedRows(size, (a, b) -> Long.compare(priceCents[a], priceCents[b]));
+            case STOCK_QUANTITY -> sortedRows(size, (a, b) -> Integer.compare(stock[a], stock[b]));
+            case CREATED_AT -> sortedRows(size, (a, b) -> Long.compare(createdAt[a], createdAt[b]));
+        });
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Rows whose category name contains the already lower-cased filter, as the database listing matches it. */
+    public BitSet rowsInCategoriesNamed(String lowerCaseFilter) {
+        BitSet rows = new BitSet(size);
+        for (int c = 0; c < lowerCaseCategoryNames.length; c++) {
+            if (lowerCaseCategoryNames[c].contains(lowerCaseFilter)) {
+                for (int i = categoryStarts[c + 1]; i < categoryStarts[c + 2]; i++) {
+                    rows.set(rowsByCategory[i]);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * One page in the given order. A null filter selects every row. Rows that tie
+     * on the sort field come in id order, reversed for descending sorts.
+     */
+    public Slice page(BitSet rows, SortField field, boolean descending, long offset, int limit) {
+        int[] order = permutations[field.ordinal()];
+        long total = rows == null ? size : rows.cardinality();
+        int count = (int) Math.max(0, Math.min(limit, total - offset));
+        long[] page = new long[count];
+        if (count == 0) {
+            return new Slice(page, total);
+        }
+        if (rows == null) {
+            for (int i = 0; i < count; i++) {
+                int position = (int) offset + i;
+                page[i] = ids[order[descending ? size - 1 - position : position]];
+            }
+            return new Slice(page, total);
+        }
+        long skipped = 0;
+        int filled = 0;
+        for (int i = 0; i < size && filled < count; i++) {
+            int row = order[descending ? size - 1 - i : i];
+            if (rows.get(row) && skipped++ >= offset) {
+                page[filled++] = ids[row];
+            }
+        }
+        return new Slice(page, total);
+    }
+
+    /** Approximate heap retained by the columns and permutations. */
+    public long estimatedMemoryBytes() {
+        long perRow = 8 + 8 + 4 + 8 + 4 + 4L * permutations.length;
+        return perRow * size;
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    // Stable merge sort of row numbers, so rows with equal keys stay in id order
+    private static int[] sortedRows(int size, RowComparator comparator) {
+        int[] rows = IntStream.range(0, size).toArray();
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int from = 0; from < size - width; from += width << 1) {
+                int mid = from + width;
+                int to = Math.min(from + (width << 1), size);
+                if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+                    continue; // already in order
+                }
+                int left = from;
+                int right = mid;
+                int out = from;
+                while (left < mid && right < to) {
+                    buffer[out++] = comparator.compare(rows[left], rows[right]) <= 0 ? rows[left++] : rows[right++];
+                }
+                while (left < mid) {
+                    buffer[out++] = rows[left++];
+                }
+                while (right < to) {
+                    buffer[out++] = rows[right++];
+                }
+                System.arraycopy(buffer, from, rows, from, to - from);
+            }
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.dto.response.PageResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Optional read engine that serves catalog listings without search terms from a
+ * {@link CatalogSnapshot}. The snapshot is rebuilt in the background when products
+ * changed and at least every max age, since stock moves without a product event;
+ * a rebuild is swapped in whole, so a page always comes from one snapshot. Pages
+ * carry the snapshot version and build time so callers can judge their staleness.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.catalog.snapshot", name = "enabled", havingValue = "true")
+public class CatalogSnapshotEngine implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotEngine.class);
+
+    private static final String CATEGORIES_SQL = "SELECT id, name FROM categories";
+    private static final String PRODUCTS_SQL = """
+            SELECT p.id, (p.price * 100)::bigint, p.stock_quantity, p.created_at, p.category_id
+            FROM products p
+            WHERE p.active = true
+            ORDER BY p.id""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.catalog.snapshot.fetch-size:5000}")
+    private int fetchSize;
+    @Value("${app.catalog.snapshot.max-age:PT1M}")
+    private Duration maxAge;
+
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean stale;
+
+    /**
+     * A listing page from the snapshot, or null when the snapshot is not loaded yet
+     * or cannot sort on the requested field; the caller then queries the database.
+     */
+    public PageResponse<ProductResponse> page(int page, int size, String sortBy, String sortDir, String category,
+                                              Function<Collection<Long>, Map<Long, ProductResponse>> productLoader) {
+        CatalogSnapshot current = snapshot;
+        CatalogSnapshot.SortField field = CatalogSnapshot.SortField.of(sortBy);
+        if (current == null || field == null) {
+            return null;
+        }
+        BitSet rows = category == null ? null : current.rowsInCategoriesNamed(category.toLowerCase(Locale.ROOT));
+        CatalogSnapshot.Slice slice = current.page(rows, field, sortDir.equalsIgnoreCase("desc"),
+                (long) page * size, size);
+
+        List<Long> ids = Arrays.stream(slice.productIds()).boxed().toList();
+        Map<Long, ProductResponse> products = productLoader.apply(ids);
+        // Products deleted since the snapshot was built drop out of the page
+        List<ProductResponse> content = ids.stream().map(products::get).filter(Objects::nonNull).toList();
+        int totalPages = (int) ((slice.total() + size - 1) / size);
+        return PageResponse.<ProductResponse>builder()
+                .content(content)
+                .pageNumber(page)
+                .pageSize(size)
+                .totalElements(slice.total())
+                .totalPages(totalPages)
+                .last(page >= totalPages - 1)
+                .first(page == 0)
+                .numberOfElements(content.size())
+                .empty(content.isEmpty())
+                .snapshotVersion(current.version())
+                .snapshotBuiltAt(current.builtAt())
+                .build();
+    }
+
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        stale = false;
+        long started = System.nanoTime();
+        Instant builtAt = Instant.now();
+        CatalogSnapshot previous = snapshot;
+        CatalogSnapshot built = new TransactionTemplate(transactionManager, READ_ONLY).execute(status -> load(
+                previous == null ? 1 : previous.version() + 1,
+                builtAt,
+                previous == null ? 1024 : previous.size()));
+        snapshot = built;
+        log.info("Catalog snapshot v{} built with {} products, ~{} KB in {} ms", built.version(), built.size(),
+                built.estimatedMemoryBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stale = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.refresh-interval-ms:5000}")
+    public void rebuildIfStale() {
+        CatalogSnapshot current = snapshot;
+        if (current != null && (stale || current.builtAt().plus(maxAge).isBefore(Instant.now()))) {
+            rebuild();
+        }
+    }
+
+    private CatalogSnapshot load(long version, Instant builtAt, int expectedSize) {
+        Map<Long, Integer> categoryOrdinals = new HashMap<>();
+        List<String> categoryNames = jdbcTemplate.query(CATEGORIES_SQL, (rs, i) -> {
+            categoryOrdinals.put(rs.getLong(1), i);
+            return rs.getString(2);
+        });
+
+        Columns columns = new Columns(Math.max(16, expectedSize));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(PRODUCTS_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            long categoryId = rs.getLong(5);
+            Integer ordinal = rs.wasNull() ? null : categoryOrdinals.get(categoryId);
+            columns.add(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getTimestamp(4).getTime(),
+                    ordinal == null ? -1 : ordinal);
+        });
+        return columns.toSnapshot(version, builtAt, categoryNames.toArray(String[]::new));
+    }
+
+    // Growable columns for the load; trimmed when the snapshot is created
+    private static final class Columns {
+        private int size;
+        private long[] ids;
+        private long[] priceCents;
+        private int[] stock;
+        private long[] createdAt;
+        private int[] categoryOrdinals;
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            priceCents = new long[capacity];
+            stock = new int[capacity];
+            createdAt = new long[capacity];
+            categoryOrdinals = new int[capacity];
+        }
+
+        void add(long id, long cents, int quantity, long created, int categoryOrdinal) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                stock = Arrays.copyOf(stock, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                categoryOrdinals = Arrays.copyOf(categoryOrdinals, capacity);
+            }
+            ids[size] = id;
+            priceCents[size] = cents;
+            stock[size] = quantity;
+            createdAt[size] = created;
+            categoryOrdinals[size] = categoryOrdinal;
+            size++;
+        }
+
+        CatalogSnapshot toSnapshot(long version, Instant builtAt, String[] categoryNames) {
+            return new CatalogSnapshot(version, builtAt, size,
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(priceCents, size),
+                    Arrays.copyOf(stock, size),
+                    Arrays.copyOf(createdAt, size),
+                    Arrays.copyOf(categoryOrdinals, size),
+                    categoryNames);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.snapshot.products", this, engine -> engine.snapshot == null ? 0 : engine.snapshot.size())
+                .description("Products in the in-memory catalog snapshot")
+                .register(registry);
+        Gauge.builder("catalog.snapshot.memory", this,
+                        engine -> engine.snapshot == null ? 0 : engine.snapshot.estimatedMemoryBytes())
+                .description("Estimated heap retained by the in-memory catalog snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("catalog.snapshot.age", this, engine -> engine.snapshot == null ? 0
+                        : Duration.between(engine.snapshot.builtAt(), Instant.now()).toMillis() / 1000.0)
+                .description("Time since the catalog snapshot in use was built")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        // Both queries must see the same catalog
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return definition;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.auth.service.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV: comma separated, fields optionally quoted, {@code ""} inside quotes is a
+ * literal quote and quoted fields may span lines. The header row maps columns to fields
+ * by name, case-insensitively; {@code stock_quantity} is accepted for stockQuantity.
+ */
+class CsvCatalogRowReader implements CatalogRowReader {
+
+    private static final int EOF = -1;
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private boolean tooLong;
+
+    CsvCatalogRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV feed has no header row");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        for (String required : List.of("sku", "name", "price", "stockquantity", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column " + required);
+            }
+        }
+    }
+
+    @Override
+    public CatalogRow next() throws IOException {
+        List<String> record;
+        long start;
+        do {
+            start = line;
+            record = readRecord();
+        } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+        if (record == null) {
+            return null;
+        }
+        if (tooLong) {
+            return CatalogRow.malformed(start, "Field exceeds " + MAX_RECORD_CHARS + " characters");
+        }
+        if (record.size() != columns.size()) {
+            return CatalogRow.malformed(start, "Expected " + columns.size() + " fields but found " + record.size());
+        }
+        return new CatalogRow(start, get(record, "sku"), get(record, "name"), get(record, "description"),
+                get(record, "price"), get(record, "stockquantity"), get(record, "category"), null);
+    }
+
+    private String get(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Fields of the next record, or null at the end of input
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == EOF) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        tooLong = false;
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting before line " + line);
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == EOF) {
+                if (c == '\n') {
+                    line++;
+                }
+                record.add(field.toString());
+                return record;
+            } else if (c != '\r') {
+                append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void append(char c) {
+        if (field.length() < MAX_RECORD_CHARS) {
+            field.append(c);
+        } else {
+            tooLong = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+class NdjsonCatalogRowReader implements CatalogRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    NdjsonCatalogRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CatalogRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        if (text.length() > MAX_RECORD_CHARS) {
+            return CatalogRow.malformed(line, "Line exceeds " + MAX_RECORD_CHARS + " characters");
+        }
+        try {
+            JsonNode node = objectMapper.readTree(text);
+            if (!node.isObject()) {
+                return CatalogRow.malformed(line, "Line is not a JSON object");
+            }
+            return new CatalogRow(line, text(node, "sku"), text(node, "name"), text(node, "description"),
+                    text(node, "price"), text(node, "stockQuantity"), text(node, "category"), null);
+        } catch (JsonProcessingException e) {
+            return CatalogRow.malformed(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
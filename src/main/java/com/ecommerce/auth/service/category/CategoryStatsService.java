@@ -0,0 +1,191 @@
+package com.ecommerce.auth.service.category;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@code category_stats}: active products per category, directly and
+ * including subcategories, so category navigation never counts {@code products}.
+ * <p>
+ * Product writes adjust the counts of the affected categories and all their
+ * ancestors in the writing transaction. A scheduled reconciliation recounts from
+ * {@code products} and corrects rows that drifted, e.g. after a category moved or
+ * rows were changed outside {@code ProductService}.
+ */
+@Service
+public class CategoryStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryStatsService.class);
+
+    // Rows are upserted in id order so concurrent adjustments lock shared ancestors in the same order
+    private static final String ADJUST_SQL = """
+            INSERT INTO category_stats AS s (category_id, product_count, subtree_product_count, updated_at)
+            SELECT d.category_id, d.products, d.subtree, LOCALTIMESTAMP
+            FROM (VALUES %s) AS d (category_id, products, subtree)
+            JOIN categories c ON c.id = d.category_id
+            ORDER BY d.category_id
+            ON CONFLICT (category_id) DO UPDATE SET
+                product_count = s.product_count + EXCLUDED.product_count,
+                subtree_product_count = s.subtree_product_count + EXCLUDED.subtree_product_count,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    // Actual and stored counts come from one statement, so they describe the same snapshot
+    private static final String RECOUNT_SQL = """
+            SELECT c.id, c.parent_id, c.name, c.slug, c.sort_order, c.active,
+                   COALESCE(p.products, 0) AS products,
+                   s.product_count AS stored_products, s.subtree_product_count AS stored_subtree
+            FROM categories c
+            LEFT JOIN (SELECT category_id, count(*) AS products
+                       FROM products WHERE active = true GROUP BY category_id) p ON p.category_id = c.id
+            LEFT JOIN category_stats s ON s.category_id = c.id
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO category_stats (category_id, product_count, subtree_product_count, updated_at)
+            VALUES (?, ?, ?, LOCALTIMESTAMP)
+            ON CONFLICT (category_id) DO NOTHING
+            """;
+
+    // Skips rows a concurrent adjustment touched after the recount; the next run revisits them
+    private static final String CORRECT_SQL = """
+            UPDATE category_stats
+            SET product_count = ?, subtree_product_count = ?, updated_at = LOCALTIMESTAMP
+            WHERE category_id = ? AND product_count = ? AND subtree_product_count = ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter corrected;
+
+    private record Stored(Long products, Long subtree) {
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        this.corrected = Counter.builder("catalog.category.stats.corrected")
+                .description("category_stats rows corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Moves one active product from {@code fromCategoryId} to {@code toCategoryId};
+     * either may be null for a product that appears or disappears.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMove(Long fromCategoryId, Long toCategoryId) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) {
+            return;
+        }
+        CategoryTree tree = categoryTreeCache.current();
+        Map<Long, long[]> deltas = new TreeMap<>();
+        if (fromCategoryId != null) {
+            addDelta(deltas, tree, fromCategoryId, -1);
+        }
+        if (toCategoryId != null) {
+            addDelta(deltas, tree, toCategoryId, 1);
+        }
+        // Shared ancestors of a move net out to zero
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        StringJoiner values = new StringJoiner(", ");
+        List<Object> args = new ArrayList<>(deltas.size() * 3);
+        deltas.forEach((categoryId, delta) -> {
+            values.add("(?, ?, ?)");
+            args.add(categoryId);
+            args.add(delta[0]);
+            args.add(delta[1]);
+        });
+        jdbcTemplate.update(ADJUST_SQL.formatted(values), args.toArray());
+    }
+
+    private static void addDelta(Map<Long, long[]> deltas, CategoryTree tree, long categoryId, int delta) {
+        deltas.computeIfAbsent(categoryId, id -> new long[2])[0] += delta;
+        deltas.get(categoryId)[1] += delta;
+        for (Long ancestorId : tree.ancestorIds(categoryId)) {
+            deltas.computeIfAbsent(ancestorId, id -> new long[2])[1] += delta;
+        }
+    }
+
+    /** Recounts every category and corrects drifted rows. Returns the number of rows corrected. */
+    @Scheduled(fixedDelayString = "${app.catalog.category-stats.reconcile-interval-ms:600000}")
+    public int reconcile() {
+        long started = System.nanoTime();
+        Map<Long, Stored> stored = new TreeMap<>();
+        List<CategoryTree.Node> nodes = jdbcTemplate.query(RECOUNT_SQL, (rs, i) -> {
+            long id = rs.getLong("id");
+            stored.put(id, new Stored(
+                    rs.getObject("stored_products", Long.class),
+                    rs.getObject("stored_subtree", Long.class)));
+            return new CategoryTree.Node(
+                    id,
+                    rs.getObject("parent_id", Long.class),
+                    rs.getString("name"),
+                    rs.getString("slug"),
+                    rs.getInt("sort_order"),
+                    rs.getBoolean("active"),
+                    rs.getLong("products"));
+        });
+        CategoryTree actual = CategoryTree.build(nodes, 0);
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> corrections = new ArrayList<>();
+        stored.forEach((id, row) -> {
+            if (!actual.contains(id)) {
+                return; // caught in a parent cycle, no meaningful subtree
+            }
+            long products = actual.productCount(id);
+            long subtree = actual.subtreeProductCount(id);
+            if (row.products() == null) {
+                inserts.add(new Object[]{id, products, subtree});
+            } else if (row.products() != products || row.subtree() != subtree) {
+                corrections.add(new Object[]{products, subtree, id, row.products(), row.subtree()});
+            }
+        });
+        int fixed = batch(INSERT_SQL, inserts) + batch(CORRECT_SQL, corrections);
+
+        if (fixed > 0) {
+            corrected.increment(fixed);
+            categoryTreeCache.markStale();
+            log.info("Category stats reconciliation corrected {} of {} categories in {} ms",
+                    fixed, nodes.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+        return fixed;
+    }
+
+    private int batch(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, rows)) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.ecommerce.auth.service.category;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the category hierarchy.
+ * <p>
+ * Categories are numbered in pre-order (siblings by sort order, then id), so every
+ * subtree occupies the contiguous range {@code [position, end)}. Depth, parent,
+ * ancestry and subtree membership are array lookups; product counts are
+ * precomputed for each category and for its subtree. Unknown ids behave like an
+ * empty subtree: depth -1, no parent, no ancestors and zero products.
+ */
+public final class CategoryTree {
+
+    public static final CategoryTree EMPTY = build(List.of(), 0);
+
+    /** One category row as loaded from the database. */
+    public record Node(long id, Long parentId, String name, String slug, int sortOrder, boolean active,
+                       long productCount) {
+    }
+
+    private record Visit(Node node, int parent, int depth) {
+    }
+
+    private final long version;
+    private final long[] ids;
+    private final int[] parents;
+    private final int[] depths;
+    private final int[] ends;
+    private final String[] names;
+    private final String[] lowerCaseNames;
+    private final String[] slugs;
+    private final boolean[] active;
+    private final long[] productCounts;
+    private final long[] subtreeProductCounts;
+    private final Map<Long, Integer> positions;
+
+    private CategoryTree(long version, int size) {
+        this.version = version;
+        this.ids = new long[size];
+        this.parents = new int[size];
+        this.depths = new int[size];
+        this.ends = new int[size];
+        this.names = new String[size];
+        this.lowerCaseNames = new String[size];
+        this.slugs = new String[size];
+        this.active = new boolean[size];
+        this.productCounts = new long[size];
+        this.subtreeProductCounts = new long[size];
+        this.positions = new HashMap<>(Math.max(16, size * 2));
+    }
+
+    /**
+     * Builds a tree from flat rows. Rows whose parent is missing become roots; rows
+     * caught in a parent cycle are unreachable from any root and are left out.
+     */
+    public static CategoryTree build(Collection<Node> nodes, long version) {
+        Map<Long, List<Node>> children = new HashMap<>();
+        Map<Long, Node> byId = new HashMap<>();
+        for (Node node : nodes) {
+            byId.put(node.id(), node);
+        }
+        List<Node> roots = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.parentId() == null || !byId.containsKey(node.parentId())) {
+                roots.add(node);
+            } else {
+                children.computeIfAbsent(node.parentId(), id -> new ArrayList<>()).add(node);
+            }
+        }
+        Comparator<Node> siblingOrder = Comparator.comparingInt(Node::sortOrder).thenComparingLong(Node::id);
+        roots.sort(siblingOrder);
+        children.values().forEach(list -> list.sort(siblingOrder));
+
+        // Iterative pre-order walk, so deep trees cannot overflow the stack
+        List<Node> ordered = new ArrayList<>(nodes.size());
+        int[] parentOf = new int[nodes.size()];
+        int[] depthOf = new int[nodes.size()];
+        Deque<Visit> stack = new ArrayDeque<>();
+        for (int r = roots.size() - 1; r >= 0; r--) {
+            stack.push(new Visit(roots.get(r), -1, 0));
+        }
+        while (!stack.isEmpty()) {
+            Visit visit = stack.pop();
+            int position = ordered.size();
+            ordered.add(visit.node());
+            parentOf[position] = visit.parent();
+            depthOf[position] = visit.depth();
+            List<Node> kids = children.getOrDefault(visit.node().id(), List.of());
+            for (int k = kids.size() - 1; k >= 0; k--) {
+                stack.push(new Visit(kids.get(k), position, visit.depth() + 1));
+            }
+        }
+
+        CategoryTree tree = new CategoryTree(version, ordered.size());
+        for (int p = 0; p < ordered.size(); p++) {
+            Node node = ordered.get(p);
+            tree.ids[p] = node.id();
+            tree.parents[p] = parentOf[p];
+            tree.depths[p] = depthOf[p];
+            tree.ends[p] = p + 1;
+            tree.names[p] = node.name();
+            tree.lowerCaseNames[p] = node.name().toLowerCase(Locale.ROOT);
+            tree.slugs[p] = node.slug();
+            tree.active[p] = node.active();
+            tree.productCounts[p] = node.productCount();
+            tree.subtreeProductCounts[p] = node.productCount();
+            tree.positions.put(node.id(), p);
+        }
+        // Descendants always follow their ancestors, so one backwards pass rolls up ranges and counts
+        for (int p = ordered.size() - 1; p >= 0; p--) {
+            int parent = tree.parents[p];
+            if (parent >= 0) {
+                tree.ends[parent] = Math.max(tree.ends[parent], tree.ends[p]);
+                tree.subtreeProductCounts[parent] += tree.subtreeProductCounts[p];
+            }
+        }
+        return tree;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long id) {
+        return positions.containsKey(id);
+    }
+
+    /** Pre-order position of the category, or -1. */
+    public int position(long id) {
+        Integer position = positions.get(id);
+        return position == null ? -1 : position;
+    }
+
+    public int depth(long id) {
+        int p = position(id);
+        return p < 0 ? -1 : depths[p];
+    }
+
+    public Long parentId(long id) {
+        int p = position(id);
+        return p < 0 || parents[p] < 0 ? null : ids[parents[p]];
+    }
+
+    public String name(long id) {
+        int p = position(id);
+        return p < 0 ? null : names[p];
+    }
+
+    public String slug(long id) {
+        int p = position(id);
+        return p < 0 ? null : slugs[p];
+    }
+
+    public boolean isActive(long id) {
+        int p = position(id);
+        return p >= 0 && active[p];
+    }
+
+    public boolean isLeaf(long id) {
+        int p = position(id);
+        return p >= 0 && ends[p] == p + 1;
+    }
+
+    /** Ancestors from the root down, excluding the category itself. */
+    public List<Long> ancestorIds(long id) {
+        int p = position(id);
+        if (p < 0) {
+            return List.of();
+        }
+        Long[] path = new Long[depths[p]];
+        for (int parent = parents[p], i = path.length - 1; parent >= 0; parent = parents[parent], i--) {
+            path[i] = ids[parent];
+        }
+        return Arrays.asList(path);
+    }
+
+    /**
+     * The category's ancestor at the given depth, the category itself at its own
+     * depth, or null when the category is shallower or unknown.
+     */
+    public Long ancestorAtDepth(long id, int depth) {
+        int p = position(id);
+        if (p < 0 || depth < 0 || depths[p] < depth) {
+            return null;
+        }
+        while (depths[p] > depth) {
+            p = parents[p];
+        }
+        return ids[p];
+    }
+
+    /** Whether {@code id} is {@code ancestorId} or lies below it. */
+    public boolean isInSubtree(long id, long ancestorId) {
+        int p = position(id);
+        int a = position(ancestorId);
+        return p >= 0 && a >= 0 && p >= a && p < ends[a];
+    }
+
+    /** The category and all of its descendants, in pre-order. */
+    public long[] subtreeIds(long id) {
+        int p = position(id);
+        return p < 0 ? new long[0] : Arrays.copyOfRange(ids, p, ends[p]);
+    }
+
+    public List<Long> childIds(long id) {
+        int p = position(id);
+        return p < 0 ? List.of() : collectSiblings(p + 1, ends[p]);
+    }
+
+    public List<Long> rootIds() {
+        return collectSiblings(0, ids.length);
+    }
+
+    /** Active products assigned directly to the category. */
+    public long productCount(long id) {
+        int p = position(id);
+        return p < 0 ? 0 : productCounts[p];
+    }
+
+    /** Active products in the category and all of its descendants. */
+    public long subtreeProductCount(long id) {
+        int p = position(id);
+        return p < 0 ? 0 : subtreeProductCounts[p];
+    }
+
+    /** Active categories whose name contains the already lower-cased filter. */
+    public List<Long> activeIdsWithNameContaining(String lowerCaseFilter) {
+        List<Long> matches = new ArrayList<>();
+        for (int p = 0; p < ids.length; p++) {
+            if (active[p] && lowerCaseNames[p].contains(lowerCaseFilter)) {
+                matches.add(ids[p]);
+            }
+        }
+        return matches;
+    }
+
+    private List<Long> collectSiblings(int from, int to) {
+        List<Long> siblings = new ArrayList<>();
+        for (int p = from; p < to; p = ends[p]) {
+            siblings.add(ids[p]);
+        }
+        return siblings;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.auth.service.category;
+
+import com.ecommerce.auth.service.event.CategoryChangedEvent;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CategoryTree}. The whole tree is loaded with one query,
+ * product counts from {@code category_stats} rather than {@code products}, and
+ * swapped in atomically, so readers never see a half-built snapshot. Category
+ * saves rebuild it right after commit; product changes and stats corrections only
+ * mark it stale because their counts can lag by a refresh interval. The tree is
+ * also rebuilt once it reaches its maximum age, which picks up writes that bypass
+ * all of these (manual SQL).
+ */
+@Component
+public class CategoryTreeCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+    private static final String LOAD_SQL = """
+            SELECT c.id, c.parent_id, c.name, c.slug, c.sort_order, c.active,
+                   COALESCE(s.product_count, 0) AS products
+            FROM categories c
+            LEFT JOIN category_stats s ON s.category_id = c.id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog.category-tree.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    private final AtomicReference<CategoryTree> tree = new AtomicReference<>(CategoryTree.EMPTY);
+    private volatile boolean stale = true;
+    private volatile long loadedAt;
+
+    public CategoryTree current() {
+        return tree.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        // Cleared before loading, so a change committed mid-load marks the new tree stale again
+        stale = false;
+        long started = System.nanoTime();
+        List<CategoryTree.Node> nodes = jdbcTemplate.query(LOAD_SQL, (rs, i) -> new CategoryTree.Node(
+                rs.getLong("id"),
+                rs.getObject("parent_id", Long.class),
+                rs.getString("name"),
+                rs.getString("slug"),
+                rs.getInt("sort_order"),
+                rs.getBoolean("active"),
+                rs.getLong("products")));
+        CategoryTree built = CategoryTree.build(nodes, tree.get().version() + 1);
+        if (built.size() < nodes.size()) {
+            log.warn("Category tree skipped {} categories caught in a parent cycle", nodes.size() - built.size());
+        }
+        tree.set(built);
+        loadedAt = System.currentTimeMillis();
+        log.debug("Category tree v{} built from {} categories in {} ms",
+                built.version(), built.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void markStale() {
+        stale = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Updates never flip the active flag, so only a category move changes counts
+        if (event.type() != ProductChangedEvent.ChangeType.UPDATED
+                || !Objects.equals(event.categoryId(), event.previousCategoryId())) {
+            stale = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.category-tree.refresh-interval-ms:5000}")
+    public void refreshIfStale() {
+        if (stale || System.currentTimeMillis() - loadedAt >= maxAgeMs) {
+            refresh();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.category.tree.size", tree, t -> t.get().size())
+                .description("Categories in the in-memory category tree")
+                .register(registry);
+        Gauge.builder("catalog.category.tree.version", tree, t -> t.get().version())
+                .description("Version of the in-memory category tree, bumped on every rebuild")
+                .register(registry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.auth.service.event;
+
+/**
+ * Published by {@code CatalogImportService} after an import that changed products has
+ * committed. The import writes rows in bulk without a {@link ProductChangedEvent} per
+ * product, so listeners keeping derived state should rebuild it instead.
+ */
+public record CatalogImportedEvent(
+        long inserted,
+        long updated) {
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.auth.service.event;
+
+/**
+ * Published whenever a {@code Category} is saved or deleted through its repository,
+ * within the saving transaction.
+ */
+public record CategoryChangedEvent(Long categoryId) {
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.auth.service.event;
+
+import com.ecommerce.auth.model.PaymentMethod;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by the checkout pipeline once an order is priced, its stock reserved and
+ * the order confirmed; the payment hand-off consumes it after commit.
+ */
+public record OrderPlacedEvent(
+        Long orderId,
+        String orderNumber,
+        Long userId,
+        BigDecimal totalAmount,
+        PaymentMethod paymentMethod,
+        String stockReservationId) {
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.auth.service.event;
+
+import com.ecommerce.auth.model.OrderStatus;
+
+/**
+ * Registered by {@code Order} on shipping, delivery and cancellation and published
+ * when the order is saved, within the saving transaction.
+ */
+public record OrderStatusChangedEvent(
+        Long orderId,
+        String orderNumber,
+        OrderStatus previousStatus,
+        OrderStatus status) {
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.auth.service.event;
+
+/**
+ * Published by {@code ProductService} whenever a product is created, updated or
+ * soft-deleted. Listeners that keep derived state (indexes, caches, counters)
+ * should consume it after commit.
+ */
+public record ProductChangedEvent(
+        ChangeType type,
+        Long productId,
+        String name,
+        String description,
+        String sku,
+        Long categoryId,
+        Long previousCategoryId) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+}
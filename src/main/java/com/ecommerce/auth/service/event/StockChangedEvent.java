@@ -0,0 +1,12 @@
+package com.ecommerce.auth.service.event;
+
+import java.util.Set;
+
+/**
+ * Published whenever {@code products.stock_quantity} is changed by the inventory paths
+ * (reservations, releases, hot-stock mirroring) rather than through {@code ProductService}.
+ * Only stock moved, so listeners need not rebuild name or category state.
+ */
+public record StockChangedEvent(
+        Set<Long> productIds) {
+}
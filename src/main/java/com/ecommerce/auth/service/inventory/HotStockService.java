@@ -0,0 +1,169 @@
+package com.ecommerce.auth.service.inventory;
+
+import com.ecommerce.auth.service.event.StockChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Optional hot-SKU mode. A promoted product's stock moves into {@link ShardedStockCounter}
+ * shards and the SQL reservation path stops touching its row; a reconciler mirrors the
+ * shard total back into {@code products.stock_quantity} in batches. The set of hot
+ * products is kept in Redis and cached locally, refreshed every few seconds.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.inventory.hot-stock", name = "enabled", havingValue = "true")
+public class HotStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockService.class);
+
+    static final String HOT_PRODUCTS_KEY = "stock:hot";
+
+    private static final String MIRROR_SQL =
+            "UPDATE products SET stock_quantity = ? WHERE id = ? AND hot_stock = true";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.inventory.hot-stock.shards:8}")
+    private int defaultShards;
+
+    private ShardedStockCounter counter;
+
+    // Product id -> shard count
+    private volatile Map<Long, Integer> hotProducts = Map.of();
+    private final Map<Long, Integer> lastMirrored = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        this.counter = new ShardedStockCounter(stringRedisTemplate);
+    }
+
+    public boolean isHot(Long productId) {
+        return hotProducts.containsKey(productId);
+    }
+
+    public boolean take(Long productId, int quantity) {
+        Integer shards = hotProducts.get(productId);
+        if (shards == null) {
+            return false;
+        }
+        ShardedStockCounter.Take take = counter.take(productId, shards, quantity);
+        // A demotion drained the shards mid-gather; the partial draw belongs to the row now
+        if (take.unreturned() > 0) {
+            returnToRow(productId, take.unreturned());
+        }
+        return take.taken();
+    }
+
+    // Stock released after a demotion goes back to the row
+    public void giveBack(Long productId, int quantity) {
+        Integer shards = hotProducts.get(productId);
+        if (shards == null || !counter.giveBack(productId, shards, quantity)) {
+            returnToRow(productId, quantity);
+        }
+    }
+
+    /**
+     * Moves the product's stock into Redis. Flagging the row and reading its stock is one
+     * statement, so SQL reservations either finish before it or see the flag and skip it.
+     */
+    @Transactional
+    public void promote(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "UPDATE products SET hot_stock = true WHERE id = ? AND hot_stock = false RETURNING stock_quantity",
+                Integer.class, productId);
+        if (stock.isEmpty()) {
+            if (!exists(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            return;
+        }
+        counter.seed(productId, stock.get(0), defaultShards);
+        stringRedisTemplate.opsForHash().put(HOT_PRODUCTS_KEY, productId.toString(), Integer.toString(defaultShards));
+        refreshHotProducts();
+    }
+
+    /**
+     * Returns the shard total to the row. The row lock is held while the shards are drained,
+     * so a release that finds them gone blocks until the new stock is written.
+     */
+    @Transactional
+    public void demote(Long productId) {
+        List<Long> locked = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE id = ? AND hot_stock = true FOR UPDATE", Long.class, productId);
+        Object shards = stringRedisTemplate.opsForHash().get(HOT_PRODUCTS_KEY, productId.toString());
+        if (locked.isEmpty() || shards == null) {
+            return;
+        }
+        stringRedisTemplate.opsForHash().delete(HOT_PRODUCTS_KEY, productId.toString());
+        int total = counter.drain(productId, Integer.parseInt(shards.toString()));
+        jdbcTemplate.update("UPDATE products SET stock_quantity = ?, hot_stock = false, version = version + 1 " +
+                "WHERE id = ?", total, productId);
+        lastMirrored.remove(productId);
+        refreshHotProducts();
+        eventPublisher.publishEvent(new StockChangedEvent(Set.of(productId)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot-stock.refresh-interval-ms:5000}")
+    public void refreshHotProducts() {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(HOT_PRODUCTS_KEY);
+        Map<Long, Integer> refreshed = new HashMap<>();
+        entries.forEach((id, shards) -> refreshed.put(Long.valueOf(id.toString()), Integer.valueOf(shards.toString())));
+        hotProducts = Map.copyOf(refreshed);
+    }
+
+    // Writes shard totals back to the rows, skipping products whose total has not moved
+    @Scheduled(fixedDelayString = "${app.inventory.hot-stock.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        List<Object[]> changed = new ArrayList<>();
+        hotProducts.forEach((productId, shards) -> {
+            int total = counter.total(productId, shards);
+            if (!Integer.valueOf(total).equals(lastMirrored.get(productId))) {
+                changed.add(new Object[]{total, productId});
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MIRROR_SQL, changed);
+        changed.forEach(row -> lastMirrored.put((Long) row[1], (Integer) row[0]));
+        eventPublisher.publishEvent(new StockChangedEvent(
+                changed.stream().map(row -> (Long) row[1]).collect(Collectors.toSet())));
+        log.debug("Mirrored hot stock for {} products", changed.size());
+    }
+
+    // Blocks behind a demotion holding the row lock, so the units land on top of the drained total
+    private void returnToRow(Long productId, int quantity) {
+        jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1 " +
+                "WHERE id = ?", quantity, productId);
+        eventPublisher.publishEvent(new StockChangedEvent(Set.of(productId)));
+    }
+
+    private boolean exists(Long productId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, productId);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.auth.service.inventory;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock of one product split across N Redis counters. Each Lua call touches a single
+ * shard key, and shard keys carry no hash tag, so in a cluster they spread over nodes
+ * and decrements on the same SKU no longer queue behind one key.
+ */
+public class ShardedStockCounter {
+
+    static final String KEY_PREFIX = "stock:shard:";
+
+    // Missing key means the product is not (or no longer) sharded
+    private static final RedisScript<Long> TAKE = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return -1 end " +
+            "local n = tonumber(ARGV[1]) " +
+            "if tonumber(v) < n then return 0 end " +
+            "redis.call('DECRBY', KEYS[1], n) " +
+            "return n", Long.class);
+
+    private static final RedisScript<Long> TAKE_UP_TO = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return -1 end " +
+            "local n = math.min(tonumber(v), tonumber(ARGV[1])) " +
+            "if n > 0 then redis.call('DECRBY', KEYS[1], n) end " +
+            "return n", Long.class);
+
+    private static final RedisScript<Long> PUT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+    /**
+     * Outcome of {@link #take}. {@code unreturned} counts units drawn during a failed
+     * gather that could not be put back because the shards were drained meanwhile; the
+     * caller owns them and must return them to the database.
+     */
+    public record Take(boolean taken, int unreturned) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    public ShardedStockCounter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    // Spreads total as evenly as possible; the first total % shards shards get one extra
+    public void seed(Long productId, int total, int shards) {
+        for (int i = 0; i < shards; i++) {
+            int share = total / shards + (i < total % shards ? 1 : 0);
+            redisTemplate.opsForValue().set(key(productId, i), Integer.toString(share));
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units. Usually a single shard, picked at random, covers it;
+     * when stock is fragmented the remainder is gathered shard by shard and handed back
+     * if the total still falls short.
+     */
+    public Take take(Long productId, int shards, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            Long taken = redisTemplate.execute(TAKE, List.of(key(productId, (start + i) % shards)),
+                    Integer.toString(quantity));
+            if (taken != null && taken > 0) {
+                return new Take(true, 0);
+            }
+        }
+
+        int gathered = 0;
+        List<int[]> draws = new ArrayList<>();
+        for (int i = 0; i < shards && gathered < quantity; i++) {
+            int shard = (start + i) % shards;
+            Long taken = redisTemplate.execute(TAKE_UP_TO, List.of(key(productId, shard)),
+                    Integer.toString(quantity - gathered));
+            if (taken != null && taken > 0) {
+                gathered += taken.intValue();
+                draws.add(new int[]{shard, taken.intValue()});
+            }
+        }
+        if (gathered == quantity) {
+            return new Take(true, 0);
+        }
+        int unreturned = 0;
+        for (int[] draw : draws) {
+            Long result = redisTemplate.execute(PUT, List.of(key(productId, draw[0])), Integer.toString(draw[1]));
+            if (result == null || result < 0) {
+                unreturned += draw[1];
+            }
+        }
+        return new Take(false, unreturned);
+    }
+
+    // False when the shards are gone, so the caller can return the stock to the database instead
+    public boolean giveBack(Long productId, int shards, int quantity) {
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        Long result = redisTemplate.execute(PUT, List.of(key(productId, shard)), Integer.toString(quantity));
+        return result != null && result >= 0;
+    }
+
+    public int total(Long productId, int shards) {
+        List<String> values = redisTemplate.opsForValue().multiGet(keys(productId, shards));
+        int total = 0;
+        if (values != null) {
+            for (String value : values) {
+                if (value != null) {
+                    total += Integer.parseInt(value);
+                }
+            }
+        }
+        return total;
+    }
+
+    // Removes the shards and returns what they held
+    public int drain(Long productId, int shards) {
+        int total = 0;
+        for (String key : keys(productId, shards)) {
+            String value = redisTemplate.opsForValue().getAndDelete(key);
+            if (value != null) {
+                total += Integer.parseInt(value);
+            }
+        }
+        return total;
+    }
+
+    private static List<String> keys(Long productId, int shards) {
+        List<String> keys = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            keys.add(key(productId, i));
+        }
+        return keys;
+    }
+
+    private static String key(Long productId, int shard) {
+        return KEY_PREFIX + productId + ":" + shard;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.auth.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and per-request I/O for the hot service paths. A {@link Sample} times one
+ * call and is recorded with the tags set on it while it ran, such as the query shape
+ * and cache outcome, so each branch of a method gets its own histogram. Alongside the
+ * timer it records how many JDBC statements and Redis round trips the call made on
+ * its thread, counted by {@link StatementCountingDataSource} and
+ * {@link #countRedisRoundTrip()}. Samples nest: an outer call includes the I/O of
+ * the calls it makes.
+ */
+@Component
+public class RequestMetrics {
+
+    private static final int STATEMENTS = 0;
+    private static final int REDIS_ROUND_TRIPS = 1;
+
+    // Running totals per thread; a sample records the difference between its start and stop
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static void countStatement() {
+        COUNTS.get()[STATEMENTS]++;
+    }
+
+    public static void countRedisRoundTrip() {
+        COUNTS.get()[REDIS_ROUND_TRIPS]++;
+    }
+
+    /** Starts timing a call; close the sample, typically with try-with-resources, to record it. */
+    public Sample start(String name) {
+        long[] counts = COUNTS.get();
+        return new Sample(name, counts[STATEMENTS], counts[REDIS_ROUND_TRIPS]);
+    }
+
+    public final class Sample implements AutoCloseable {
+
+        private final String name;
+        private final long startedAt = System.nanoTime();
+        private final long statementsAtStart;
+        private final long redisRoundTripsAtStart;
+        private final Map<String, String> tags = new LinkedHashMap<>(4);
+
+        private Sample(String name, long statementsAtStart, long redisRoundTripsAtStart) {
+            this.name = name;
+            this.statementsAtStart = statementsAtStart;
+            this.redisRoundTripsAtStart = redisRoundTripsAtStart;
+        }
+
+        /**
+         * Sets a tag, replacing an earlier value for the key. Every exit of a call must
+         * record the same tag keys, so set defaults when the sample starts.
+         */
+        public Sample tag(String key, String value) {
+            tags.put(key, value);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startedAt;
+            long[] counts = COUNTS.get();
+            Tags recorded = Tags.empty();
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                recorded = recorded.and(tag.getKey(), tag.getValue());
+            }
+            Timer.builder(name)
+                    .tags(recorded)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder(name + ".db.statements")
+                    .description("JDBC statements prepared per call")
+                    .tags(recorded)
+                    .register(meterRegistry)
+                    .record(counts[STATEMENTS] - statementsAtStart);
+            DistributionSummary.builder(name + ".redis.round.trips")
+                    .description("Redis round trips per call")
+                    .tags(recorded)
+                    .register(meterRegistry)
+                    .record(counts[REDIS_ROUND_TRIPS] - redisRoundTripsAtStart);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.auth.service.order;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Binds a client's {@code Idempotency-Key} to the order it created, in Redis. The first
+ * request claims the key with SET NX as a pending marker, briefly, and binds its order
+ * number only once the order row is committed; retries find either the marker or the
+ * bound order number, together with a fingerprint of the original request.
+ */
+@Component
+public class IdempotencyStore {
+
+    static final String KEY_PREFIX = "idempotency:order:";
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private static final RedisScript<Long> BIND = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+            "return 1 end return 0",
+            Long.class);
+
+    private static final String PENDING_PREFIX = "pending:";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.orders.idempotency-ttl:PT24H}")
+    private Duration ttl;
+
+    // Bounds how long a request that died before committing its order can block retries
+    @Value("${app.orders.idempotency-pending-ttl:PT1M}")
+    private Duration pendingTtl;
+
+    /**
+     * A pending claim carries the order number its request will use, as an owner token;
+     * it is not handed to retries until the claim is bound.
+     */
+    public record Claim(String orderNumber, String fingerprint, boolean pending) {
+
+        public static Claim pending(String orderNumber, String fingerprint) {
+            return new Claim(orderNumber, fingerprint, true);
+        }
+
+        public Claim bound() {
+            return new Claim(orderNumber, fingerprint, false);
+        }
+
+        String encode() {
+            return (pending ? PENDING_PREFIX : "") + orderNumber + ":" + fingerprint;
+        }
+
+        static Claim decode(String value) {
+            boolean pending = value.startsWith(PENDING_PREFIX);
+            int start = pending ? PENDING_PREFIX.length() : 0;
+            int separator = value.lastIndexOf(':');
+            return new Claim(value.substring(start, separator), value.substring(separator + 1), pending);
+        }
+    }
+
+    /**
+     * Claims {@code key} with a pending {@code claim}. Returns null if this call won,
+     * otherwise the claim an earlier request made.
+     */
+    public Claim claim(Long userId, String key, Claim claim) {
+        String redisKey = key(userId, key);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(redisKey, claim.encode(), pendingTtl))) {
+                return null;
+            }
+            String existing = stringRedisTemplate.opsForValue().get(redisKey);
+            if (existing != null) {
+                return Claim.decode(existing);
+            }
+            // Expired between SET NX and GET; try once more
+        }
+        throw new IllegalStateException("Could not claim idempotency key " + key);
+    }
+
+    /**
+     * Replaces the pending {@code claim} with its order number, for the full TTL. False
+     * when the claim is no longer the one stored, e.g. because the pending marker expired.
+     */
+    public boolean bind(Long userId, String key, Claim claim) {
+        Long bound = stringRedisTemplate.execute(BIND, List.of(key(userId, key)), claim.encode(),
+                claim.bound().encode(), Long.toString(ttl.toMillis()));
+        return bound != null && bound == 1;
+    }
+
+    // Frees the key after a request that never queued its order, so the client can retry
+    public void release(Long userId, String key, Claim claim) {
+        stringRedisTemplate.execute(RELEASE, List.of(key(userId, key)), claim.encode());
+    }
+
+    private static String key(Long userId, String key) {
+        return KEY_PREFIX + userId + ":" + key;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.auth.service.order;
+
+/**
+ * Source of order numbers. Implementations must be unique across every node writing
+ * to the {@code orders} table and safe to call from any thread.
+ */
+public interface OrderNumberGenerator {
+
+    String next();
+
+}
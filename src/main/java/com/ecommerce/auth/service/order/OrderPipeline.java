@@ -0,0 +1,223 @@
+package com.ecommerce.auth.service.order;
+
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.exception.InsufficientStockException;
+import com.ecommerce.auth.model.Order;
+import com.ecommerce.auth.model.OrderItem;
+import com.ecommerce.auth.model.OrderStatus;
+import com.ecommerce.auth.model.PaymentStatus;
+import com.ecommerce.auth.repository.OrderRepository;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.repository.projection.ProductPrice;
+import com.ecommerce.auth.service.CartService;
+import com.ecommerce.auth.service.InventoryService;
+import com.ecommerce.auth.service.ProductService;
+import com.ecommerce.auth.service.event.OrderPlacedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the stages of checkout after the order has been queued: validate, reserve stock,
+ * price, persist and hand off to payment. Each order is processed on a bounded executor
+ * under a lease held in the order row; orders whose worker died or was never scheduled
+ * are resumed by a recovery sweep once the lease has expired.
+ */
+@Component
+public class OrderPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPipeline.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("orderPipelineExecutor")
+    private TaskExecutor orderPipelineExecutor;
+
+    @Value("${app.orders.pipeline.lease:PT2M}")
+    private Duration lease;
+    @Value("${app.orders.shipping-amount:0.00}")
+    private BigDecimal shippingAmount;
+
+    // Business rejections cancel the order; anything else leaves it for the recovery sweep
+    static class OrderRejectedException extends RuntimeException {
+        OrderRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    // A saturated executor is not an error: the order stays queued and the sweep picks it up
+    public void submit(Long orderId) {
+        try {
+            orderPipelineExecutor.execute(() -> process(orderId));
+        } catch (TaskRejectedException e) {
+            log.warn("Checkout pipeline saturated, order {} left for recovery", orderId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.pipeline.recovery-interval-ms:30000}")
+    public void resumeStalledOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> stalled = orderRepository.findStalledPendingIds(now.minusSeconds(10), now, Limit.of(100));
+        stalled.forEach(this::submit);
+        if (!stalled.isEmpty()) {
+            log.info("Resubmitted {} stalled orders to the checkout pipeline", stalled.size());
+        }
+    }
+
+    void process(Long orderId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = tx.execute(status -> orderRepository.claimForPipeline(orderId, now, now.plus(lease)));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        Order queued = tx.execute(status -> orderRepository.findWithItemsById(orderId).orElse(null));
+        if (queued == null) {
+            return;
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : queued.getOrderItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        Long userId = queued.getUser().getId();
+
+        String reservationId = null;
+        try {
+            validate(quantities);
+            reservationId = reserve(quantities);
+            String heldReservation = reservationId;
+            tx.executeWithoutResult(status -> persist(orderId, heldReservation));
+        } catch (OrderRejectedException | InsufficientStockException e) {
+            reject(orderId, reservationId, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            if (reservationId != null) {
+                inventoryService.release(reservationId);
+            }
+            log.warn("Checkout of order {} failed, will retry after the lease expires", orderId, e);
+            return;
+        }
+
+        // The order stands even if the cart cannot be tidied up
+        try {
+            cartService.removeProducts(userId, quantities.keySet());
+            cartService.flush(userId);
+        } catch (RuntimeException e) {
+            log.warn("Could not remove ordered items from the cart of user {}", userId, e);
+        }
+    }
+
+    // A cheap pre-check against the cache, so unavailable products are rejected before stock is held
+    private void validate(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            throw new OrderRejectedException("Order has no items");
+        }
+        Map<Long, ProductResponse> products = productService.getProductsByIds(quantities.keySet());
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new OrderRejectedException("Product is no longer available: " + productId);
+            }
+        }
+    }
+
+    private String reserve(Map<Long, Integer> quantities) {
+        return inventoryService.reserve(quantities);
+    }
+
+    /**
+     * Prices at the current catalog price and confirms order and reservation in one
+     * transaction; the payment hand-off is published with it and consumed on commit.
+     * Prices are read from the database, not the product cache, which may lag a price change.
+     */
+    private void persist(Long orderId, String reservationId) {
+        Order order = orderRepository.findWithItemsById(orderId).orElseThrow();
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new IllegalStateException("Order " + orderId + " was completed by another worker");
+        }
+        price(order);
+        inventoryService.confirm(reservationId);
+        order.setStockReservationId(reservationId);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setPaymentStatus(PaymentStatus.PROCESSING);
+        order.setPipelineLeaseUntil(null);
+        handOff(order);
+    }
+
+    private void price(Order order) {
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        List<Long> productIds = order.getOrderItems().stream()
+                .map(item -> item.getProduct().getId())
+                .distinct()
+                .toList();
+        for (ProductPrice price : productRepository.lockActivePrices(productIds)) {
+            prices.put(price.getId(), price.getPrice());
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            BigDecimal current = prices.get(item.getProduct().getId());
+            if (current == null) {
+                throw new OrderRejectedException("Product is no longer available: " + item.getProduct().getId());
+            }
+            if (item.getUnitPrice().compareTo(current) != 0) {
+                item.setUnitPrice(current);
+                item.updateQuantity(item.getQuantity());
+            }
+        }
+        order.setShippingAmount(shippingAmount);
+        order.recalculateTotal();
+    }
+
+    private void handOff(Order order) {
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId(), order.getOrderNumber(),
+                order.getUser().getId(), order.getTotalAmount(), order.getPaymentMethod(),
+                order.getStockReservationId()));
+    }
+
+    private void reject(Long orderId, String reservationId, String reason) {
+        if (reservationId != null) {
+            inventoryService.release(reservationId);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                orderRepository.findById(orderId)
+                        .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                        .ifPresent(order -> {
+                            order.cancel();
+                            order.setFailureReason(reason);
+                            order.setPipelineLeaseUntil(null);
+                            // Saved explicitly so the cancellation event is published
+                            orderRepository.save(order);
+                        }));
+        log.info("Order {} rejected: {}", orderId, reason);
+    }
+}
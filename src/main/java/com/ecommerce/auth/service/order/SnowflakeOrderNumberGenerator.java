@@ -0,0 +1,80 @@
+package com.ecommerce.auth.service.order;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2024-01-01, a 10-bit
+ * node id and a 12-bit per-millisecond sequence, written as {@code ORD-} followed by
+ * 13 Crockford base32 digits. The fixed width makes the strings sort like the ids, so
+ * order numbers are k-sortable by creation time.
+ * <p>
+ * The millisecond and sequence share one {@link AtomicLong} advanced by CAS, which
+ * keeps the generator lock-free and strictly monotonic per node: a sequence overflow
+ * borrows the next millisecond and a clock that steps back is ignored until it has
+ * caught up again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.orders", name = "number-generator", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final String PREFIX = "ORD-";
+    private static final int DIGITS = 13; // ceil(64 / 5)
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last id issued
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${app.orders.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        return encode(nextId());
+    }
+
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long stamp;
+        do {
+            previous = last.get();
+            stamp = Math.max(now, previous + 1);
+        } while (!last.compareAndSet(previous, stamp));
+        long millis = stamp >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (stamp & SEQUENCE_MASK);
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
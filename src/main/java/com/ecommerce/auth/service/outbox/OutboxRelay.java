@@ -0,0 +1,110 @@
+package com.ecommerce.auth.service.outbox;
+
+import com.ecommerce.auth.model.OutboxEvent;
+import com.ecommerce.auth.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ships outbox rows to the {@link OutboxSink}, oldest id first. Each batch is locked with
+ * {@code FOR UPDATE SKIP LOCKED}, published, and deleted in one transaction, so relays
+ * on several nodes share the backlog and a crash before commit republishes the batch
+ * instead of losing it.
+ * <p>
+ * Delivery is not ordered, not even per aggregate. Ids are taken at insert, so a
+ * transaction that commits late can leave a lower id behind rows that were already
+ * published; relays on other nodes publish their batches in parallel; and a failed
+ * batch is retried after later ones went out. Events carry no version, so a consumer
+ * that needs an aggregate's latest state should treat an event as a hint and re-read it.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OutboxSink outboxSink;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.relay.batch-size:200}")
+    private int batchSize;
+    @Value("${app.outbox.relay.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    private Counter published;
+    private Counter failures;
+    private Timer batchTimer;
+    private Timer lag;
+
+    @PostConstruct
+    void registerMeters() {
+        this.published = meterRegistry.counter("outbox.relay.published");
+        this.failures = meterRegistry.counter("outbox.relay.failures");
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Lock, publish and delete of one outbox batch")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time from an event being written to its publication")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // Drains up to maxBatchesPerRun full batches, then yields until the next tick
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:500}")
+    public void relay() {
+        int batches = 0;
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize && ++batches < maxBatchesPerRun);
+    }
+
+    int relayBatch() {
+        try {
+            Integer relayed = new TransactionTemplate(transactionManager).execute(status ->
+                    batchTimer.record(() -> {
+                        List<OutboxEvent> batch = outboxEventRepository.lockBatch(batchSize);
+                        if (batch.isEmpty()) {
+                            return 0;
+                        }
+                        outboxSink.publish(batch);
+                        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+                        recordLag(batch);
+                        return batch.size();
+                    }));
+            return relayed != null ? relayed : 0;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox relay failed, the batch will be retried", e);
+            return 0;
+        }
+    }
+
+    // createdAt is stamped at insert, so the lag includes the rest of the writing transaction
+    private void recordLag(List<OutboxEvent> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        published.increment(batch.size());
+    }
+}
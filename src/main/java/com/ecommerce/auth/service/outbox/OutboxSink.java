@@ -0,0 +1,17 @@
+package com.ecommerce.auth.service.outbox;
+
+import com.ecommerce.auth.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. {@link #publish} must either accept the whole batch
+ * or throw; the batch is retried on failure, so delivery is at least once and consumers
+ * should deduplicate on the event id. Events within a batch come in id order, but
+ * batches are not ordered against each other (see {@link OutboxRelay}).
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.auth.service.outbox;
+
+import com.ecommerce.auth.model.OutboxEvent;
+import com.ecommerce.auth.repository.OutboxEventRepository;
+import com.ecommerce.auth.service.event.OrderPlacedEvent;
+import com.ecommerce.auth.service.event.OrderStatusChangedEvent;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+
+/**
+ * Records domain events in {@code outbox_events}. The listeners run synchronously in the
+ * publisher's transaction, so an event row is committed if and only if the change it
+ * describes is; {@link OutboxRelay} ships the rows afterwards.
+ */
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductChanged(ProductChangedEvent event) {
+        append("product", event.productId(), "product." + lowerCase(event.type().name()), event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        append("order", event.orderId(), "order.placed", event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        append("order", event.orderId(), "order." + lowerCase(event.status().name()), event);
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(String.valueOf(aggregateId))
+                .eventType(eventType)
+                .payload(toJson(event))
+                .build());
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String lowerCase(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.auth.service.outbox;
+
+import com.ecommerce.auth.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends each event to the Redis Stream {@code events:<aggregateType>} with one
+ * pipelined XADD per batch. Streams are trimmed approximately to a maximum length.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "redis-stream", matchIfMissing = true)
+public class RedisStreamOutboxSink implements OutboxSink {
+
+    static final String STREAM_PREFIX = "events:";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.outbox.redis-stream.max-length:100000}")
+    private long maxLength;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        XAddOptions options = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+        // Any failed XADD fails the pipeline and so the batch
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (OutboxEvent event : events) {
+                redis.xAdd(StreamRecords.string(Map.of(
+                                "id", String.valueOf(event.getId()),
+                                "type", event.getEventType(),
+                                "aggregateId", event.getAggregateId(),
+                                "payload", event.getPayload(),
+                                "createdAt", event.getCreatedAt().toString()))
+                        .withStreamKey(STREAM_PREFIX + event.getAggregateType()), options);
+            }
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.ecommerce.auth.service.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination over products.
+ * The token carries the sort it was issued for plus the sort key and id
+ * of the last row returned, so the next page can seek straight past it
+ * instead of scanning an OFFSET.
+ */
+public final class ProductCursor {
+
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_LONG = 'L';
+    private static final byte TYPE_INT = 'I';
+    private static final byte TYPE_DECIMAL = 'D';
+    private static final byte TYPE_STRING = 'S';
+    private static final byte TYPE_DATETIME = 'T';
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Map<String, Object> keys;
+
+    private ProductCursor(String sortBy, Sort.Direction direction, Map<String, Object> keys) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.keys = keys;
+    }
+
+    public static ProductCursor of(String sortBy, Sort.Direction direction, KeysetScrollPosition position) {
+        return new ProductCursor(sortBy, direction, new LinkedHashMap<>(position.getKeys()));
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public ScrollPosition toScrollPosition() {
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(direction.isDescending());
+            out.writeByte(keys.size());
+            for (Map.Entry<String, Object> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static ProductCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            String sortBy = in.readUTF();
+            if (ProductSortKey.of(sortBy) == null) {
+                throw new IllegalArgumentException("Invalid cursor sort: " + sortBy);
+            }
+            Sort.Direction direction = in.readBoolean() ? Sort.Direction.DESC : Sort.Direction.ASC;
+            int size = in.readUnsignedByte();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                if (ProductSortKey.of(name) == null) {
+                    throw new IllegalArgumentException("Invalid cursor key: " + name);
+                }
+                keys.put(name, readValue(in));
+            }
+            return new ProductCursor(sortBy, direction, keys);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Long l) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(TYPE_INT);
+            out.writeInt(i);
+        } else if (value instanceof BigDecimal d) {
+            out.writeByte(TYPE_DECIMAL);
+            out.writeUTF(d.toPlainString());
+        } else if (value instanceof String s) {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF(s);
+        } else if (value instanceof LocalDateTime t) {
+            out.writeByte(TYPE_DATETIME);
+            out.writeUTF(t.toString());
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor value: " + value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_LONG -> in.readLong();
+            case TYPE_INT -> in.readInt();
+            case TYPE_DECIMAL -> new BigDecimal(in.readUTF());
+            case TYPE_STRING -> in.readUTF();
+            case TYPE_DATETIME -> LocalDateTime.parse(in.readUTF());
+            default -> throw new IllegalArgumentException("Unknown cursor value type: " + type);
+        };
+    }
+}
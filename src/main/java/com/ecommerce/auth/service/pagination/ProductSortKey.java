@@ -0,0 +1,65 @@
+package com.ecommerce.auth.service.pagination;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * The fields product listings may be sorted on. Each key is backed by a partial
+ * index on {@code (column, id) WHERE active = true}, so a listing page is read in
+ * index order and stops after the page instead of sorting the catalog. Ties break
+ * on id in the same direction, which keeps pages stable and matches the index.
+ */
+public enum ProductSortKey {
+
+    ID("id", "id", "idx_products_active_id"),
+    NAME("name", "name", "idx_products_active_name_id"),
+    PRICE("price", "price", "idx_products_active_price_id"),
+    STOCK_QUANTITY("stockQuantity", "stock_quantity", "idx_products_active_stock_quantity_id"),
+    CREATED_AT("createdAt", "created_at", "idx_products_active_created_at_id"),
+    UPDATED_AT("updatedAt", "updated_at", "idx_products_active_updated_at_id");
+
+    private final String property;
+    private final String column;
+    private final String indexName;
+
+    ProductSortKey(String property, String column, String indexName) {
+        this.property = property;
+        this.column = column;
+        this.indexName = indexName;
+    }
+
+    /** The key for a product property name, or null if listings cannot sort on it. */
+    public static ProductSortKey of(String property) {
+        for (ProductSortKey key : values()) {
+            if (key.property.equals(property)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    /** The index that yields rows in this key's order. */
+    public String indexName() {
+        return indexName;
+    }
+
+    /** Sort on this key with the id tiebreaker, for repository queries. */
+    public Sort sort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+
+    /** SQL ORDER BY list on this key with the id tiebreaker, for native queries. */
+    public String orderBy(String alias, boolean descending) {
+        String direction = descending ? " DESC" : " ASC";
+        String orderBy = alias + "." + column + direction;
+        return this == ID ? orderBy : orderBy + ", " + alias + ".id" + direction;
+    }
+}
@@ -0,0 +1,263 @@
+package com.ecommerce.auth.service.search;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The Snowball English (Porter2) stemmer and stop word list, which PostgreSQL's
+ * {@code english} text search configuration uses, so the in-memory index reduces
+ * words to the same lexemes as {@code to_tsvector('english', ...)}. Only plain
+ * ASCII words are stemmed; like the database, words with digits are kept as is.
+ */
+final class EnglishStemmer {
+
+    // PostgreSQL's english.stop
+    private static final Set<String> STOP_WORDS = Set.of(
+            "i", "me", "my", "myself", "we", "our", "ours", "ourselves", "you", "your", "yours", "yourself",
+            "yourselves", "he", "him", "his", "himself", "she", "her", "hers", "herself", "it", "its", "itself",
+            "they", "them", "their", "theirs", "themselves", "what", "which", "who", "whom", "this", "that",
+            "these", "those", "am", "is", "are", "was", "were", "be", "been", "being", "have", "has", "had",
+            "having", "do", "does", "did", "doing", "a", "an", "the", "and", "but", "if", "or", "because", "as",
+            "until", "while", "of", "at", "by", "for", "with", "about", "against", "between", "into", "through",
+            "during", "before", "after", "above", "below", "to", "from", "up", "down", "in", "out", "on", "off",
+            "over", "under", "again", "further", "then", "once", "here", "there", "when", "where", "why", "how",
+            "all", "any", "both", "each", "few", "more", "most", "other", "some", "such", "no", "nor", "not",
+            "only", "own", "same", "so", "than", "too", "very", "s", "t", "can", "will", "just", "don", "should",
+            "now");
+
+    private static final Map<String, String> EXCEPTIONS = Map.ofEntries(
+            Map.entry("skis", "ski"), Map.entry("skies", "sky"), Map.entry("dying", "die"),
+            Map.entry("lying", "lie"), Map.entry("tying", "tie"), Map.entry("idly", "idl"),
+            Map.entry("gently", "gentl"), Map.entry("ugly", "ugli"), Map.entry("early", "earli"),
+            Map.entry("only", "onli"), Map.entry("singly", "singl"), Map.entry("sky", "sky"),
+            Map.entry("news", "news"), Map.entry("howe", "howe"), Map.entry("atlas", "atlas"),
+            Map.entry("cosmos", "cosmos"), Map.entry("bias", "bias"), Map.entry("andes", "andes"));
+
+    private static final Set<String> EXCEPTIONS_AFTER_STEP_1A = Set.of(
+            "inning", "outing", "canning", "herring", "earring", "proceed", "exceed", "succeed");
+
+    // Longest suffix first within each step
+    private static final String[][] STEP_2 = {
+            {"ization", "ize"}, {"ational", "ate"}, {"fulness", "ful"}, {"ousness", "ous"}, {"iveness", "ive"},
+            {"tional", "tion"}, {"biliti", "ble"}, {"lessli", "less"},
+            {"entli", "ent"}, {"ation", "ate"}, {"alism", "al"}, {"aliti", "al"}, {"ousli", "ous"},
+            {"iviti", "ive"}, {"fulli", "ful"},
+            {"enci", "ence"}, {"anci", "ance"}, {"abli", "able"}, {"izer", "ize"}, {"ator", "ate"},
+            {"alli", "al"},
+            {"bli", "ble"}, {"ogi", "og"},
+            {"li", ""}};
+    private static final String[][] STEP_3 = {
+            {"ational", "ate"}, {"tional", "tion"}, {"alize", "al"}, {"icate", "ic"}, {"iciti", "ic"},
+            {"ative", ""}, {"ical", "ic"}, {"ness", ""}, {"ful", ""}};
+    private static final String[] STEP_4 = {
+            "ement", "ance", "ence", "able", "ible", "ment", "ant", "ent", "ism", "ate", "iti", "ous", "ive",
+            "ize", "ion", "al", "er", "ic"};
+
+    private EnglishStemmer() {
+    }
+
+    static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+
+    /** Stems a lower-case word; words that are not plain ASCII letters come back unchanged. */
+    static String stem(String word) {
+        if (word.length() <= 2 || !isAsciiWord(word)) {
+            return word;
+        }
+        String exception = EXCEPTIONS.get(word);
+        if (exception != null) {
+            return exception;
+        }
+
+        StringBuilder w = new StringBuilder(word);
+        // A y that acts as a consonant is marked Y so it does not count as a vowel
+        if (w.charAt(0) == 'y') {
+            w.setCharAt(0, 'Y');
+        }
+        for (int i = 1; i < w.length(); i++) {
+            if (w.charAt(i) == 'y' && isVowel(w.charAt(i - 1))) {
+                w.setCharAt(i, 'Y');
+            }
+        }
+        int r1 = word.startsWith("gener") || word.startsWith("arsen") ? 5
+                : word.startsWith("commun") ? 6
+                : regionAfter(w, 0);
+        int r2 = regionAfter(w, r1);
+
+        step1a(w);
+        if (EXCEPTIONS_AFTER_STEP_1A.contains(w.toString())) {
+            return w.toString();
+        }
+        step1b(w, r1);
+        step1c(w);
+        replaceSuffix(w, STEP_2, r1, r2, 2);
+        replaceSuffix(w, STEP_3, r1, r2, 3);
+        step4(w, r2);
+        step5(w, r1, r2);
+        return w.toString().replace('Y', 'y');
+    }
+
+    private static void step1a(StringBuilder w) {
+        if (endsWith(w, "sses")) {
+            w.setLength(w.length() - 2);
+        } else if (endsWith(w, "ied") || endsWith(w, "ies")) {
+            w.setLength(w.length() - (w.length() > 4 ? 2 : 1));
+        } else if (endsWith(w, "us") || endsWith(w, "ss")) {
+            return;
+        } else if (endsWith(w, "s") && containsVowel(w, 0, w.length() - 2)) {
+            w.setLength(w.length() - 1);
+        }
+    }
+
+    private static void step1b(StringBuilder w, int r1) {
+        if (endsWith(w, "eedly") || endsWith(w, "eed")) {
+            int suffix = endsWith(w, "eedly") ? 5 : 3;
+            if (w.length() - suffix >= r1) {
+                w.setLength(w.length() - suffix + 2);
+            }
+            return;
+        }
+        int suffix = endsWith(w, "ingly") ? 5
+                : endsWith(w, "edly") ? 4
+                : endsWith(w, "ing") ? 3
+                : endsWith(w, "ed") ? 2
+                : 0;
+        if (suffix == 0 || !containsVowel(w, 0, w.length() - suffix)) {
+            return;
+        }
+        w.setLength(w.length() - suffix);
+        if (endsWith(w, "at") || endsWith(w, "bl") || endsWith(w, "iz")) {
+            w.append('e');
+        } else if (endsWithDouble(w)) {
+            w.setLength(w.length() - 1);
+        } else if (r1 >= w.length() && endsWithShortSyllable(w, w.length())) {
+            w.append('e');
+        }
+    }
+
+    private static void step1c(StringBuilder w) {
+        int last = w.length() - 1;
+        if (last > 1 && (w.charAt(last) == 'y' || w.charAt(last) == 'Y') && !isVowel(w.charAt(last - 1))) {
+            w.setCharAt(last, 'i');
+        }
+    }
+
+    // Steps 2 and 3: only the longest matching suffix is considered, and only inside R1
+    private static void replaceSuffix(StringBuilder w, String[][] rules, int r1, int r2, int step) {
+        for (String[] rule : rules) {
+            String suffix = rule[0];
+            if (!endsWith(w, suffix)) {
+                continue;
+            }
+            int start = w.length() - suffix.length();
+            if (start < r1) {
+                return;
+            }
+            if (step == 2 && suffix.equals("ogi") && (start == 0 || w.charAt(start - 1) != 'l')) {
+                return;
+            }
+            if (step == 2 && suffix.equals("li") && (start == 0 || "cdeghkmnrt".indexOf(w.charAt(start - 1)) < 0)) {
+                return;
+            }
+            if (step == 3 && suffix.equals("ative") && start < r2) {
+                return;
+            }
+            w.replace(start, w.length(), rule[1]);
+            return;
+        }
+    }
+
+    private static void step4(StringBuilder w, int r2) {
+        for (String suffix : STEP_4) {
+            if (!endsWith(w, suffix)) {
+                continue;
+            }
+            int start = w.length() - suffix.length();
+            if (start < r2) {
+                return;
+            }
+            if (suffix.equals("ion") && (start == 0 || (w.charAt(start - 1) != 's' && w.charAt(start - 1) != 't'))) {
+                return;
+            }
+            w.setLength(start);
+            return;
+        }
+    }
+
+    private static void step5(StringBuilder w, int r1, int r2) {
+        int last = w.length() - 1;
+        if (w.charAt(last) == 'e') {
+            if (last >= r2 || (last >= r1 && !endsWithShortSyllable(w, last))) {
+                w.setLength(last);
+            }
+        } else if (w.charAt(last) == 'l' && last >= r2 && last > 0 && w.charAt(last - 1) == 'l') {
+            w.setLength(last);
+        }
+    }
+
+    // Start of the region after the first non-vowel that follows a vowel, searching from start
+    private static int regionAfter(CharSequence w, int start) {
+        for (int i = start + 1; i < w.length(); i++) {
+            if (!isVowel(w.charAt(i)) && isVowel(w.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return w.length();
+    }
+
+    // Whether the first end characters of w end in a short syllable
+    private static boolean endsWithShortSyllable(CharSequence w, int end) {
+        if (end == 2) {
+            return isVowel(w.charAt(0)) && !isVowel(w.charAt(1));
+        }
+        if (end < 3) {
+            return false;
+        }
+        char last = w.charAt(end - 1);
+        return !isVowel(w.charAt(end - 3)) && isVowel(w.charAt(end - 2)) && !isVowel(last)
+                && last != 'w' && last != 'x' && last != 'Y';
+    }
+
+    private static boolean endsWithDouble(CharSequence w) {
+        int n = w.length();
+        return n >= 2 && w.charAt(n - 1) == w.charAt(n - 2) && "bdfgmnprt".indexOf(w.charAt(n - 1)) >= 0;
+    }
+
+    private static boolean containsVowel(CharSequence w, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isVowel(w.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWith(CharSequence w, String suffix) {
+        int offset = w.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (w.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    private static boolean isAsciiWord(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,542 @@
+package com.ecommerce.auth.service.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact in-memory inverted index over product text, ranked with BM25.
+ * <p>
+ * Documents are addressed by a dense int ordinal; postings are parallel
+ * {@code int[]} arrays of ordinals and weighted term frequencies, appended in
+ * ordinal order so they stay sorted without any re-sorting. Updates tombstone the
+ * old ordinal and append a new one; {@link #compact()} reclaims tombstones.
+ * <p>
+ * Text is analysed like the {@code search_vector} column: name and description
+ * words are stemmed and stop words dropped as by the {@code english} configuration,
+ * SKU words are kept as is like the {@code simple} one.
+ */
+public class InvertedIndex {
+
+    public static final int NAME_WEIGHT = 3;
+    public static final int SKU_WEIGHT = 3;
+    public static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final LongIntMap ordinalsById = new LongIntMap();
+    private long[] productIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int[] contentHashes = new int[1024];
+    private BitSet deleted = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private long totalLength;
+
+    /**
+     * Indexes a product, replacing any previous version of it.
+     */
+    public void upsert(long productId, String name, String description, String sku) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            addLocked(productId, name, description, sku);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a product unless the same text is already indexed for it, so resyncs
+     * that see unchanged rows do not churn ordinals. Returns whether it was indexed.
+     */
+    public boolean upsertIfChanged(long productId, String name, String description, String sku) {
+        int hash = contentHash(name, description, sku);
+        lock.writeLock().lock();
+        try {
+            int doc = ordinalsById.get(productId);
+            if (doc >= 0 && contentHashes[doc] == hash) {
+                return false;
+            }
+            removeLocked(productId);
+            addLocked(productId, name, description, sku);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a product only if it is not indexed yet. Used by bulk loads that may
+     * race with incremental updates carrying newer data.
+     */
+    public boolean addIfAbsent(long productId, String name, String description, String sku) {
+        lock.writeLock().lock();
+        try {
+            if (ordinalsById.get(productId) >= 0) {
+                return false;
+            }
+            addLocked(productId, name, description, sku);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} matches for the query, best first. Like
+     * {@code websearch_to_tsquery}, a product matches when it contains every query
+     * term that is not a stop word.
+     */
+    public SearchHits search(String query, int limit) {
+        String[] queryTerms = Arrays.stream(tokenize(query))
+                .filter(token -> !EnglishStemmer.isStopWord(token))
+                .map(EnglishStemmer::stem)
+                .distinct()
+                .toArray(String[]::new);
+        if (queryTerms.length == 0 || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] postings = new Postings[queryTerms.length];
+            float[] idf = new float[queryTerms.length];
+            int present = queryTerms.length;
+            for (int t = 0; t < present; t++) {
+                Postings p = terms.get(queryTerms[t]);
+                if (p == null || p.size == 0) {
+                    return SearchHits.EMPTY;
+                }
+                idf[t] = (float) Math.log(1 + (liveCount - p.size + 0.5) / (p.size + 0.5));
+                postings[t] = p;
+            }
+
+            float avgLength = liveCount == 0 ? 1f : (float) totalLength / liveCount;
+            TopK top = new TopK(limit);
+            int[] cursors = new int[present];
+            int totalHits = 0;
+
+            // k-way merge over sorted postings; query term count is small
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int t = 0; t < present; t++) {
+                    if (cursors[t] < postings[t].size) {
+                        doc = Math.min(doc, postings[t].docs[cursors[t]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                float score = 0f;
+                float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                int matched = 0;
+                for (int t = 0; t < present; t++) {
+                    Postings p = postings[t];
+                    if (cursors[t] < p.size && p.docs[cursors[t]] == doc) {
+                        int tf = p.freqs[cursors[t]++];
+                        score += idf[t] * (tf * (K1 + 1)) / (tf + norm);
+                        matched++;
+                    }
+                }
+
+                if (matched == present && !deleted.get(doc)) {
+                    totalHits++;
+                    top.offer(productIds[doc], score);
+                }
+            }
+
+            return top.toHits(totalHits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites postings without tombstoned documents and renumbers ordinals densely.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            int next = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                remap[doc] = deleted.get(doc) ? -1 : next++;
+            }
+
+            long[] newIds = new long[Math.max(1024, next)];
+            int[] newLengths = new int[newIds.length];
+            int[] newHashes = new int[newIds.length];
+            ordinalsById.clear();
+            for (int doc = 0; doc < docCount; doc++) {
+                if (remap[doc] >= 0) {
+                    newIds[remap[doc]] = productIds[doc];
+                    newLengths[remap[doc]] = docLengths[doc];
+                    newHashes[remap[doc]] = contentHashes[doc];
+                    ordinalsById.put(productIds[doc], remap[doc]);
+                }
+            }
+
+            terms.values().removeIf(p -> {
+                p.remap(remap);
+                return p.size == 0;
+            });
+
+            productIds = newIds;
+            docLengths = newLengths;
+            contentHashes = newHashes;
+            deleted = new BitSet();
+            docCount = next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            int tombstones = docCount - liveCount;
+            return tombstones > 1024 && tombstones > docCount / 4;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate retained heap size in bytes, counting array payloads, term
+     * strings and hash map entries.
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16L + 8L * productIds.length + 4L * docLengths.length + 4L * contentHashes.length
+                    + deleted.size() / 8;
+            bytes += ordinalsById.estimatedMemoryBytes();
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                // map node + String header/array + Postings header + two int arrays
+                bytes += 32 + 40 + 2L * entry.getKey().length() + 24
+                        + 16 + 4L * entry.getValue().docs.length
+                        + 16 + 4L * entry.getValue().freqs.length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH)
+                .toArray(String[]::new);
+    }
+
+    private void addLocked(long productId, String name, String description, String sku) {
+        int doc = docCount++;
+        if (doc == productIds.length) {
+            productIds = Arrays.copyOf(productIds, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+            contentHashes = Arrays.copyOf(contentHashes, doc * 2);
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = accumulate(frequencies, name, NAME_WEIGHT, true)
+                + accumulate(frequencies, sku, SKU_WEIGHT, false)
+                + accumulate(frequencies, description, DESCRIPTION_WEIGHT, true);
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), t -> new Postings()).append(doc, entry.getValue());
+        }
+
+        productIds[doc] = productId;
+        docLengths[doc] = length;
+        contentHashes[doc] = contentHash(name, description, sku);
+        ordinalsById.put(productId, doc);
+        liveCount++;
+        totalLength += length;
+    }
+
+    private void removeLocked(long productId) {
+        int doc = ordinalsById.remove(productId);
+        if (doc >= 0) {
+            deleted.set(doc);
+            liveCount--;
+            totalLength -= docLengths[doc];
+        }
+    }
+
+    private static int accumulate(Map<String, Integer> frequencies, String text, int weight, boolean english) {
+        int length = 0;
+        for (String token : tokenize(text)) {
+            if (english) {
+                if (EnglishStemmer.isStopWord(token)) {
+                    continue;
+                }
+                token = EnglishStemmer.stem(token);
+            }
+            frequencies.merge(token, weight, Integer::sum);
+            length++;
+        }
+        return length;
+    }
+
+    private static int contentHash(String name, String description, String sku) {
+        return Objects.hash(name, description, sku);
+    }
+
+    public record SearchHits(long[] productIds, float[] scores, int totalHits) {
+        static final SearchHits EMPTY = new SearchHits(new long[0], new float[0], 0);
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void append(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            docs = Arrays.copyOf(docs, Math.max(4, kept));
+            freqs = Arrays.copyOf(freqs, Math.max(4, kept));
+        }
+    }
+
+    /**
+     * Bounded min-heap on primitive arrays keeping the highest scores.
+     */
+    private static final class TopK {
+        private final long[] ids;
+        private final float[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            ids = new long[capacity];
+            scores = new float[capacity];
+        }
+
+        void offer(long id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        SearchHits toHits(int totalHits) {
+            int n = size;
+            long[] sortedIds = new long[n];
+            float[] sortedScores = new float[n];
+            for (int i = n - 1; i >= 0; i--) {
+                sortedIds[i] = ids[0];
+                sortedScores[i] = scores[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return new SearchHits(sortedIds, sortedScores, totalHits);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!lower(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    break;
+                }
+                int smallest = left + 1 < size && lower(left + 1, left) ? left + 1 : left;
+                if (!lower(smallest, i)) {
+                    break;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        // Lower score sorts first; ties keep the smaller id as the better hit
+        private boolean lower(int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && ids[a] > ids[b]);
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    /**
+     * Open-addressing long to int map; -1 marks a missing key.
+     */
+    private static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(1024);
+        private int[] values = new int[1024];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            keys[i] = EMPTY;
+            size--;
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = mix(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    keys[j] = EMPTY;
+                    i = j;
+                }
+            }
+            return removed;
+        }
+
+        void clear() {
+            keys = newKeys(1024);
+            values = new int[1024];
+            size = 0;
+        }
+
+        long estimatedMemoryBytes() {
+            return 32L + 8L * keys.length + 4L * values.length;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.ecommerce.auth.service.search;
+
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.service.event.CatalogImportedEvent;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+/**
+ * In-JVM product search. The index is loaded from {@link ProductRepository} once the
+ * application is ready and resynced from the database on a schedule, so writes made
+ * by other nodes and by bulk imports show up within the sync interval: every pass
+ * reads the rows whose {@code updated_at} moved since the last one, and the whole
+ * index is rebuilt and swapped in periodically or when a reload is requested, which
+ * a {@link CatalogImportedEvent} on any node does through a Redis channel.
+ * {@link ProductChangedEvent}s are applied after each commit as well, so this node
+ * sees its own writes at once. Memory footprint, document and term counts are
+ * exported as gauges.
+ * <p>
+ * Matching follows {@code websearch_to_tsquery('english', ...)} over the
+ * {@code search_vector} column (every term, stemmed, stop words ignored), but
+ * queries using its operators are left to the database (see {@link #supports}),
+ * the tokenizer is simpler than the PostgreSQL parser and ranking is BM25 rather
+ * than {@code ts_rank_cd}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.search.in-memory", name = "enabled", havingValue = "true")
+public class ProductSearchIndex implements MeterBinder, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final String RELOAD_CHANNEL = "search:reload";
+
+    private static final String CHANGED_SINCE_SQL =
+            "SELECT id, name, description, sku, active, updated_at FROM products WHERE updated_at > ?";
+
+    // Quoted phrases, OR and -negation change websearch_to_tsquery semantics
+    private static final Pattern WEBSEARCH_OPERATORS = Pattern.compile("\"|(^|\\s)-|(^|\\s)(?i:or)(\\s|$)");
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.search.in-memory.reload-interval:PT15M}")
+    private Duration reloadInterval;
+    // updated_at is set before commit and by each node's clock, so every pass re-reads this window
+    @Value("${app.search.in-memory.sync-overlap:PT30S}")
+    private Duration syncOverlap;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    private volatile boolean reloadRequested;
+
+    // Guarded by this; only load and sync touch them
+    private LocalDateTime watermark;
+    private long loadedAtNanos;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELOAD_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.nanoTime();
+        reloadRequested = false;
+        LocalDateTime loadStartedAt = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        InvertedIndex loaded = new InvertedIndex();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Product> window;
+        do {
+            window = productRepository.findByActiveTrue(position, Limit.of(LOAD_BATCH_SIZE), Sort.by("id"));
+            for (Product product : window) {
+                loaded.addIfAbsent(product.getId(), product.getName(), product.getDescription(), product.getSku());
+            }
+            if (!window.isEmpty()) {
+                position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        index = loaded;
+        watermark = loadStartedAt;
+        loadedAtNanos = System.nanoTime();
+        // Changes committed while the load ran went to the old index; pick them up now
+        applyChangesSince(watermark.minus(syncOverlap));
+        ready = true;
+        log.info("Product search index loaded {} products, {} terms, ~{} KB in {} ms",
+                loaded.documentCount(), loaded.termCount(), loaded.estimatedMemoryBytes() / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.in-memory.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        if (!ready) {
+            return;
+        }
+        if (reloadRequested || System.nanoTime() - loadedAtNanos > reloadInterval.toNanos()) {
+            load();
+        } else {
+            applyChangesSince(watermark.minus(syncOverlap));
+        }
+    }
+
+    /** Rebuilds the index on the next sync, e.g. after a bulk write that bypassed the events. */
+    public void requestReload() {
+        reloadRequested = true;
+    }
+
+    // An import may commit rows with an updated_at older than the sync overlap, so every node rebuilds
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        stringRedisTemplate.convertAndSend(RELOAD_CHANNEL, "import");
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        requestReload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED) {
+            index.remove(event.productId());
+        } else {
+            index.upsert(event.productId(), event.name(), event.description(), event.sku());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.in-memory.compaction-interval-ms:60000}")
+    public void compactIfNeeded() {
+        InvertedIndex current = index;
+        if (ready && current.needsCompaction()) {
+            current.compact();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Whether the index answers this query like the database would; it does not support websearch operators. */
+    public boolean supports(String query) {
+        return !WEBSEARCH_OPERATORS.matcher(query).find();
+    }
+
+    public InvertedIndex.SearchHits search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    private void applyChangesSince(LocalDateTime since) {
+        InvertedIndex current = index;
+        int[] changed = new int[1];
+        jdbcTemplate.query(CHANGED_SINCE_SQL, rs -> {
+            long id = rs.getLong("id");
+            if (rs.getBoolean("active")) {
+                if (current.upsertIfChanged(id, rs.getString("name"), rs.getString("description"),
+                        rs.getString("sku"))) {
+                    changed[0]++;
+                }
+            } else {
+                current.remove(id);
+            }
+            LocalDateTime updatedAt = rs.getObject("updated_at", LocalDateTime.class);
+            if (updatedAt.isAfter(watermark)) {
+                watermark = updatedAt;
+            }
+        }, Timestamp.valueOf(since));
+        if (changed[0] > 0) {
+            log.debug("Product search index resynced {} changed products", changed[0]);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.search.index.memory", this, search -> search.index.estimatedMemoryBytes())
+                .description("Estimated heap retained by the in-memory product search index")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("catalog.search.index.documents", this, search -> search.index.documentCount())
+                .description("Products in the in-memory search index")
+                .register(registry);
+        Gauge.builder("catalog.search.index.terms", this, search -> search.index.termCount())
+                .description("Distinct terms in the in-memory search index")
+                .register(registry);
+    }
+}
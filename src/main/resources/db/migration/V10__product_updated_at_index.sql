@@ -0,0 +1,4 @@
+-- The in-memory search index resyncs from rows changed since its last pass,
+-- including soft-deleted ones, which the partial V9 index does not cover.
+CREATE INDEX IF NOT EXISTS idx_products_updated_at
+    ON products (updated_at);
@@ -0,0 +1,20 @@
+-- Full-text search over products.
+-- Name and SKU weigh more than description; SKU uses the 'simple' config so codes are not stemmed.
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(sku, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector
+    ON products USING GIN (search_vector)
+    WHERE active = true;
+
+-- Trigram index so the remaining substring filters (LOWER(name) LIKE '%term%') stay index-backed
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+    ON products USING GIN (LOWER(name) gin_trgm_ops)
+    WHERE active = true;
@@ -0,0 +1,22 @@
+-- Optimistic locking for product rows; stock decrements bump it as well
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Stock held for a checkout until it is confirmed, released, or expires
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id             BIGSERIAL PRIMARY KEY,
+    reservation_id VARCHAR(36)  NOT NULL,
+    product_id     BIGINT       NOT NULL REFERENCES products (id),
+    quantity       INTEGER      NOT NULL CHECK (quantity > 0),
+    status         VARCHAR(20)  NOT NULL,
+    expires_at     TIMESTAMP(6) NOT NULL,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_reservation_id
+    ON stock_reservations (reservation_id);
+
+-- Expiry sweep only ever looks at active holds
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_active_expiry
+    ON stock_reservations (expires_at)
+    WHERE status = 'ACTIVE';
@@ -0,0 +1,7 @@
+-- Products whose stock currently lives in sharded Redis counters. The SQL reservation
+-- path skips them, and stock_quantity is only a mirror written by the reconciler.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS hot_stock BOOLEAN NOT NULL DEFAULT false;
+
+CREATE INDEX IF NOT EXISTS idx_products_hot_stock
+    ON products (id)
+    WHERE hot_stock = true;
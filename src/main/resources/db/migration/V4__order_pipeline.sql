@@ -0,0 +1,9 @@
+-- Checkout pipeline state on orders
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS stock_reservation_id VARCHAR(36);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS failure_reason VARCHAR(255);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS pipeline_lease_until TIMESTAMP(6);
+
+-- Recovery sweep looks for pending orders no worker currently owns
+CREATE INDEX IF NOT EXISTS idx_orders_pending_created_at
+    ON orders (created_at)
+    WHERE status = 'PENDING';
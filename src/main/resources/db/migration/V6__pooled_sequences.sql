@@ -0,0 +1,14 @@
+-- Ids come from sequences instead of identity columns so Hibernate can batch inserts.
+-- With the pooled-lo optimizer each nextval reserves a block of 50 ids, starting at the
+-- value returned; sequences start past the ids already in use.
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'categories', 'products', 'carts', 'cart_items',
+                             'orders', 'order_items', 'stock_reservations'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 1 FROM %I), false)', t || '_seq', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+    END LOOP;
+END $$;
@@ -0,0 +1,4 @@
+-- Active products are unique by SKU; the bulk import upserts on it
+CREATE UNIQUE INDEX IF NOT EXISTS ux_products_active_sku
+    ON products (sku)
+    WHERE active = true;
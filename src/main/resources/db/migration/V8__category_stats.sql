@@ -0,0 +1,9 @@
+-- Active-product counts per category, maintained by ProductService within the
+-- writing transaction; the reconciliation job fills the table on first start and
+-- corrects drift afterwards
+CREATE TABLE IF NOT EXISTS category_stats (
+    category_id           BIGINT       PRIMARY KEY REFERENCES categories (id) ON DELETE CASCADE,
+    product_count         BIGINT       NOT NULL DEFAULT 0,
+    subtree_product_count BIGINT       NOT NULL DEFAULT 0,
+    updated_at            TIMESTAMP(6) NOT NULL
+);
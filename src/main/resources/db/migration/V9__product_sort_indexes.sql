@@ -0,0 +1,26 @@
+-- One partial index per listing sort key (ProductSortKey). The trailing id matches
+-- the tiebreaker, so ORDER BY <key>, id in either direction is read straight from
+-- the index and a page stops after LIMIT rows instead of sorting the catalog.
+CREATE INDEX IF NOT EXISTS idx_products_active_id
+    ON products (id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_active_name_id
+    ON products (name, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_active_price_id
+    ON products (price, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_active_stock_quantity_id
+    ON products (stock_quantity, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_active_created_at_id
+    ON products (created_at, id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_active_updated_at_id
+    ON products (updated_at, id)
+    WHERE active = true;
@@ -0,0 +1,57 @@
+package com.ecommerce.auth;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+/**
+ * Base for repository tests that need real PostgreSQL features (full-text search,
+ * partial indexes, sequences). Hibernate creates the entity tables, then the Flyway
+ * migrations are applied on top once per JVM. Skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public abstract class PostgresTestSupport {
+
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	static {
+		POSTGRES.start();
+	}
+
+	private static boolean migrated;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeEach
+	void applyMigrations() {
+		synchronized (PostgresTestSupport.class) {
+			if (!migrated) {
+				Flyway.configure()
+						.dataSource(dataSource)
+						.baselineOnMigrate(true)
+						.baselineVersion("0")
+						.load()
+						.migrate();
+				migrated = true;
+			}
+		}
+	}
+
+}
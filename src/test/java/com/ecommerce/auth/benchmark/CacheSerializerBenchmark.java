@@ -0,0 +1,104 @@
+package com.ecommerce.auth.benchmark;
+
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.service.cache.CompactRedisSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a cached {@link ProductResponse} per value serializer.
+ * Bytes per entry are reported as the {@code bytesPerEntry} secondary result of
+ * {@link #encode}.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=CacheSerializerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"compact", "jdk", "json"})
+    public String format;
+
+    private RedisSerializer<Object> serializer;
+    private ProductResponse<?> product;
+    private byte[] encoded;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        serializer = switch (format) {
+            case "compact" -> new CompactRedisSerializer();
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            case "json" -> {
+                ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                yield (RedisSerializer<Object>) (RedisSerializer<?>)
+                        new Jackson2JsonRedisSerializer<>(mapper, ProductResponse.class);
+            }
+            default -> throw new IllegalArgumentException(format);
+        };
+        product = sampleProduct();
+        encoded = serializer.serialize(product);
+    }
+
+    // EVENTS counters are reported as they stand rather than divided by time;
+    // JMH zeroes them before each iteration, so encode() sets the value itself
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytesPerEntry;
+    }
+
+    @Benchmark
+    public byte[] encode(EncodedSize size) {
+        byte[] bytes = serializer.serialize(product);
+        size.bytesPerEntry = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    static ProductResponse<?> sampleProduct() {
+        return ProductResponse.builder()
+                .id(12345L)
+                .name("iPhone 14 Pro")
+                .description("Latest iPhone with advanced camera system")
+                .price(new BigDecimal("999.99"))
+                .stockQuantity(50)
+                .sku("IPHONE14PRO128")
+                .categoryName("Electronics")
+                .active(true)
+                .tags(List.of("phone", "apple"))
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .updatedAt(LocalDateTime.of(2024, 1, 16, 14, 20))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.auth.benchmark;
+
+import com.ecommerce.auth.model.Cart;
+import com.ecommerce.auth.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Cart#addItem} and {@link Cart#updateItemQuantity} on a cart that
+ * already holds {@code lineItems} lines. Both should stay flat as the cart grows.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=CartAggregateBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartAggregateBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int lineItems;
+
+    private Cart cart;
+    private Product[] products;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        products = new Product[lineItems];
+        for (int i = 0; i < lineItems; i++) {
+            Product product = Product.builder()
+                    .name("Product " + i)
+                    .price(new BigDecimal("19.99"))
+                    .stockQuantity(1000)
+                    .sku("SKU-" + i)
+                    .build();
+            product.setId((long) i + 1);
+            products[i] = product;
+            cart.addItem(product, 1);
+        }
+    }
+
+    // Cycles through the lines so every lookup hits a different item
+    private Product nextProduct() {
+        Product product = products[next];
+        next = next + 1 == products.length ? 0 : next + 1;
+        return product;
+    }
+
+    @Benchmark
+    public Cart addExistingItem() {
+        cart.addItem(nextProduct(), 1);
+        return cart;
+    }
+
+    @Benchmark
+    public Cart updateItemQuantity() {
+        cart.updateItemQuantity(nextProduct(), 1 + (next & 7));
+        return cart;
+    }
+}
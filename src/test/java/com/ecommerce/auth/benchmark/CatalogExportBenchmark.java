@@ -0,0 +1,85 @@
+package com.ecommerce.auth.benchmark;
+
+import com.ecommerce.auth.service.catalog.CatalogFormat;
+import com.ecommerce.auth.service.catalog.CatalogRowWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding side of the catalog export: {@code rows} synthetic products written through
+ * {@link CatalogRowWriter} to a discarding stream, as the export does per cursor row.
+ * Run with {@code -prof gc} to see that allocation per row stays constant.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args="CatalogExportBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class CatalogExportBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"CSV", "NDJSON"})
+    public CatalogFormat format;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private String[] names;
+    private BigDecimal[] prices;
+
+    @Setup
+    public void setUp() {
+        names = new String[1024];
+        prices = new BigDecimal[1024];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Rugged phone case, model " + i;
+            prices[i] = BigDecimal.valueOf(100 + i, 2);
+        }
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (CatalogRowWriter writer = CatalogRowWriter.open(format, out, jsonFactory)) {
+            for (int i = 0; i < rows; i++) {
+                int k = i & 1023;
+                writer.write(i, "SKU-" + i, names[k], "Shock absorbing case", prices[k], k, "phones");
+            }
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+}
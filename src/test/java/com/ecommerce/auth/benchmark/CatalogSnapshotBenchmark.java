@@ -0,0 +1,74 @@
+package com.ecommerce.auth.benchmark;
+
+import com.ecommerce.auth.service.catalog.CatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a listing page served by {@link CatalogSnapshot}: the first page of the
+ * whole catalog by price, and a page of one category (a fifth of the catalog)
+ * that has to build the filter bitset first.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=CatalogSnapshotBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    private static final int CATEGORIES = 5;
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    private CatalogSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void build() {
+        Random random = new Random(42);
+        long[] ids = new long[products];
+        long[] prices = new long[products];
+        int[] stock = new int[products];
+        long[] created = new long[products];
+        int[] categories = new int[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = i + 1;
+            prices[i] = 100 + random.nextInt(100_000);
+            stock[i] = random.nextInt(500);
+            created[i] = 1_700_000_000_000L + random.nextInt(1_000_000_000);
+            categories[i] = random.nextInt(CATEGORIES);
+        }
+        snapshot = new CatalogSnapshot(1, Instant.now(), products, ids, prices, stock, created, categories,
+                new String[]{"Phones", "Laptops", "Tablets", "Cameras", "Audio"});
+    }
+
+    @Benchmark
+    public long[] wholeCatalogByPrice() {
+        return snapshot.page(null, CatalogSnapshot.SortField.PRICE, false, 0, 20).productIds();
+    }
+
+    @Benchmark
+    public long[] oneCategoryByNewest() {
+        return snapshot.page(snapshot.rowsInCategoriesNamed("laptops"),
+                CatalogSnapshot.SortField.CREATED_AT, true, 40, 20).productIds();
+    }
+
+}
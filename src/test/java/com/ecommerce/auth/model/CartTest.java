@@ -0,0 +1,80 @@
+package com.ecommerce.auth.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartTest {
+
+	@Test
+	void totalsFollowEveryMutation() {
+		Cart cart = new Cart();
+		Product phone = product(1L, "499.99");
+		Product caseProduct = product(2L, "19.50");
+
+		cart.addItem(phone, 1);
+		cart.addItem(caseProduct, 2);
+		cart.addItem(phone, 1);
+		assertTotals(cart, 4, "1038.98");
+
+		cart.updateItemQuantity(caseProduct, 5);
+		assertTotals(cart, 7, "1097.48");
+
+		cart.removeItem(phone);
+		assertTotals(cart, 5, "97.50");
+		assertThat(cart.hasProduct(phone)).isFalse();
+
+		cart.updateItemQuantity(caseProduct, 0);
+		assertTotals(cart, 0, "0");
+		assertThat(cart.isEmpty()).isTrue();
+	}
+
+	@Test
+	void removingAnUnsavedItemLeavesTheOthers() {
+		Cart cart = new Cart();
+		Product first = product(1L, "1.00");
+		Product second = product(2L, "2.00");
+		cart.addItem(first, 1);
+		cart.addItem(second, 1);
+
+		cart.removeItem(second);
+
+		assertThat(cart.getCartItems()).singleElement()
+				.satisfies(item -> assertThat(item.getProduct()).isSameAs(first));
+	}
+
+	@Test
+	void setItemAndRetainSyncTheCartToASnapshot() {
+		Cart cart = new Cart();
+		Product first = product(1L, "10.00");
+		Product second = product(2L, "5.00");
+		cart.addItem(first, 3);
+		cart.addItem(second, 1);
+
+		cart.setItem(first, 2, new BigDecimal("9.00"));
+		cart.retainProducts(Set.of(1L));
+
+		assertTotals(cart, 2, "18.00");
+		assertThat(cart.getCartItems()).hasSize(1);
+	}
+
+	private static void assertTotals(Cart cart, int items, String amount) {
+		assertThat(cart.getTotalItems()).isEqualTo(items);
+		assertThat(cart.getTotalAmount()).isEqualByComparingTo(amount);
+	}
+
+	private static Product product(Long id, String price) {
+		Product product = Product.builder()
+				.name("Product " + id)
+				.price(new BigDecimal(price))
+				.stockQuantity(100)
+				.sku("SKU-" + id)
+				.build();
+		product.setId(id);
+		return product;
+	}
+
+}
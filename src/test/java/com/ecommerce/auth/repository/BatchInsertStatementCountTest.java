@@ -0,0 +1,115 @@
+package com.ecommerce.auth.repository;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.model.Address;
+import com.ecommerce.auth.model.Cart;
+import com.ecommerce.auth.model.Order;
+import com.ecommerce.auth.model.OrderItem;
+import com.ecommerce.auth.model.OrderStatus;
+import com.ecommerce.auth.model.PaymentMethod;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInsertStatementCountTest extends PostgresTestSupport {
+
+	private static final int LINES = 30;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private User user;
+	private final List<Product> products = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		user = entityManager.persist(User.builder()
+				.email("batch@example.com")
+				.password("secret")
+				.firstName("Batch")
+				.lastName("Buyer")
+				.build());
+		for (int i = 0; i < LINES; i++) {
+			products.add(entityManager.persist(Product.builder()
+					.name("Product " + i)
+					.price(new BigDecimal("9.99"))
+					.stockQuantity(100)
+					.sku("BATCH-" + i)
+					.build()));
+		}
+		entityManager.flush();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void orderWithManyItemsIsInsertedInOneBatchPerTable() {
+		Order order = new Order();
+		order.setOrderNumber("ORD-BATCH");
+		order.setUser(user);
+		order.setStatus(OrderStatus.PENDING);
+		order.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+		order.setShippingAddress(address());
+		order.setBillingAddress(address());
+		order.setOrderDate(LocalDateTime.now());
+		order.setShippingAmount(BigDecimal.ZERO);
+		for (Product product : products) {
+			order.addOrderItem(OrderItem.builder()
+					.product(product)
+					.quantity(1)
+					.unitPrice(product.getPrice())
+					.subtotal(product.getPrice())
+					.build());
+		}
+
+		entityManager.persist(order);
+		entityManager.flush();
+
+		// One nextval per sequence, then one prepared INSERT per table
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(LINES + 1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+	}
+
+	@Test
+	void cartWithManyItemsIsInsertedInOneBatchPerTable() {
+		Cart cart = new Cart();
+		cart.setUser(user);
+		for (Product product : products) {
+			cart.addItem(product, 2);
+		}
+
+		entityManager.persist(cart);
+		entityManager.flush();
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(LINES + 1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+	}
+
+	private static Address address() {
+		return Address.builder()
+				.street("1 Main St")
+				.city("Springfield")
+				.country("US")
+				.zipCode("12345")
+				.build();
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.auth.repository;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.model.Category;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.projection.ProductSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductRepositoryStatementCountTest extends PostgresTestSupport {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seedCatalog() {
+		for (int c = 0; c < 3; c++) {
+			Category category = new Category();
+			category.setName("Category " + c);
+			category.setSlug("category-" + c);
+			entityManager.persist(category);
+			for (int i = 0; i < 20; i++) {
+				entityManager.persist(Product.builder()
+						.name("Phone case " + c + "-" + i)
+						.description("Rugged case")
+						.price(new BigDecimal(10 + i))
+						.stockQuantity(i)
+						.sku("SKU-" + c + "-" + i)
+						.category(category)
+						.build());
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void listingPageLoadsCategoryNamesWithoutExtraQueries() {
+		Page<ProductSummary> page = productRepository.findActiveSummaries(PageRequest.of(1, 25, Sort.by("price")));
+
+		assertThat(page.getContent()).hasSize(25).allSatisfy(p -> assertThat(p.getCategoryName()).isNotNull());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // page + count
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void categoryListingLoadsCategoryNamesWithoutExtraQueries() {
+		Page<ProductSummary> page = productRepository.findActiveSummariesByCategoryName("category 1", PageRequest.of(0, 10));
+
+		assertThat(page.getContent()).hasSize(10).allSatisfy(p -> assertThat(p.getCategoryName()).isEqualTo("Category 1"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void fullTextSearchLoadsCategoryNamesWithoutExtraQueries() {
+		Page<ProductSummary> page = productRepository.searchSummaries("rugged case", PageRequest.of(0, 50));
+
+		assertThat(page.getContent()).hasSize(50).allSatisfy(p -> assertThat(p.getCategoryName()).startsWith("Category"));
+		assertThat(page.getTotalElements()).isEqualTo(60);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void keysetSearchFetchesCategoriesInTheSameStatement() {
+		Window<Product> window = productRepository.findBy(ProductSpecifications.activeMatching("CATEGORY 1", "case 1-1"),
+				query -> query.project("category").sortBy(Sort.by("id")).limit(5).scroll(ScrollPosition.keyset()));
+
+		// Matches 1-1 and 1-10 to 1-19
+		assertThat(window.getContent()).hasSize(5)
+				.allSatisfy(p -> assertThat(p.getCategory().getName()).isEqualTo("Category 1"));
+		assertThat(window.hasNext()).isTrue();
+		assertThat(productRepository.count(ProductSpecifications.activeMatching(null, "case 1-1"))).isEqualTo(11);
+		assertThat(productRepository.count(ProductSpecifications.activeMatching(null, "case_1"))).isZero();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+}
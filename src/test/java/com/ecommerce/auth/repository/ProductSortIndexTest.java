@@ -0,0 +1,47 @@
+package com.ecommerce.auth.repository;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.service.pagination.ProductSortKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSortIndexTest extends PostgresTestSupport {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seedCatalog() {
+		// Every tenth product is inactive, so the partial indexes beat the primary key
+		jdbcTemplate.update("""
+				INSERT INTO products (id, name, description, price, stock_quantity, sku, active, created_at, updated_at)
+				SELECT g, 'Product ' || (g * 7919 % 5000), 'Description', (g * 31 % 997) + 0.99, g % 50, 'SKU-' || g,
+				       g % 10 <> 0, now() - g * interval '1 minute', now() - (g * 13 % 5000) * interval '1 second'
+				FROM generate_series(1, 5000) g""");
+		jdbcTemplate.execute("ANALYZE products");
+		// A listing must be able to come out of an index; with sorting priced out any Sort node means it cannot
+		jdbcTemplate.execute("SET LOCAL enable_sort = off");
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProductSortKey.class)
+	void everySortKeyIsReadInIndexOrder(ProductSortKey key) {
+		for (boolean descending : new boolean[]{false, true}) {
+			List<String> plan = jdbcTemplate.queryForList("EXPLAIN (COSTS OFF) "
+					+ ProductRepository.NATIVE_SUMMARY_SELECT + "WHERE p.active = true ORDER BY "
+					+ key.orderBy("p", descending) + " LIMIT 20", String.class);
+
+			assertThat(plan).as("%s %s", key, descending ? "desc" : "asc")
+					.anyMatch(line -> line.contains("Index Scan") && line.contains(" using " + key.indexName() + " "))
+					.noneMatch(line -> line.trim().replaceFirst("^->\\s+", "").matches("(Incremental )?Sort"));
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.dto.request.BatchCartItemsRequest;
+import com.ecommerce.auth.dto.request.CartItemOperationRequest;
+import com.ecommerce.auth.dto.request.CartItemOperationRequest.Operation;
+import com.ecommerce.auth.dto.response.CartResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.service.cart.CartMutation;
+import com.ecommerce.auth.service.cart.CartSnapshot;
+import com.ecommerce.auth.service.cart.HotCartStore;
+import com.ecommerce.auth.service.metrics.RequestMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceTest {
+
+	private static final Long USER_ID = 7L;
+
+	@Mock
+	private HotCartStore hotCartStore;
+
+	@Mock
+	private ProductService productService;
+
+	@Spy
+	private RequestMetrics requestMetrics = new RequestMetrics(new SimpleMeterRegistry());
+
+	@InjectMocks
+	private CartService cartService;
+
+	@Test
+	void batchResolvesProductsOnceAndWritesOneMutation() {
+		when(productService.getProductsByIds(Set.of(1L, 2L))).thenReturn(Map.of(
+				1L, product(1L, "10.00"),
+				2L, product(2L, "2.50")));
+		when(hotCartStore.apply(eq(USER_ID), anyList())).thenReturn(new CartSnapshot(1, List.of(
+				new CartSnapshot.Line(1L, 3, new BigDecimal("10.00")))));
+
+		CartResponse cart = cartService.applyBatch(USER_ID, batch(
+				operation(Operation.ADD, 1L, 1),
+				operation(Operation.ADD, 2L, 4),
+				operation(Operation.UPDATE, 1L, 3),
+				operation(Operation.REMOVE, 2L, null)));
+
+		verify(productService, times(1)).getProductsByIds(any());
+		verify(hotCartStore, times(1)).apply(USER_ID, List.of(
+				CartMutation.add(1L, 1, new BigDecimal("10.00")),
+				CartMutation.add(2L, 4, new BigDecimal("2.50")),
+				CartMutation.set(1L, 3, new BigDecimal("10.00")),
+				CartMutation.remove(2L)));
+		assertThat(cart.getTotalAmount()).isEqualByComparingTo("30.00");
+	}
+
+	@Test
+	void unknownProductRejectsTheWholeBatch() {
+		when(productService.getProductsByIds(Set.of(1L, 9L))).thenReturn(Map.of(1L, product(1L, "10.00")));
+
+		assertThatThrownBy(() -> cartService.applyBatch(USER_ID, batch(
+				operation(Operation.ADD, 1L, 1),
+				operation(Operation.ADD, 9L, 1))))
+				.isInstanceOf(ResourceNotFoundException.class);
+
+		verify(hotCartStore, never()).apply(any(), anyList());
+	}
+
+	private static BatchCartItemsRequest batch(CartItemOperationRequest... operations) {
+		return BatchCartItemsRequest.builder().operations(List.of(operations)).build();
+	}
+
+	private static CartItemOperationRequest operation(Operation op, Long productId, Integer quantity) {
+		return CartItemOperationRequest.builder().op(op).productId(productId).quantity(quantity).build();
+	}
+
+	private static ProductResponse product(Long id, String price) {
+		return ProductResponse.builder().id(id).name("Product " + id).price(new BigDecimal(price)).build();
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.exception.InsufficientStockException;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Buyers run on their own threads, so the test itself must not hold a transaction
+@Import(InventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceConcurrencyTest extends PostgresTestSupport {
+
+	private static final int STOCK = 100;
+	private static final int BUYERS = 3000;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockReservationRepository reservationRepository;
+
+	@AfterEach
+	void cleanUp() {
+		reservationRepository.deleteAllInBatch();
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void concurrentBuyersNeverOversell() throws Exception {
+		Long productId = newProduct("FLASH-1", STOCK).getId();
+
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger sold = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < BUYERS; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					inventoryService.reserve(Map.of(productId, 1));
+					sold.incrementAndGet();
+				} catch (InsufficientStockException e) {
+					rejected.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(sold.get()).isEqualTo(STOCK);
+		assertThat(rejected.get()).isEqualTo(BUYERS - STOCK);
+		assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isZero();
+		assertThat(reservationRepository.count()).isEqualTo(STOCK);
+	}
+
+	@Test
+	void multiItemReservationIsAllOrNothing() {
+		Long plentiful = newProduct("MULTI-1", 10).getId();
+		Long scarce = newProduct("MULTI-2", 3).getId();
+
+		assertThatThrownBy(() -> inventoryService.reserve(Map.of(plentiful, 2, scarce, 5)))
+				.isInstanceOf(InsufficientStockException.class);
+
+		assertThat(productRepository.findById(plentiful).orElseThrow().getStockQuantity()).isEqualTo(10);
+		assertThat(productRepository.findById(scarce).orElseThrow().getStockQuantity()).isEqualTo(3);
+		assertThat(reservationRepository.count()).isZero();
+	}
+
+	@Test
+	void releasedAndExpiredReservationsReturnStock() {
+		Long productId = newProduct("TTL-1", 5).getId();
+
+		String released = inventoryService.reserve(Map.of(productId, 2));
+		inventoryService.reserve(Map.of(productId, 3), Duration.ofMillis(-1));
+		assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isZero();
+
+		inventoryService.release(released);
+		inventoryService.release(released);
+		inventoryService.releaseExpired();
+
+		assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(5);
+	}
+
+	private Product newProduct(String sku, int stock) {
+		return productRepository.save(Product.builder()
+				.name("Flash sale " + sku)
+				.price(new BigDecimal("9.99"))
+				.stockQuantity(stock)
+				.sku(sku)
+				.build());
+	}
+
+}
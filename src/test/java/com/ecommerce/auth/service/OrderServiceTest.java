@@ -0,0 +1,183 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.dto.request.AddressRequest;
+import com.ecommerce.auth.dto.request.PlaceOrderRequest;
+import com.ecommerce.auth.dto.response.OrderResponse;
+import com.ecommerce.auth.model.Order;
+import com.ecommerce.auth.model.OrderStatus;
+import com.ecommerce.auth.model.PaymentMethod;
+import com.ecommerce.auth.model.User;
+import com.ecommerce.auth.repository.OrderRepository;
+import com.ecommerce.auth.service.cart.CartSnapshot;
+import com.ecommerce.auth.service.metrics.RequestMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.ecommerce.auth.service.order.IdempotencyStore;
+import com.ecommerce.auth.service.order.OrderNumberGenerator;
+import com.ecommerce.auth.service.order.OrderPipeline;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+	private static final Long USER_ID = 7L;
+	private static final String KEY = "3f6c2a1e-checkout";
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	@Mock
+	private CartService cartService;
+
+	@Mock
+	private OrderPipeline orderPipeline;
+
+	@Mock
+	private IdempotencyStore idempotencyStore;
+
+	@Mock
+	private OrderNumberGenerator orderNumberGenerator;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Spy
+	private RequestMetrics requestMetrics = new RequestMetrics(new SimpleMeterRegistry());
+
+	@InjectMocks
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		when(orderNumberGenerator.next()).thenReturn("ORD-0000000000001");
+	}
+
+	@Test
+	void firstRequestQueuesAPendingOrderAndSubmitsIt() {
+		when(idempotencyStore.claim(eq(USER_ID), eq(KEY), any())).thenReturn(null);
+		when(cartService.snapshot(USER_ID)).thenReturn(new CartSnapshot(3, List.of(
+				new CartSnapshot.Line(1L, 2, new BigDecimal("10.00")))));
+		when(entityManager.getReference(eq(User.class), any())).thenReturn(new User());
+		when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			order.setId(42L);
+			return order;
+		});
+
+		OrderResponse response = orderService.placeOrder(USER_ID, KEY, request("1 Main St"));
+
+		ArgumentCaptor<Order> queued = ArgumentCaptor.forClass(Order.class);
+		verify(orderRepository).save(queued.capture());
+		assertThat(queued.getValue().getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(queued.getValue().getOrderNumber()).isEqualTo("ORD-0000000000001");
+		assertThat(response.getOrderNumber()).isEqualTo("ORD-0000000000001");
+		assertThat(queued.getValue().getSubtotal()).isEqualByComparingTo("20.00");
+		verify(orderPipeline).submit(42L);
+		assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING);
+		InOrder inOrder = inOrder(orderRepository, idempotencyStore);
+		inOrder.verify(orderRepository).save(any(Order.class));
+		inOrder.verify(idempotencyStore).bind(eq(USER_ID), eq(KEY),
+				argThat(claim -> claim.pending() && claim.orderNumber().equals("ORD-0000000000001")));
+	}
+
+	@Test
+	void retryWithTheSameKeyReturnsTheOriginalOrder() {
+		ArgumentCaptor<IdempotencyStore.Claim> claim = ArgumentCaptor.forClass(IdempotencyStore.Claim.class);
+		when(idempotencyStore.claim(eq(USER_ID), eq(KEY), claim.capture())).thenAnswer(invocation ->
+				new IdempotencyStore.Claim("ORD-ORIGINAL", claim.getValue().fingerprint(), false));
+
+		OrderResponse response = orderService.placeOrder(USER_ID, KEY, request("1 Main St"));
+
+		assertThat(response.getOrderNumber()).isEqualTo("ORD-ORIGINAL");
+		verifyNoInteractions(cartService, orderRepository, orderPipeline);
+	}
+
+	@Test
+	void retryWhileTheFirstRequestIsStillQueuingGetsAConflict() {
+		ArgumentCaptor<IdempotencyStore.Claim> claim = ArgumentCaptor.forClass(IdempotencyStore.Claim.class);
+		when(idempotencyStore.claim(eq(USER_ID), eq(KEY), claim.capture())).thenAnswer(invocation ->
+				IdempotencyStore.Claim.pending("ORD-ORIGINAL", claim.getValue().fingerprint()));
+		when(orderRepository.existsByOrderNumber("ORD-ORIGINAL")).thenReturn(false);
+
+		assertThatThrownBy(() -> orderService.placeOrder(USER_ID, KEY, request("1 Main St")))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+		verify(idempotencyStore, never()).bind(any(), any(), any());
+		verifyNoInteractions(cartService, orderPipeline);
+	}
+
+	@Test
+	void retryAfterTheOrderIsCommittedBindsThePendingClaim() {
+		ArgumentCaptor<IdempotencyStore.Claim> claim = ArgumentCaptor.forClass(IdempotencyStore.Claim.class);
+		when(idempotencyStore.claim(eq(USER_ID), eq(KEY), claim.capture())).thenAnswer(invocation ->
+				IdempotencyStore.Claim.pending("ORD-ORIGINAL", claim.getValue().fingerprint()));
+		when(orderRepository.existsByOrderNumber("ORD-ORIGINAL")).thenReturn(true);
+
+		OrderResponse response = orderService.placeOrder(USER_ID, KEY, request("1 Main St"));
+
+		assertThat(response.getOrderNumber()).isEqualTo("ORD-ORIGINAL");
+		verify(idempotencyStore).bind(eq(USER_ID), eq(KEY), argThat(c -> c.orderNumber().equals("ORD-ORIGINAL")));
+		verifyNoInteractions(cartService, orderPipeline);
+	}
+
+	@Test
+	void reusingAKeyForADifferentRequestIsRejected() {
+		when(idempotencyStore.claim(eq(USER_ID), eq(KEY), any()))
+				.thenReturn(new IdempotencyStore.Claim("ORD-ORIGINAL", "another-fingerprint", false));
+
+		assertThatThrownBy(() -> orderService.placeOrder(USER_ID, KEY, request("2 Other St")))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("different request");
+		verifyNoInteractions(orderRepository, orderPipeline);
+	}
+
+	@Test
+	void keyIsReleasedWhenTheOrderCannotBeQueued() {
+		when(idempotencyStore.claim(eq(USER_ID), eq(KEY), any())).thenReturn(null);
+		when(cartService.snapshot(USER_ID)).thenReturn(CartSnapshot.empty());
+
+		assertThatThrownBy(() -> orderService.placeOrder(USER_ID, KEY, request("1 Main St")))
+				.isInstanceOf(ResponseStatusException.class);
+
+		verify(idempotencyStore).release(eq(USER_ID), eq(KEY), any());
+		verify(idempotencyStore, never()).bind(any(), any(), any());
+		verify(orderPipeline, never()).submit(any());
+	}
+
+	private static PlaceOrderRequest request(String street) {
+		return PlaceOrderRequest.builder()
+				.shippingAddress(AddressRequest.builder()
+						.street(street).city("Springfield").country("US").zipCode("12345").build())
+				.paymentMethod(PaymentMethod.CREDIT_CARD)
+				.build();
+	}
+
+}
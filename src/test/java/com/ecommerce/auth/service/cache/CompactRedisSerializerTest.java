@@ -0,0 +1,139 @@
+package com.ecommerce.auth.service.cache;
+
+import com.ecommerce.auth.dto.response.CategoryResponse;
+import com.ecommerce.auth.dto.response.PageResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+
+	private final CompactRedisSerializer serializer = new CompactRedisSerializer();
+
+	@Test
+	void roundTripsProductResponse() {
+		ProductResponse<?> product = product(1L);
+
+		assertThat(serializer.deserialize(serializer.serialize(product))).isEqualTo(product);
+	}
+
+	@Test
+	void roundTripsPageOfProductsWithNestedCategory() {
+		ProductResponse<?> withCategory = product(2L);
+		withCategory.setCategory(CategoryResponse.builder()
+				.id(3L).name("Electronics").active(true).productCount(25).build());
+		PageResponse<ProductResponse<?>> page = PageResponse.<ProductResponse<?>>builder()
+				.content(List.of(product(1L), withCategory))
+				.pageNumber(4)
+				.pageSize(2)
+				.totalElements(100L)
+				.last(false)
+				.first(false)
+				.numberOfElements(2)
+				.nextCursor("abc")
+				.snapshotVersion(12L)
+				.snapshotBuiltAt(Instant.ofEpochMilli(1_700_000_000_123L))
+				.build();
+
+		assertThat(serializer.deserialize(serializer.serialize(page))).isEqualTo(page);
+	}
+
+	@Test
+	void readsPagesWrittenBeforeTheSnapshotFields() {
+		PageResponse<ProductResponse<?>> page = PageResponse.<ProductResponse<?>>builder()
+				.content(List.of(product(1L)))
+				.pageSize(1)
+				.totalElements(1L)
+				.first(true)
+				.last(true)
+				.numberOfElements(1)
+				.build();
+		byte[] bytes = serializer.serialize(page);
+		// magic, format version, type tag, then the schema version
+		assertThat(bytes[3]).isEqualTo((byte) 2);
+		bytes[3] = 1;
+
+		assertThat(serializer.deserialize(bytes)).isEqualTo(page);
+	}
+
+	@Test
+	void roundTripsLargeDecimalsAndNegativeNumbers() {
+		ProductResponse<?> product = product(-7L);
+		product.setPrice(new BigDecimal("123456789012345678901234567890.12"));
+		product.setStockQuantity(-1);
+
+		assertThat(serializer.deserialize(serializer.serialize(product))).isEqualTo(product);
+	}
+
+	@Test
+	void roundTripsCacheEntryMetadata() {
+		CacheEntry<ProductResponse<?>> entry = new CacheEntry<>(product(8L), 1_700_000_000_000L, 42);
+
+		assertThat(serializer.deserialize(serializer.serialize(entry))).isEqualTo(entry);
+	}
+
+	@Test
+	void roundTripsListingPages() {
+		ListingPage listing = new ListingPage(List.of(900L, 12L, 12_000_000_000L), 3, 3, 250L, 84, false);
+		CacheEntry<ListingPage> entry = new CacheEntry<>(listing, 1_700_000_000_000L, 7);
+
+		assertThat(serializer.deserialize(serializer.serialize(entry))).isEqualTo(entry);
+	}
+
+	@Test
+	void readsEntriesWrittenByTheJdkSerializer() {
+		ProductResponse<?> product = product(5L);
+		byte[] legacy = new JdkSerializationRedisSerializer().serialize(product);
+
+		assertThat(serializer.deserialize(legacy)).isEqualTo(product);
+	}
+
+	@Test
+	void isMuchSmallerThanJdkSerialization() {
+		ProductResponse<?> product = product(6L);
+
+		int compact = serializer.serialize(product).length;
+		int jdk = new JdkSerializationRedisSerializer().serialize(product).length;
+
+		assertThat(compact * 4).isLessThan(jdk);
+	}
+
+	@Test
+	void isMuchSmallerThanJson() {
+		ProductResponse<?> product = product(6L);
+		ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+		int compact = serializer.serialize(product).length;
+		int json = new Jackson2JsonRedisSerializer<>(mapper, ProductResponse.class).serialize(product).length;
+
+		assertThat(compact * 2).isLessThan(json);
+	}
+
+	private static ProductResponse<?> product(Long id) {
+		return ProductResponse.builder()
+				.id(id)
+				.name("iPhone 14 Pro")
+				.description("Latest iPhone with advanced camera system")
+				.price(new BigDecimal("999.99"))
+				.stockQuantity(50)
+				.sku("IPHONE14PRO128")
+				.categoryName("Electronics")
+				.active(true)
+				.tags(List.of("phone", "apple"))
+				.createdAt(LocalDateTime.of(2024, 1, 15, 10, 30, 0, 5))
+				.updatedAt(LocalDateTime.of(2024, 1, 16, 14, 20))
+				.build();
+	}
+
+}
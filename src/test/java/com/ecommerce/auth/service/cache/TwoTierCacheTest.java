@@ -0,0 +1,218 @@
+package com.ecommerce.auth.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoTierCacheTest {
+
+	private RedisTemplate<String, Object> redisTemplate;
+	private ValueOperations<String, Object> valueOperations;
+	private StringRedisTemplate stringRedisTemplate;
+	private ValueOperations<String, String> leaseOperations;
+	private SimpleMeterRegistry meterRegistry;
+	private TwoTierCache<String> cache;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		redisTemplate = mock(RedisTemplate.class);
+		valueOperations = mock(ValueOperations.class);
+		stringRedisTemplate = mock(StringRedisTemplate.class);
+		leaseOperations = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(stringRedisTemplate.opsForValue()).thenReturn(leaseOperations);
+		when(leaseOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+		when(redisTemplate.execute(any(RedisScript.class), nullable(RedisSerializer.class),
+				nullable(RedisSerializer.class), anyList(), any(), any())).thenReturn(1L);
+		meterRegistry = new SimpleMeterRegistry();
+		cache = newCache(Duration.ofMinutes(5), Runnable::run);
+	}
+
+	private TwoTierCache<String> newCache(Duration staleTtl, Executor executor) {
+		CachePolicy policy = new CachePolicy(100, Duration.ofMinutes(1), Duration.ofMinutes(30), staleTtl,
+				0, Duration.ofSeconds(5), Duration.ofMillis(100));
+		return new TwoTierCache<>("product", policy, redisTemplate, stringRedisTemplate, executor, meterRegistry);
+	}
+
+	@Test
+	void servesRepeatedReadsFromL1WithoutRedis() {
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get("1", () -> "v" + loads.incrementAndGet());
+		String second = cache.get("1", () -> "v" + loads.incrementAndGet());
+
+		assertThat(second).isEqualTo("v1");
+		assertThat(loads).hasValue(1);
+		verify(valueOperations, times(1)).get("product:1");
+		verify(redisTemplate).execute(argThat(script -> script.getScriptAsString().contains("'PX', 2100000")),
+				nullable(RedisSerializer.class), nullable(RedisSerializer.class), eq(List.of("product:1")),
+				argThat(entry -> ((CacheEntry<?>) entry).value().equals("v1")), eq("tombstone"));
+		assertThat(meterRegistry.get("cache.gets").tags("tier", "l2", "result", "miss").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void backfillsL1FromRedis() {
+		when(valueOperations.get("product:2")).thenReturn(fresh("cached"));
+
+		assertThat(cache.get("2", () -> "loaded")).isEqualTo("cached");
+		assertThat(cache.get("2", () -> "loaded")).isEqualTo("cached");
+
+		verify(valueOperations, times(1)).get("product:2");
+		assertThat(meterRegistry.get("cache.gets").tags("tier", "l2", "result", "hit").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidationClearsBothTiersAndBroadcasts() {
+		cache.get("3", () -> "old");
+
+		cache.invalidate("3");
+
+		verify(redisTemplate).execute(argThat(script -> script.getScriptAsString().contains("'PX', 5000")),
+				nullable(RedisSerializer.class), nullable(RedisSerializer.class), eq(List.of("product:3")),
+				eq("tombstone"));
+		verify(stringRedisTemplate).convertAndSend("cache:invalidate:product", "3");
+		assertThat(cache.get("3", () -> "new")).isEqualTo("new");
+	}
+
+	@Test
+	void batchInvalidationTombstonesEveryKeyInOnePipeline() {
+		when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(1L, 0L));
+		cache.get("10", () -> "old");
+
+		cache.invalidateAll(List.of("10", "11"));
+
+		verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+		assertThat(cache.get("10", () -> "new")).isEqualTo("new");
+		assertThat(meterRegistry.get("cache.evictions").tags("tier", "l2").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void loadFinishingAfterAnInvalidationIsNotCached() {
+		// Redis refuses the write because the key is tombstoned
+		when(redisTemplate.execute(any(RedisScript.class), nullable(RedisSerializer.class),
+				nullable(RedisSerializer.class), anyList(), any(), any())).thenReturn(0L);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(cache.get("9", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+		assertThat(cache.get("9", () -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+
+		assertThat(meterRegistry.get("cache.puts.skipped").tags("reason", "tombstone").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void remoteInvalidationDropsOnlyTheLocalCopy() {
+		cache.get("4", () -> "old");
+
+		cache.onMessage(new DefaultMessage("cache:invalidate:product".getBytes(StandardCharsets.UTF_8),
+				"4".getBytes(StandardCharsets.UTF_8)), null);
+
+		assertThat(cache.get("4", () -> "new")).isEqualTo("new");
+		verify(stringRedisTemplate, times(0)).convertAndSend(any(), any());
+	}
+
+	@Test
+	void coalescesConcurrentMissesIntoOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			results.add(callers.submit(() -> cache.get("5", () -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				await(release);
+				return "loaded";
+			})));
+			loading.await();
+			for (int i = 0; i < 7; i++) {
+				results.add(callers.submit(() -> cache.get("5", () -> "v" + loads.incrementAndGet())));
+			}
+			Thread.sleep(50);
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+			}
+			assertThat(loads).hasValue(1);
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void servesStaleValueWhileRefreshingInBackground() {
+		List<Runnable> refreshes = new ArrayList<>();
+		cache = newCache(Duration.ofMinutes(5), refreshes::add);
+		when(valueOperations.get("product:6"))
+				.thenReturn(new CacheEntry<>("stale", System.currentTimeMillis() - 1000, 10));
+
+		assertThat(cache.get("6", () -> "fresh")).isEqualTo("stale");
+		assertThat(refreshes).hasSize(1);
+
+		refreshes.get(0).run();
+		assertThat(cache.get("6", () -> "unused")).isEqualTo("fresh");
+	}
+
+	@Test
+	void loadsSynchronouslyOnceStaleWindowIsDisabled() {
+		cache = newCache(Duration.ZERO, Runnable::run);
+		when(valueOperations.get("product:7"))
+				.thenReturn(new CacheEntry<>("stale", System.currentTimeMillis() - 1000, 10));
+
+		assertThat(cache.get("7", () -> "fresh")).isEqualTo("fresh");
+	}
+
+	@Test
+	void waitsForLeaseHolderOnAnotherNode() {
+		when(leaseOperations.setIfAbsent(eq("lease:product:8"), anyString(), any(Duration.class))).thenReturn(false);
+		when(valueOperations.get("product:8")).thenReturn(null, null, fresh("from-holder"));
+
+		assertThat(cache.get("8", () -> "loaded-here")).isEqualTo("from-holder");
+	}
+
+	private static CacheEntry<String> fresh(String value) {
+		return new CacheEntry<>(value, System.currentTimeMillis() + 60_000, 10);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
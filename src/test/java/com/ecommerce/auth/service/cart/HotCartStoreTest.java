@@ -0,0 +1,129 @@
+package com.ecommerce.auth.service.cart;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class HotCartStoreTest {
+
+	private static final Long USER_ID = 7L;
+
+	@Container
+	static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+	private static LettuceConnectionFactory connectionFactory;
+	private static StringRedisTemplate redisTemplate;
+
+	private HotCartStore store;
+
+	@BeforeAll
+	static void connect() {
+		connectionFactory = new LettuceConnectionFactory(
+				new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	static void disconnect() {
+		connectionFactory.destroy();
+	}
+
+	@BeforeEach
+	void setUp() {
+		redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+		store = new HotCartStore();
+		ReflectionTestUtils.setField(store, "stringRedisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(store, "ttl", Duration.ofDays(7));
+	}
+
+	@Test
+	void mutationsNeedTheCartToBeWarmedFirst() {
+		assertThat(store.apply(USER_ID, List.of(CartMutation.add(1L, 1, BigDecimal.ONE)))).isNull();
+
+		store.warm(USER_ID, new CartSnapshot(0, List.of(new CartSnapshot.Line(1L, 2, new BigDecimal("5.00")))));
+		CartSnapshot cart = store.apply(USER_ID, List.of(CartMutation.add(1L, 1, new BigDecimal("4.50"))));
+
+		assertThat(cart.version()).isEqualTo(1);
+		assertThat(cart.lines()).containsExactly(new CartSnapshot.Line(1L, 3, new BigDecimal("4.50")));
+		assertThat(cart.totalAmount()).isEqualByComparingTo("13.50");
+	}
+
+	@Test
+	void warmDoesNotOverwriteACartAlreadyInRedis() {
+		store.warm(USER_ID, CartSnapshot.empty());
+		store.apply(USER_ID, List.of(CartMutation.add(2L, 1, BigDecimal.TEN)));
+
+		CartSnapshot cart = store.warm(USER_ID, CartSnapshot.empty());
+
+		assertThat(cart.lines()).hasSize(1);
+	}
+
+	@Test
+	void batchOfMutationsIsAppliedAsOneVersion() {
+		store.warm(USER_ID, CartSnapshot.empty());
+		CartSnapshot cart = store.apply(USER_ID, List.of(
+				CartMutation.add(1L, 2, BigDecimal.ONE),
+				CartMutation.add(2L, 1, BigDecimal.TEN),
+				CartMutation.set(1L, 5, BigDecimal.ONE),
+				CartMutation.remove(2L)));
+
+		assertThat(cart.version()).isEqualTo(1);
+		assertThat(cart.lines()).containsExactly(new CartSnapshot.Line(1L, 5, BigDecimal.ONE));
+
+		CartSnapshot cleared = store.apply(USER_ID, List.of(CartMutation.clear()));
+		assertThat(cleared.version()).isEqualTo(2);
+		assertThat(cleared.isEmpty()).isTrue();
+	}
+
+	@Test
+	void dirtyCartIsClaimedOnceAndStaysDirtyIfChangedDuringFlush() {
+		store.warm(USER_ID, CartSnapshot.empty());
+		CartSnapshot flushed = store.apply(USER_ID, List.of(CartMutation.add(1L, 1, BigDecimal.ONE)));
+
+		assertThat(store.claimDirty(10, Duration.ZERO)).containsExactly(USER_ID);
+		assertThat(store.claimDirty(10, Duration.ofMinutes(1))).containsExactly(USER_ID);
+		assertThat(store.claimDirty(10, Duration.ofMinutes(1))).isEmpty(); // leased
+
+		store.apply(USER_ID, List.of(CartMutation.add(1L, 1, BigDecimal.ONE)));
+		assertThat(store.complete(USER_ID, flushed.version())).isFalse();
+		assertThat(store.claimDirty(10, Duration.ofMinutes(1))).containsExactly(USER_ID);
+
+		assertThat(store.complete(USER_ID, store.get(USER_ID).version())).isTrue();
+		assertThat(store.claimDirty(10, Duration.ofMinutes(1))).isEmpty();
+	}
+
+	@Test
+	void claimsDirtyCartsAcrossBucketsUpToTheLimit() {
+		List<Long> userIds = List.of(USER_ID, USER_ID + 1, USER_ID + HotCartStore.BUCKETS);
+		for (Long userId : userIds) {
+			store.warm(userId, CartSnapshot.empty());
+			store.apply(userId, List.of(CartMutation.add(1L, 1, BigDecimal.ONE)));
+		}
+
+		List<Long> first = store.claimDirty(2, Duration.ofMinutes(1));
+		List<Long> rest = store.claimDirty(10, Duration.ofMinutes(1));
+
+		assertThat(first).hasSize(2);
+		assertThat(rest).hasSize(1);
+		assertThat(first).doesNotContainAnyElementsOf(rest);
+		assertThat(redisTemplate.hasKey("cart:{" + USER_ID % HotCartStore.BUCKETS + "}:" + USER_ID)).isTrue();
+	}
+
+}
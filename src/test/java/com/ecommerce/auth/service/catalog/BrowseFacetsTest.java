@@ -0,0 +1,66 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.dto.response.ProductBrowseResponse;
+import com.ecommerce.auth.service.category.CategoryTree;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BrowseFacetsTest {
+
+	private static final BigDecimal[] EDGES = {new BigDecimal("0"), new BigDecimal("50"), new BigDecimal("100")};
+
+	// 1 Electronics -> 2 Phones -> 4 Cases, 1 Electronics -> 3 Laptops, 5 Home
+	private final CategoryTree tree = CategoryTree.build(List.of(
+			node(1, null, "Electronics"),
+			node(2, 1L, "Phones"),
+			node(3, 1L, "Laptops"),
+			node(4, 2L, "Cases"),
+			node(5, null, "Home")), 1);
+
+	@Test
+	void eachFacetIgnoresOnlyItsOwnFilter() {
+		BrowseFacets facets = new BrowseFacets(EDGES, tree, null, true);
+		facets.add(1, 4L, true, true, 10);   // cheap cases in stock, in range
+		facets.add(1, 4L, false, true, 3);   // cheap cases out of stock
+		facets.add(3, 3L, true, false, 5);   // expensive laptops, outside the price range
+		facets.add(2, 5L, true, true, 2);    // mid-priced home goods
+
+		assertThat(facets.matching()).isEqualTo(12);
+		assertThat(facets.priceBuckets())
+				.extracting(ProductBrowseResponse.PriceBucket::getMin, ProductBrowseResponse.PriceBucket::getMax,
+						ProductBrowseResponse.PriceBucket::getCount)
+				.containsExactly(
+						tuple(new BigDecimal("0"), new BigDecimal("50"), 10L),
+						tuple(new BigDecimal("50"), new BigDecimal("100"), 2L),
+						tuple(new BigDecimal("100"), null, 5L));
+		assertThat(facets.availability().getInStock()).isEqualTo(12);
+		assertThat(facets.availability().getOutOfStock()).isEqualTo(3);
+		assertThat(facets.categories())
+				.extracting(ProductBrowseResponse.CategoryCount::getSlug, ProductBrowseResponse.CategoryCount::getCount)
+				.containsExactly(tuple("electronics", 10L), tuple("home", 2L));
+	}
+
+	@Test
+	void categoryFacetDrillsIntoTheChildrenOfTheSelection() {
+		BrowseFacets facets = new BrowseFacets(EDGES, tree, 1L, false);
+		facets.add(1, 1L, true, true, 7);    // directly in Electronics, belongs to no child
+		facets.add(1, 4L, true, true, 4);
+		facets.add(1, 2L, true, true, 1);
+		facets.add(2, 3L, false, true, 6);
+
+		assertThat(facets.matching()).isEqualTo(18);
+		assertThat(facets.categories())
+				.extracting(ProductBrowseResponse.CategoryCount::getId, ProductBrowseResponse.CategoryCount::getCount)
+				.containsExactly(tuple(2L, 5L), tuple(3L, 6L));
+	}
+
+	private static CategoryTree.Node node(long id, Long parentId, String name) {
+		return new CategoryTree.Node(id, parentId, name, name.toLowerCase(), (int) id, true, 0);
+	}
+
+}
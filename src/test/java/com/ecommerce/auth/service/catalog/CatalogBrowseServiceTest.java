@@ -0,0 +1,122 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.dto.request.BrowseProductsRequest;
+import com.ecommerce.auth.dto.response.ProductBrowseResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.model.Category;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.CategoryRepository;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.service.ProductService;
+import com.ecommerce.auth.service.category.CategoryTreeCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Browsing runs its own repeatable-read transaction
+@Import({CatalogBrowseService.class, CategoryTreeCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogBrowseServiceTest extends PostgresTestSupport {
+
+	@MockitoBean
+	private ProductService productService;
+
+	@Autowired
+	private CatalogBrowseService browseService;
+
+	@Autowired
+	private CategoryTreeCache treeCache;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private Category electronics;
+
+	@BeforeEach
+	void seed() {
+		electronics = category("Electronics", null);
+		Category phones = category("Phones", electronics);
+		Category laptops = category("Laptops", electronics);
+		category("Home", null);
+		product("PHONE-1", phones, "19.99", 5);
+		product("PHONE-2", phones, "79.00", 0);
+		product("LAPTOP-1", laptops, "999.00", 2);
+		product("TV-1", electronics, "450.00", 1);
+		treeCache.refresh();
+
+		when(productService.getProductsByIds(any())).thenAnswer(invocation -> {
+			Map<Long, ProductResponse> products = new HashMap<>();
+			for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+				products.put(id, ProductResponse.builder().id(id).build());
+			}
+			return products;
+		});
+	}
+
+	@AfterEach
+	void cleanUp() {
+		productRepository.deleteAllInBatch();
+		categoryRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void filtersCombineAndFacetsComeFromOneGroupedQuery() {
+		ProductBrowseResponse response = browseService.browse(BrowseProductsRequest.builder()
+				.categoryId(electronics.getId())
+				.maxPrice(new BigDecimal("500"))
+				.inStock(true)
+				.sortBy("price")
+				.sortDir("desc")
+				.build());
+
+		assertThat(response.getPage().getTotalElements()).isEqualTo(2);
+		assertThat(response.getPage().getContent()).extracting(ProductResponse::getId).hasSize(2);
+		assertThat(response.getAvailability().getInStock()).isEqualTo(2);
+		assertThat(response.getAvailability().getOutOfStock()).isEqualTo(1);
+		assertThat(response.getCategories())
+				.extracting(ProductBrowseResponse.CategoryCount::getName, ProductBrowseResponse.CategoryCount::getCount)
+				.containsExactly(tuple("Phones", 1L));
+		assertThat(response.getPriceBuckets())
+				.filteredOn(bucket -> bucket.getCount() > 0)
+				.extracting(ProductBrowseResponse.PriceBucket::getMin)
+				.containsExactly(new BigDecimal("0"), new BigDecimal("250"), new BigDecimal("1000"));
+	}
+
+	private Category category(String name, Category parent) {
+		Category category = new Category();
+		category.setName(name);
+		category.setSlug(name.toLowerCase());
+		category.setParent(parent);
+		return categoryRepository.save(category);
+	}
+
+	private void product(String sku, Category category, String price, int stock) {
+		productRepository.save(Product.builder()
+				.name(sku)
+				.price(new BigDecimal(price))
+				.stockQuantity(stock)
+				.sku(sku)
+				.category(category)
+				.build());
+	}
+
+}
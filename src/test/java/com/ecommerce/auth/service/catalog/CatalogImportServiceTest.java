@@ -0,0 +1,158 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.dto.response.CatalogImportResponse;
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.model.Category;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.CategoryRepository;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.service.cache.CatalogVersions;
+import com.ecommerce.auth.service.cache.TwoTierCache;
+import com.ecommerce.auth.service.category.CategoryStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+// The import commits its own transaction
+@Import({CatalogImportService.class, CatalogImportServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogImportServiceTest extends PostgresTestSupport {
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+	}
+
+	@MockitoBean
+	private CatalogVersions catalogVersions;
+
+	@MockitoBean
+	private TwoTierCache<ProductResponse> productCache;
+
+	@MockitoBean
+	private CategoryStatsService categoryStatsService;
+
+	@Autowired
+	private CatalogImportService importService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Category phones;
+	private Product changed;
+
+	@BeforeEach
+	void seed() {
+		phones = new Category();
+		phones.setName("Phones");
+		phones.setSlug("phones");
+		phones = categoryRepository.save(phones);
+		changed = productRepository.save(product("CASE-1", "9.99", 10));
+		productRepository.save(product("CASE-2", "5.00", 3));
+		Product hot = productRepository.save(product("CASE-3", "7.00", 40));
+		jdbcTemplate.update("UPDATE products SET hot_stock = true WHERE id = ?", hot.getId());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM outbox_events");
+		productRepository.deleteAllInBatch();
+		categoryRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void csvFeedIsUpsertedOnSku() {
+		long sequenceBefore = sequenceValue();
+		CatalogImportResponse report = importService.importProducts(feed("""
+				sku,name,description,price,stockQuantity,category
+				CASE-1,Case CASE-1,,12.50,10,phones
+				CASE-2,Case CASE-2,,5.00,3,Phones
+				CASE-3,Case CASE-3,,7.00,99,phones
+				CASE-4,Case CASE-4,New,3.00,1,phones
+				CASE-4,Case CASE-4,Newer,3.25,1,phones
+				bad sku,Case,,1.00,1,phones
+				CASE-5,Case CASE-5,,1.00,1,tablets
+				"""), CatalogFormat.CSV);
+
+		assertThat(report.getRead()).isEqualTo(7);
+		assertThat(report.getRejected()).isEqualTo(2);
+		assertThat(report.getRejects()).extracting(CatalogImportResponse.Reject::getLine).containsExactly(7L, 8L);
+		assertThat(report.getInserted()).isEqualTo(1);
+		assertThat(report.getUpdated()).isEqualTo(1);
+		assertThat(report.getUnchanged()).isEqualTo(2); // CASE-2, and CASE-3 whose stock lives in Redis
+		assertThat(report.getDuplicates()).isEqualTo(1);
+
+		assertThat(productRepository.findBySkuAndActiveTrue("CASE-1").orElseThrow().getPrice()).isEqualByComparingTo("12.50");
+		assertThat(productRepository.findBySkuAndActiveTrue("CASE-3").orElseThrow().getStockQuantity()).isEqualTo(40);
+		assertThat(productRepository.findBySkuAndActiveTrue("CASE-4").orElseThrow().getDescription()).isEqualTo("Newer");
+		verify(productCache).invalidate(String.valueOf(changed.getId()));
+		verify(categoryStatsService).reconcile();
+		// Only the new SKU draws from products_seq, which steps by the allocation size
+		assertThat(sequenceValue() - sequenceBefore).isEqualTo(50);
+		assertThat(jdbcTemplate.queryForList(
+				"SELECT event_type || ':' || aggregate_id FROM outbox_events ORDER BY id", String.class))
+				.containsExactlyInAnyOrder(
+						"product.updated:" + changed.getId(),
+						"product.created:" + productRepository.findBySkuAndActiveTrue("CASE-4").orElseThrow().getId());
+	}
+
+	@Test
+	void ndjsonFeedIsImported() {
+		CatalogImportResponse report = importService.importProducts(feed("""
+				{"sku":"CASE-9","name":"Case\\twith tab","price":19.99,"stockQuantity":2,"category":"Phones"}
+
+				{"sku":"CASE-10",
+				"""), CatalogFormat.NDJSON);
+
+		assertThat(report.getInserted()).isEqualTo(1);
+		assertThat(report.getRejects()).singleElement()
+				.satisfies(reject -> assertThat(reject.getReason()).startsWith("Invalid JSON"));
+		assertThat(productRepository.findBySkuAndActiveTrue("CASE-9").orElseThrow().getName()).isEqualTo("Case\twith tab");
+	}
+
+	private long sequenceValue() {
+		return jdbcTemplate.queryForObject("SELECT last_value FROM products_seq", Long.class);
+	}
+
+	private Product product(String sku, String price, int stock) {
+		return Product.builder()
+				.name("Case " + sku)
+				.price(new BigDecimal(price))
+				.stockQuantity(stock)
+				.sku(sku)
+				.category(phones)
+				.build();
+	}
+
+	private static ByteArrayInputStream feed(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
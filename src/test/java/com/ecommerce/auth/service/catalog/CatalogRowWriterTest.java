@@ -0,0 +1,55 @@
+package com.ecommerce.auth.service.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogRowWriterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void csvExportReadsBackThroughTheImportReader() throws Exception {
+		String csv = export(CatalogFormat.CSV);
+
+		CsvCatalogRowReader reader = new CsvCatalogRowReader(new BufferedReader(new StringReader(csv)));
+		CatalogRow quoted = reader.next();
+		assertThat(quoted.name()).isEqualTo("Case, \"rugged\"");
+		assertThat(quoted.description()).isEqualTo("Two\nlines");
+		assertThat(quoted.price()).isEqualTo("9.99");
+		CatalogRow plain = reader.next();
+		assertThat(plain.description()).isNull();
+		assertThat(plain.category()).isNull();
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void ndjsonExportHasOneObjectPerLine() throws Exception {
+		String[] lines = export(CatalogFormat.NDJSON).split("\n");
+
+		assertThat(lines).hasSize(2);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertThat(first.get("sku").asText()).isEqualTo("CASE-1");
+		assertThat(first.get("description").asText()).isEqualTo("Two\nlines");
+		assertThat(first.get("price").decimalValue()).isEqualByComparingTo("9.99");
+		assertThat(objectMapper.readTree(lines[1]).has("category")).isFalse();
+	}
+
+	private String export(CatalogFormat format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CatalogRowWriter writer = CatalogRowWriter.open(format, out, objectMapper.getFactory())) {
+			writer.write(1, "CASE-1", "Case, \"rugged\"", "Two\nlines", new BigDecimal("9.99"), 5, "phones");
+			writer.write(2, "CASE-2", "Plain case", null, new BigDecimal("4.50"), 0, null);
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+}
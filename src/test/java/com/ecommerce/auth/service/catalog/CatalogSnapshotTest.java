@@ -0,0 +1,83 @@
+package com.ecommerce.auth.service.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+	// id, price, stock, created, category: 0 = "Phones", 1 = "Phone cases", 2 = "Laptops", -1 none
+	private final CatalogSnapshot snapshot = new CatalogSnapshot(7, Instant.EPOCH, 6,
+			new long[]{10, 11, 12, 13, 14, 15},
+			new long[]{1999, 500, 1999, 99900, 500, 2500},
+			new int[]{3, 0, 8, 1, 2, 5},
+			new long[]{60, 50, 40, 30, 20, 10},
+			new int[]{0, 1, 0, 2, -1, 1},
+			new String[]{"Phones", "Phone cases", "Laptops"});
+
+	@Test
+	void pagesWalkThePresortedPermutationWithIdTieBreak() {
+		assertThat(snapshot.page(null, CatalogSnapshot.SortField.PRICE, false, 0, 4).productIds())
+				.containsExactly(11, 14, 10, 12);
+		assertThat(snapshot.page(null, CatalogSnapshot.SortField.PRICE, true, 0, 3).productIds())
+				.containsExactly(13, 15, 12);
+		assertThat(snapshot.page(null, CatalogSnapshot.SortField.CREATED_AT, false, 4, 10).productIds())
+				.containsExactly(11, 10);
+	}
+
+	@Test
+	void nameOrderIsLeftToTheDatabaseCollation() {
+		assertThat(CatalogSnapshot.SortField.of("name")).isNull();
+		assertThat(CatalogSnapshot.SortField.of("price")).isEqualTo(CatalogSnapshot.SortField.PRICE);
+	}
+
+	@Test
+	void categoryFilterMatchesNamesLikeTheDatabaseListing() {
+		BitSet phones = snapshot.rowsInCategoriesNamed("phone");
+
+		CatalogSnapshot.Slice first = snapshot.page(phones, CatalogSnapshot.SortField.STOCK_QUANTITY, false, 0, 2);
+		CatalogSnapshot.Slice second = snapshot.page(phones, CatalogSnapshot.SortField.STOCK_QUANTITY, false, 2, 2);
+
+		assertThat(first.total()).isEqualTo(4);
+		assertThat(first.productIds()).containsExactly(11, 10);
+		assertThat(second.productIds()).containsExactly(15, 12);
+		assertThat(snapshot.page(snapshot.rowsInCategoriesNamed("tablets"),
+				CatalogSnapshot.SortField.ID, false, 0, 10).total()).isZero();
+	}
+
+	@Test
+	void largeSnapshotsMatchASequentialScan() {
+		int size = CatalogSnapshot.PARALLEL_THRESHOLD * 3 + 17;
+		Random random = new Random(42);
+		long[] ids = new long[size];
+		long[] prices = new long[size];
+		int[] ordinals = new int[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = i + 1;
+			prices[i] = random.nextInt(1000);
+			ordinals[i] = random.nextInt(5) - 1;
+		}
+		CatalogSnapshot large = new CatalogSnapshot(1, Instant.EPOCH, size, ids, prices, new int[size],
+				new long[size], ordinals, new String[]{"Alpha", "Beta", "Gamma", "Betamax"});
+
+		BitSet expected = new BitSet();
+		for (int i = 0; i < size; i++) {
+			if (ordinals[i] == 1 || ordinals[i] == 3) {
+				expected.set(i);
+			}
+		}
+		assertThat(large.rowsInCategoriesNamed("beta")).isEqualTo(expected);
+
+		long[] byPrice = large.page(null, CatalogSnapshot.SortField.PRICE, false, 0, size).productIds();
+		for (int i = 1; i < size; i++) {
+			long previous = prices[(int) byPrice[i - 1] - 1];
+			long current = prices[(int) byPrice[i] - 1];
+			assertThat(previous < current || previous == current && byPrice[i - 1] < byPrice[i]).isTrue();
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.auth.service.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvCatalogRowReaderTest {
+
+	@Test
+	void readsQuotedFieldsSpanningLines() throws Exception {
+		CsvCatalogRowReader reader = reader("""
+				SKU,Name,Description,Price,Stock_Quantity,Category\r
+				CASE-1,"Case, rugged","Says ""hi""
+				on two lines",9.99,5,phones\r
+				CASE-2,Plain case,,4.50,0,Phones
+				""");
+
+		CatalogRow first = reader.next();
+		assertThat(first.line()).isEqualTo(2);
+		assertThat(first.name()).isEqualTo("Case, rugged");
+		assertThat(first.description()).isEqualTo("Says \"hi\"\non two lines");
+		assertThat(first.stockQuantity()).isEqualTo("5");
+
+		CatalogRow second = reader.next();
+		assertThat(second.line()).isEqualTo(4);
+		assertThat(second.description()).isNull();
+		assertThat(second.category()).isEqualTo("Phones");
+
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void recordWithWrongFieldCountIsMalformedAndReadingContinues() throws Exception {
+		CsvCatalogRowReader reader = reader("""
+				sku,name,price,stockQuantity,category
+				CASE-1,Case,9.99
+				CASE-2,Case,9.99,1,phones
+				""");
+
+		assertThat(reader.next().malformed()).contains("Expected 5 fields");
+		assertThat(reader.next().sku()).isEqualTo("CASE-2");
+	}
+
+	@Test
+	void headerMustNameTheRequiredColumns() {
+		assertThatThrownBy(() -> reader("sku,name,price\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("stockquantity");
+	}
+
+	private static CsvCatalogRowReader reader(String csv) throws Exception {
+		return new CsvCatalogRowReader(new BufferedReader(new StringReader(csv)));
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.ecommerce.auth.service.category;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.model.Category;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.repository.CategoryRepository;
+import com.ecommerce.auth.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({CategoryStatsService.class, CategoryTreeCache.class, CategoryStatsServiceTest.Config.class})
+class CategoryStatsServiceTest extends PostgresTestSupport {
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private CategoryStatsService statsService;
+
+	@Autowired
+	private CategoryTreeCache treeCache;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Category electronics;
+	private Category phones;
+	private Category home;
+
+	@BeforeEach
+	void seed() {
+		electronics = category("Electronics", null);
+		phones = category("Phones", electronics);
+		home = category("Home", null);
+		product("PHONE-1", phones);
+		product("PHONE-2", phones);
+		product("TV-1", electronics);
+		treeCache.refresh();
+	}
+
+	@Test
+	void reconciliationFillsMissingRows() {
+		assertThat(statsService.reconcile()).isEqualTo(3);
+
+		assertThat(stats(phones)).containsExactly(2L, 2L);
+		assertThat(stats(electronics)).containsExactly(1L, 3L);
+		assertThat(stats(home)).containsExactly(0L, 0L);
+		assertThat(statsService.reconcile()).isZero();
+	}
+
+	@Test
+	void moveAdjustsBothPathsButNotSharedAncestors() {
+		statsService.reconcile();
+
+		statsService.recordMove(phones.getId(), electronics.getId());
+		assertThat(stats(phones)).containsExactly(1L, 1L);
+		assertThat(stats(electronics)).containsExactly(2L, 3L);
+
+		statsService.recordMove(electronics.getId(), home.getId());
+		assertThat(stats(electronics)).containsExactly(1L, 2L);
+		assertThat(stats(home)).containsExactly(1L, 1L);
+
+		statsService.recordMove(null, phones.getId());
+		assertThat(stats(phones)).containsExactly(2L, 2L);
+		assertThat(stats(electronics)).containsExactly(1L, 3L);
+	}
+
+	@Test
+	void reconciliationCorrectsDrift() {
+		statsService.reconcile();
+		jdbcTemplate.update("UPDATE category_stats SET product_count = 40, subtree_product_count = 41 WHERE category_id = ?",
+				phones.getId());
+
+		assertThat(statsService.reconcile()).isEqualTo(1);
+		assertThat(stats(phones)).containsExactly(2L, 2L);
+	}
+
+	@Test
+	void treeReadsCountsFromStatsInsteadOfProducts() {
+		statsService.reconcile();
+		treeCache.refresh();
+
+		CategoryTree tree = treeCache.current();
+		assertThat(tree.productCount(electronics.getId())).isEqualTo(1);
+		assertThat(tree.subtreeProductCount(electronics.getId())).isEqualTo(3);
+	}
+
+	private List<Long> stats(Category category) {
+		return jdbcTemplate.queryForObject(
+				"SELECT product_count, subtree_product_count FROM category_stats WHERE category_id = ?",
+				(rs, i) -> List.of(rs.getLong(1), rs.getLong(2)), category.getId());
+	}
+
+	private Category category(String name, Category parent) {
+		Category category = new Category();
+		category.setName(name);
+		category.setSlug(name.toLowerCase());
+		category.setParent(parent);
+		return categoryRepository.saveAndFlush(category);
+	}
+
+	private void product(String sku, Category category) {
+		productRepository.saveAndFlush(Product.builder()
+				.name(sku)
+				.price(new BigDecimal("9.99"))
+				.stockQuantity(1)
+				.sku(sku)
+				.category(category)
+				.build());
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.auth.service.category;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryTreeTest {
+
+	//  1 Electronics (sort 0)      5 Home (sort 1)
+	//  ├─ 3 Phones (sort 0)        └─ 6 Kitchen
+	//  │  └─ 4 Cases
+	//  └─ 2 Laptops (sort 1)
+	private final CategoryTree tree = CategoryTree.build(List.of(
+			node(5, null, "Home", 1, 2),
+			node(4, 3L, "Cases", 0, 7),
+			node(2, 1L, "Laptops", 1, 3),
+			node(1, null, "Electronics", 0, 0),
+			node(6, 5L, "Kitchen", 0, 1),
+			node(3, 1L, "Phones", 0, 5)), 1);
+
+	@Test
+	void categoriesAreNumberedInPreOrderBySortOrder() {
+		assertThat(tree.rootIds()).containsExactly(1L, 5L);
+		assertThat(tree.childIds(1)).containsExactly(3L, 2L);
+		assertThat(tree.subtreeIds(1)).containsExactly(1, 3, 4, 2);
+		assertThat(tree.position(5)).isEqualTo(4);
+	}
+
+	@Test
+	void hierarchyQueriesAreAnsweredFromTheSnapshot() {
+		assertThat(tree.depth(4)).isEqualTo(2);
+		assertThat(tree.parentId(4)).isEqualTo(3L);
+		assertThat(tree.parentId(1)).isNull();
+		assertThat(tree.ancestorIds(4)).containsExactly(1L, 3L);
+		assertThat(tree.isInSubtree(4, 1)).isTrue();
+		assertThat(tree.isInSubtree(2, 3)).isFalse();
+		assertThat(tree.isInSubtree(3, 3)).isTrue();
+		assertThat(tree.isLeaf(2)).isTrue();
+		assertThat(tree.isLeaf(3)).isFalse();
+	}
+
+	@Test
+	void productCountsRollUpToEveryAncestor() {
+		assertThat(tree.productCount(1)).isZero();
+		assertThat(tree.subtreeProductCount(3)).isEqualTo(12);
+		assertThat(tree.subtreeProductCount(1)).isEqualTo(15);
+		assertThat(tree.subtreeProductCount(5)).isEqualTo(3);
+	}
+
+	@Test
+	void unknownIdsLookLikeAnEmptySubtree() {
+		assertThat(tree.contains(99)).isFalse();
+		assertThat(tree.depth(99)).isEqualTo(-1);
+		assertThat(tree.ancestorIds(99)).isEmpty();
+		assertThat(tree.subtreeIds(99)).isEmpty();
+		assertThat(tree.isInSubtree(99, 1)).isFalse();
+		assertThat(tree.subtreeProductCount(99)).isZero();
+	}
+
+	@Test
+	void orphansBecomeRootsAndCyclesAreDropped() {
+		CategoryTree broken = CategoryTree.build(List.of(
+				node(1, 42L, "Orphan", 0, 0),
+				node(2, 3L, "Loop A", 0, 0),
+				node(3, 2L, "Loop B", 0, 0)), 1);
+
+		assertThat(broken.rootIds()).containsExactly(1L);
+		assertThat(broken.size()).isEqualTo(1);
+	}
+
+	@Test
+	void deepChainsDoNotOverflowTheStack() {
+		List<CategoryTree.Node> chain = new ArrayList<>();
+		chain.add(node(0, null, "Level 0", 0, 1));
+		for (long id = 1; id < 100_000; id++) {
+			chain.add(node(id, id - 1, "Level " + id, 0, 1));
+		}
+
+		CategoryTree deep = CategoryTree.build(chain, 1);
+
+		assertThat(deep.depth(99_999)).isEqualTo(99_999);
+		assertThat(deep.subtreeProductCount(0)).isEqualTo(100_000);
+	}
+
+	private static CategoryTree.Node node(long id, Long parentId, String name, int sortOrder, long products) {
+		return new CategoryTree.Node(id, parentId, name, name.toLowerCase(), sortOrder, true, products);
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.auth.service.inventory;
+
+import com.ecommerce.auth.service.event.StockChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockServiceTest {
+
+	private static final Long PRODUCT_ID = 42L;
+	private static final int SHARDS = 8;
+
+	@Mock
+	private StringRedisTemplate stringRedisTemplate;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private ShardedStockCounter counter;
+
+	@InjectMocks
+	private HotStockService hotStockService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(hotStockService, "counter", counter);
+		ReflectionTestUtils.setField(hotStockService, "hotProducts", Map.of(PRODUCT_ID, SHARDS));
+	}
+
+	@Test
+	void partialDrawStrandedByADemotionGoesBackToTheRow() {
+		when(counter.take(PRODUCT_ID, SHARDS, 5)).thenReturn(new ShardedStockCounter.Take(false, 3));
+
+		assertThat(hotStockService.take(PRODUCT_ID, 5)).isFalse();
+
+		verify(jdbcTemplate).update(anyString(), eq(3), eq(PRODUCT_ID));
+		verify(eventPublisher).publishEvent(new StockChangedEvent(Set.of(PRODUCT_ID)));
+	}
+
+	@Test
+	void shortfallWithEverythingPutBackLeavesTheRowAlone() {
+		when(counter.take(PRODUCT_ID, SHARDS, 5)).thenReturn(new ShardedStockCounter.Take(false, 0));
+
+		assertThat(hotStockService.take(PRODUCT_ID, 5)).isFalse();
+
+		verifyNoInteractions(jdbcTemplate, eventPublisher);
+	}
+
+}
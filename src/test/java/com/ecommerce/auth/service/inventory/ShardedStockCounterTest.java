@@ -0,0 +1,107 @@
+package com.ecommerce.auth.service.inventory;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ShardedStockCounterTest {
+
+	private static final long PRODUCT_ID = 42L;
+	private static final int SHARDS = 8;
+
+	@Container
+	static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+	private static LettuceConnectionFactory connectionFactory;
+	private static StringRedisTemplate redisTemplate;
+
+	private ShardedStockCounter counter;
+
+	@BeforeAll
+	static void connect() {
+		connectionFactory = new LettuceConnectionFactory(
+				new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	static void disconnect() {
+		connectionFactory.destroy();
+	}
+
+	@BeforeEach
+	void setUp() {
+		redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+		counter = new ShardedStockCounter(redisTemplate);
+	}
+
+	@Test
+	void concurrentBuyersNeverOversellAcrossShards() throws Exception {
+		counter.seed(PRODUCT_ID, 500, SHARDS);
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger sold = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			int quantity = 1 + i % 3;
+			futures.add(pool.submit(() -> {
+				start.await();
+				if (counter.take(PRODUCT_ID, SHARDS, quantity).taken()) {
+					sold.addAndGet(quantity);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(sold.get()).isLessThanOrEqualTo(500);
+		assertThat(counter.total(PRODUCT_ID, SHARDS)).isEqualTo(500 - sold.get()).isNotNegative();
+	}
+
+	@Test
+	void fragmentedStockIsGatheredAcrossShards() {
+		counter.seed(PRODUCT_ID, 8, SHARDS); // one unit per shard
+
+		assertThat(counter.take(PRODUCT_ID, SHARDS, 5).taken()).isTrue();
+		assertThat(counter.total(PRODUCT_ID, SHARDS)).isEqualTo(3);
+
+		assertThat(counter.take(PRODUCT_ID, SHARDS, 4)).isEqualTo(new ShardedStockCounter.Take(false, 0));
+		assertThat(counter.total(PRODUCT_ID, SHARDS)).isEqualTo(3);
+	}
+
+	@Test
+	void giveBackFailsOnceShardsAreDrained() {
+		counter.seed(PRODUCT_ID, 10, SHARDS);
+
+		assertThat(counter.drain(PRODUCT_ID, SHARDS)).isEqualTo(10);
+		assertThat(counter.giveBack(PRODUCT_ID, SHARDS, 2)).isFalse();
+		assertThat(counter.take(PRODUCT_ID, SHARDS, 1)).isEqualTo(new ShardedStockCounter.Take(false, 0));
+	}
+
+}
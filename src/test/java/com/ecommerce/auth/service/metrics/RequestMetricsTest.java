@@ -0,0 +1,58 @@
+package com.ecommerce.auth.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final RequestMetrics requestMetrics = new RequestMetrics(registry);
+
+	@Test
+	void recordsLatencyAndIoUnderTheFinalTags() {
+		try (RequestMetrics.Sample sample = requestMetrics.start("catalog.products.list").tag("cache", "none")) {
+			RequestMetrics.countStatement();
+			RequestMetrics.countRedisRoundTrip();
+			RequestMetrics.countRedisRoundTrip();
+			sample.tag("cache", "miss");
+		}
+
+		Timer timer = registry.get("catalog.products.list").tag("cache", "miss").timer();
+		assertThat(timer.count()).isEqualTo(1);
+		assertThat(summary("catalog.products.list.db.statements").totalAmount()).isEqualTo(1);
+		assertThat(summary("catalog.products.list.redis.round.trips").totalAmount()).isEqualTo(2);
+		assertThat(registry.find("catalog.products.list").tag("cache", "none").timer()).isNull();
+	}
+
+	@Test
+	void outerSamplesIncludeTheIoOfNestedOnes() throws Exception {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(mock(Connection.class));
+		DataSource dataSource = new StatementCountingDataSource(target);
+
+		try (RequestMetrics.Sample outer = requestMetrics.start("cart.requests").tag("operation", "addItem")) {
+			try (RequestMetrics.Sample inner = requestMetrics.start("catalog.products.get").tag("cache", "miss");
+				 Connection connection = dataSource.getConnection()) {
+				connection.prepareStatement("SELECT 1");
+			}
+			dataSource.getConnection().createStatement();
+		}
+
+		assertThat(registry.get("catalog.products.get.db.statements").summary().totalAmount()).isEqualTo(1);
+		assertThat(registry.get("cart.requests.db.statements").summary().totalAmount()).isEqualTo(2);
+	}
+
+	private DistributionSummary summary(String name) {
+		return registry.get(name).tag("cache", "miss").summary();
+	}
+
+}
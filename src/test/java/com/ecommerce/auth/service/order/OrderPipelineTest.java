@@ -0,0 +1,208 @@
+package com.ecommerce.auth.service.order;
+
+import com.ecommerce.auth.dto.response.ProductResponse;
+import com.ecommerce.auth.model.Order;
+import com.ecommerce.auth.model.OrderItem;
+import com.ecommerce.auth.model.OrderStatus;
+import com.ecommerce.auth.model.PaymentStatus;
+import com.ecommerce.auth.model.Product;
+import com.ecommerce.auth.model.User;
+import com.ecommerce.auth.repository.OrderRepository;
+import com.ecommerce.auth.repository.ProductRepository;
+import com.ecommerce.auth.repository.projection.ProductPrice;
+import com.ecommerce.auth.service.CartService;
+import com.ecommerce.auth.service.InventoryService;
+import com.ecommerce.auth.service.ProductService;
+import com.ecommerce.auth.service.event.OrderPlacedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPipelineTest {
+
+	private static final Long ORDER_ID = 42L;
+	private static final Long PRODUCT_ID = 1L;
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	@Mock
+	private ProductService productService;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private InventoryService inventoryService;
+
+	@Mock
+	private CartService cartService;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private TaskExecutor orderPipelineExecutor;
+
+	@InjectMocks
+	private OrderPipeline pipeline;
+
+	private Order order;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(pipeline, "lease", Duration.ofMinutes(2));
+		ReflectionTestUtils.setField(pipeline, "shippingAmount", new BigDecimal("5.00"));
+		order = pendingOrder(new BigDecimal("10.00"), 2);
+	}
+
+	@Test
+	void orderLeasedByAnotherWorkerIsLeftAlone() {
+		when(orderRepository.claimForPipeline(eq(ORDER_ID), any(), any())).thenReturn(0);
+
+		pipeline.process(ORDER_ID);
+
+		verify(orderRepository, never()).findWithItemsById(any());
+		verifyNoInteractions(productService, inventoryService, eventPublisher);
+	}
+
+	@Test
+	void confirmsAtTheDatabasePriceRatherThanTheCachedOne() {
+		claimAndLoad();
+		// The cache still holds the old price; the row has been repriced since
+		when(productService.getProductsByIds(any())).thenReturn(Map.of(PRODUCT_ID, new ProductResponse()));
+		when(inventoryService.reserve(anyMap())).thenReturn("reservation-1");
+		when(productRepository.lockActivePrices(List.of(PRODUCT_ID)))
+				.thenReturn(List.of(price(PRODUCT_ID, new BigDecimal("12.00"))));
+
+		pipeline.process(ORDER_ID);
+
+		OrderItem item = order.getOrderItems().get(0);
+		assertThat(item.getUnitPrice()).isEqualByComparingTo("12.00");
+		assertThat(item.getSubtotal()).isEqualByComparingTo("24.00");
+		assertThat(order.getTotalAmount()).isEqualByComparingTo("31.40"); // 24.00 + 10% tax + 5.00 shipping
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(order.getPaymentStatus()).isEqualTo(PaymentStatus.PROCESSING);
+		assertThat(order.getStockReservationId()).isEqualTo("reservation-1");
+		assertThat(order.getPipelineLeaseUntil()).isNull();
+		verify(inventoryService).confirm("reservation-1");
+		ArgumentCaptor<OrderPlacedEvent> placed = ArgumentCaptor.forClass(OrderPlacedEvent.class);
+		verify(eventPublisher).publishEvent(placed.capture());
+		assertThat(placed.getValue().totalAmount()).isEqualByComparingTo("31.40");
+		verify(cartService).removeProducts(7L, Set.of(PRODUCT_ID));
+	}
+
+	@Test
+	void productWithdrawnAfterReservationRejectsTheOrderAndReleasesStock() {
+		claimAndLoad();
+		when(productService.getProductsByIds(any())).thenReturn(Map.of(PRODUCT_ID, new ProductResponse()));
+		when(inventoryService.reserve(anyMap())).thenReturn("reservation-1");
+		when(productRepository.lockActivePrices(List.of(PRODUCT_ID))).thenReturn(List.of());
+		when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+
+		pipeline.process(ORDER_ID);
+
+		verify(inventoryService).release("reservation-1");
+		verify(inventoryService, never()).confirm(any());
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+		assertThat(order.getFailureReason()).isEqualTo("Product is no longer available: " + PRODUCT_ID);
+		verify(orderRepository).save(order);
+		verifyNoInteractions(eventPublisher, cartService);
+	}
+
+	@Test
+	void unexpectedFailureReleasesStockAndLeavesTheOrderForRetryAfterTheLease() {
+		claimAndLoad();
+		when(productService.getProductsByIds(any())).thenReturn(Map.of(PRODUCT_ID, new ProductResponse()));
+		when(inventoryService.reserve(anyMap())).thenReturn("reservation-1");
+		when(productRepository.lockActivePrices(List.of(PRODUCT_ID)))
+				.thenReturn(List.of(price(PRODUCT_ID, new BigDecimal("10.00"))));
+		doThrow(new IllegalStateException("connection reset")).when(inventoryService).confirm("reservation-1");
+
+		pipeline.process(ORDER_ID);
+
+		verify(inventoryService).release("reservation-1");
+		verify(orderRepository, never()).findById(any());
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+		verifyNoInteractions(eventPublisher, cartService);
+	}
+
+	@Test
+	void recoverySweepResubmitsStalledOrders() {
+		when(orderRepository.findStalledPendingIds(any(), any(), eq(Limit.of(100)))).thenReturn(List.of(ORDER_ID, 43L));
+
+		pipeline.resumeStalledOrders();
+
+		verify(orderPipelineExecutor, times(2)).execute(any(Runnable.class));
+	}
+
+	private void claimAndLoad() {
+		when(orderRepository.claimForPipeline(eq(ORDER_ID), any(), any())).thenReturn(1);
+		when(orderRepository.findWithItemsById(ORDER_ID)).thenReturn(Optional.of(order));
+	}
+
+	private static Order pendingOrder(BigDecimal unitPrice, int quantity) {
+		User user = new User();
+		user.setId(7L);
+		Product product = new Product();
+		product.setId(PRODUCT_ID);
+		Order order = new Order();
+		order.setId(ORDER_ID);
+		order.setUser(user);
+		order.setStatus(OrderStatus.PENDING);
+		order.setShippingAmount(BigDecimal.ZERO);
+		order.addOrderItem(OrderItem.builder()
+				.product(product)
+				.quantity(quantity)
+				.unitPrice(unitPrice)
+				.subtotal(unitPrice.multiply(BigDecimal.valueOf(quantity)))
+				.build());
+		return order;
+	}
+
+	private static ProductPrice price(Long id, BigDecimal price) {
+		return new ProductPrice() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public BigDecimal getPrice() {
+				return price;
+			}
+		};
+	}
+
+}
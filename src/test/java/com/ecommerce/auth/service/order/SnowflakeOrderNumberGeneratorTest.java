@@ -0,0 +1,89 @@
+package com.ecommerce.auth.service.order;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+	private static final int NODES = 4;
+	private static final int THREADS_PER_NODE = 8;
+	private static final int IDS_PER_THREAD = 50_000;
+
+	@Test
+	void idsAreUniqueAcrossThreadsAndNodes() throws Exception {
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int node = 0; node < NODES; node++) {
+			// Every node sees the same frozen clock, so only node id and sequence separate them
+			SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(node, () -> 1_800_000_000_000L);
+			for (int t = 0; t < THREADS_PER_NODE; t++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					String previous = "";
+					for (int i = 0; i < IDS_PER_THREAD; i++) {
+						String next = generator.next();
+						assertThat(next).isGreaterThan(previous);
+						seen.add(next);
+						previous = next;
+					}
+					return null;
+				}));
+			}
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(seen).hasSize(NODES * THREADS_PER_NODE * IDS_PER_THREAD);
+	}
+
+	@Test
+	void staysMonotonicWhenTheClockStepsBack() {
+		AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+		SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, clock::get);
+
+		long first = generator.nextId();
+		clock.addAndGet(-5_000);
+		long second = generator.nextId();
+		clock.addAndGet(10_000);
+		long third = generator.nextId();
+
+		assertThat(second).isGreaterThan(first);
+		assertThat(third).isGreaterThan(second);
+		assertThat(third >>> 22).isEqualTo(1_800_000_005_000L - SnowflakeOrderNumberGenerator.EPOCH_MILLIS);
+	}
+
+	@Test
+	void encodingIsFixedWidthAndSortsLikeTheId() {
+		assertThat(SnowflakeOrderNumberGenerator.encode(0)).isEqualTo("ORD-0000000000000");
+		assertThat(SnowflakeOrderNumberGenerator.encode(31)).isEqualTo("ORD-000000000000Z");
+		assertThat(SnowflakeOrderNumberGenerator.encode(32)).isEqualTo("ORD-0000000000010");
+		assertThat(SnowflakeOrderNumberGenerator.encode(Long.MAX_VALUE))
+				.isGreaterThan(SnowflakeOrderNumberGenerator.encode(Long.MAX_VALUE - 1))
+				.hasSize(17);
+	}
+
+	@Test
+	void nodeIdMustFitInTenBits() {
+		assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(1024))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.auth.service.outbox;
+
+import com.ecommerce.auth.PostgresTestSupport;
+import com.ecommerce.auth.model.OutboxEvent;
+import com.ecommerce.auth.repository.OutboxEventRepository;
+import com.ecommerce.auth.service.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Relays run on their own threads, so the test itself must not hold a transaction
+@Import({OutboxWriter.class, OutboxRelay.class, OutboxRelayTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest extends PostgresTestSupport {
+
+	private static final int EVENTS = 1000;
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		RecordingSink recordingSink() {
+			return new RecordingSink();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	static class RecordingSink implements OutboxSink {
+
+		final List<Long> published = Collections.synchronizedList(new ArrayList<>());
+		final AtomicBoolean failing = new AtomicBoolean();
+
+		@Override
+		public void publish(List<OutboxEvent> events) {
+			if (failing.get()) {
+				throw new IllegalStateException("sink unavailable");
+			}
+			events.forEach(event -> published.add(event.getId()));
+		}
+	}
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private RecordingSink sink;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@AfterEach
+	void cleanUp() {
+		outboxEventRepository.deleteAllInBatch();
+		sink.published.clear();
+		sink.failing.set(false);
+	}
+
+	@Test
+	void eventIsOnlyRecordedWhenTheTransactionCommits() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.executeWithoutResult(status -> eventPublisher.publishEvent(changed(1L)));
+		tx.executeWithoutResult(status -> {
+			eventPublisher.publishEvent(changed(2L));
+			status.setRollbackOnly();
+		});
+
+		assertThat(outboxEventRepository.findAll())
+				.extracting(OutboxEvent::getAggregateId, OutboxEvent::getEventType)
+				.containsExactly(tuple("1", "product.updated"));
+	}
+
+	@Test
+	void concurrentRelaysPublishEveryEventExactlyOnce() throws Exception {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.executeWithoutResult(status -> {
+			for (long id = 1; id <= EVENTS; id++) {
+				eventPublisher.publishEvent(changed(id));
+			}
+		});
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				relay.relay();
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(sink.published).hasSize(EVENTS).doesNotHaveDuplicates();
+		assertThat(outboxEventRepository.count()).isZero();
+		assertThat(meterRegistry.counter("outbox.relay.published").count()).isEqualTo(EVENTS);
+	}
+
+	@Test
+	void failedBatchStaysInTheOutbox() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				eventPublisher.publishEvent(changed(1L)));
+
+		sink.failing.set(true);
+		relay.relay();
+		assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+		sink.failing.set(false);
+		relay.relay();
+		assertThat(outboxEventRepository.count()).isZero();
+		assertThat(sink.published).hasSize(1);
+	}
+
+	private static ProductChangedEvent changed(Long productId) {
+		return new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, productId,
+				"Product " + productId, null, "SKU-" + productId, null, null);
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.auth.service.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTest {
+
+	@Test
+	void roundTripsSortAndTypedKeys() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("price", new BigDecimal("19.90"));
+		keys.put("id", 42L);
+		ProductCursor cursor = ProductCursor.of("price", Sort.Direction.DESC, ScrollPosition.forward(keys));
+
+		ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+		assertThat(decoded.getSortBy()).isEqualTo("price");
+		assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+		assertThat(((KeysetScrollPosition) decoded.toScrollPosition()).getKeys()).isEqualTo(keys);
+	}
+
+	@Test
+	void roundTripsTimestampKeys() {
+		LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000);
+		Map<String, Object> keys = Map.of("createdAt", createdAt, "id", 7L);
+		ProductCursor cursor = ProductCursor.of("createdAt", Sort.Direction.ASC, ScrollPosition.forward(keys));
+
+		KeysetScrollPosition position = (KeysetScrollPosition) ProductCursor.decode(cursor.encode()).toScrollPosition();
+
+		assertThat(position.getKeys()).containsEntry("createdAt", createdAt).containsEntry("id", 7L);
+	}
+
+	@Test
+	void rejectsTamperedTokens() {
+		assertThatThrownBy(() -> ProductCursor.decode("not-a-cursor"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsSortsWithoutAnIndex() {
+		ProductCursor cursor = ProductCursor.of("description", Sort.Direction.ASC,
+				ScrollPosition.forward(Map.of("id", 1L)));
+
+		assertThatThrownBy(() -> ProductCursor.decode(cursor.encode()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
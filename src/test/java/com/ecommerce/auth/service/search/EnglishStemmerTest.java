@@ -0,0 +1,35 @@
+package com.ecommerce.auth.service.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnglishStemmerTest {
+
+	// Expected stems as produced by to_tsvector('english', word)
+	@ParameterizedTest
+	@CsvSource({
+			"cases, case",
+			"caresses, caress",
+			"ponies, poni",
+			"ties, tie",
+			"running, run",
+			"hoping, hope",
+			"agreed, agre",
+			"batteries, batteri",
+			"happiness, happi",
+			"relational, relat",
+			"generously, generous",
+			"communication, communic",
+			"cameras, camera",
+			"skies, sky",
+			"iphone, iphon",
+			"usb, usb",
+			"128gb, 128gb"
+	})
+	void stemsLikeSnowballEnglish(String word, String stem) {
+		assertThat(EnglishStemmer.stem(word)).isEqualTo(stem);
+	}
+
+}
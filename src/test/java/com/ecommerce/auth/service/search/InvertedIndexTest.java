@@ -0,0 +1,93 @@
+package com.ecommerce.auth.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatches() {
+		InvertedIndex index = new InvertedIndex();
+		index.upsert(1L, "Leather case", "Fits the iPhone 14 Pro", "CASE-14");
+		index.upsert(2L, "iPhone 14 Pro", "Latest iPhone with advanced camera system", "IPHONE14PRO128");
+		index.upsert(3L, "USB-C cable", "Braided, two metres", "CABLE-2M");
+
+		InvertedIndex.SearchHits hits = index.search("iphone", 10);
+
+		assertThat(hits.productIds()).containsExactly(2L, 1L);
+		assertThat(hits.totalHits()).isEqualTo(2);
+	}
+
+	@Test
+	void matchesEveryStemmedTermAndIgnoresStopWords() {
+		InvertedIndex index = new InvertedIndex();
+		index.upsert(1L, "Leather cases", "Hand stitched", "CASE-1");
+		index.upsert(2L, "Silicone case", "Soft touch", "CASE-2");
+		index.upsert(3L, "Leather wallet", "Hand stitched", "WALLET-1");
+
+		assertThat(index.search("leather case", 10).productIds()).containsExactly(1L);
+		assertThat(index.search("the stitching", 10).productIds()).containsExactlyInAnyOrder(1L, 3L);
+		assertThat(index.search("leather bag", 10).totalHits()).isZero();
+		assertThat(index.search("the", 10).totalHits()).isZero();
+	}
+
+	@Test
+	void upsertIfChangedSkipsUnchangedText() {
+		InvertedIndex index = new InvertedIndex();
+		index.upsert(1L, "Red mug", null, "MUG-R");
+
+		assertThat(index.upsertIfChanged(1L, "Red mug", null, "MUG-R")).isFalse();
+		assertThat(index.upsertIfChanged(1L, "Blue mug", null, "MUG-R")).isTrue();
+		assertThat(index.search("blue", 10).productIds()).containsExactly(1L);
+		assertThat(index.search("red", 10).totalHits()).isZero();
+	}
+
+	@Test
+	void limitsResultsButCountsAllHits() {
+		InvertedIndex index = new InvertedIndex();
+		for (long id = 1; id <= 50; id++) {
+			index.upsert(id, "Widget " + id, null, "W-" + id);
+		}
+
+		InvertedIndex.SearchHits hits = index.search("widget", 5);
+
+		assertThat(hits.productIds()).hasSize(5);
+		assertThat(hits.totalHits()).isEqualTo(50);
+	}
+
+	@Test
+	void updatesReplaceAndDeletesRemoveDocuments() {
+		InvertedIndex index = new InvertedIndex();
+		index.upsert(1L, "Red mug", null, "MUG-R");
+		index.upsert(1L, "Blue mug", null, "MUG-B");
+		index.upsert(2L, "Red scarf", null, "SCARF-R");
+		index.remove(2L);
+
+		assertThat(index.search("red", 10).productIds()).isEmpty();
+		assertThat(index.search("blue", 10).productIds()).containsExactly(1L);
+		assertThat(index.documentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void compactionKeepsLiveDocumentsSearchable() {
+		InvertedIndex index = new InvertedIndex();
+		for (long id = 1; id <= 3000; id++) {
+			index.upsert(id, "Item " + id, id % 2 == 0 ? "even" : "odd", "SKU-" + id);
+		}
+		for (long id = 1; id <= 3000; id += 2) {
+			index.remove(id);
+		}
+		long before = index.estimatedMemoryBytes();
+
+		assertThat(index.needsCompaction()).isTrue();
+		index.compact();
+
+		assertThat(index.needsCompaction()).isFalse();
+		assertThat(index.search("odd", 10).totalHits()).isZero();
+		assertThat(index.search("even", 10).totalHits()).isEqualTo(1500);
+		assertThat(index.search("sku 42", 1).productIds()).containsExactly(42L);
+		assertThat(index.estimatedMemoryBytes()).isLessThan(before);
+	}
+
+}